@@ -0,0 +1,17 @@
+package com.example.bddservice;
+
+import io.cucumber.junit.platform.engine.Constants;
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
+
+/**
+ * Load scenarios are excluded from the default build, they are run by the load-test profile:
+ * mvn -pl bdd-service test -P load-test
+ */
+@Suite
+@SelectClasspathResource("features")
+@ConfigurationParameter(key = Constants.PLUGIN_PUBLISH_QUIET_PROPERTY_NAME, value = "true")
+@ConfigurationParameter(key = Constants.FILTER_TAGS_PROPERTY_NAME, value = "@load")
+public class BDDLoadTest {
+}
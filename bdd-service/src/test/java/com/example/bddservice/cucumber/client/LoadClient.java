@@ -0,0 +1,145 @@
+package com.example.bddservice.cucumber.client;
+
+import com.example.bddservice.cucumber.load.LoadTestProps;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.example.bddservice.cucumber.utils.TestUtil.getJwtToken;
+import static com.example.bddservice.cucumber.utils.UrlUtil.*;
+
+/**
+ * Client of the load scenarios, shared by all their client threads.
+ * Unlike RestTemplate on HttpURLConnection, which keeps at most five idle connections to a server,
+ * it reuses a pooled connection for every client thread, so latencies don't include connection setup.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadClient {
+
+    private final LoadTestProps loadTestProps;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private volatile String serverUrl;
+    private volatile String authorization;
+
+    public void connect(int port) {
+        serverUrl = SERVER_URL + port;
+        authorization = getJwtToken();
+    }
+
+    public long createUser(String username, String password) {
+        Map<String, String> user = Map.of(
+                "username", username,
+                "email", username + "@mail.ru",
+                "dateOfBirth", "1997-06-25");
+        return readId(send(request(USERS + "?password=" + encode(password))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(writeValue(user)))));
+    }
+
+    public long createPost(Long userId, String title) {
+        Map<String, Object> post = Map.of(
+                "userId", userId,
+                "title", title,
+                "content", title + " content");
+        return readId(send(authorizedRequest(POSTS)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(writeValue(post)))));
+    }
+
+    public int createComment(Long postId, Long userId, String text) {
+        Map<String, Object> comment = Map.of(
+                "userId", userId,
+                "text", text);
+        return send(authorizedRequest(POSTS_BY_ID + postId + COMMENTS)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(writeValue(comment))))
+                .statusCode();
+    }
+
+    @SneakyThrows
+    public void addFile(Long postId, byte[] content) {
+        String boundary = UUID.randomUUID().toString();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"post-" + postId + ".bin\"\r\n" +
+                "Content-Type: " + MediaType.APPLICATION_OCTET_STREAM_VALUE + "\r\n\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        checkStatus(send(authorizedRequest(POSTS_BY_ID + postId + FILE)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.MULTIPART_FORM_DATA_VALUE + "; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))));
+    }
+
+    public int get(String endpoint) {
+        return send(authorizedRequest(endpoint).GET()).statusCode();
+    }
+
+    @SneakyThrows
+    public int download(String endpoint) {
+        return httpClient.send(authorizedRequest(endpoint).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    public int authenticate(String username, String password) {
+        return send(request(USERS_AUTHENTICATE)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "username=" + encode(username) + "&password=" + encode(password))))
+                .statusCode();
+    }
+
+    private HttpRequest.Builder request(String endpoint) {
+        return HttpRequest.newBuilder(URI.create(serverUrl + endpoint))
+                .timeout(loadTestProps.getRequestTimeout());
+    }
+
+    private HttpRequest.Builder authorizedRequest(String endpoint) {
+        return request(endpoint)
+                .header(HttpHeaders.AUTHORIZATION, authorization);
+    }
+
+    @SneakyThrows
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @SneakyThrows
+    private long readId(HttpResponse<String> response) {
+        checkStatus(response);
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private void checkStatus(HttpResponse<String> response) {
+        if (response.statusCode() >= 400)
+            throw new IllegalStateException("Request " + response.request().uri() + " failed with status code " +
+                    response.statusCode() + " : " + response.body());
+    }
+
+    @SneakyThrows
+    private String writeValue(Object value) {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.bddservice.cucumber.hooks;
+
+import com.example.bddservice.cucumber.client.LoadClient;
+import com.example.bddservice.cucumber.load.LoadTestContext;
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.Given;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Seeds load scenarios through the API, so posts get their comment summaries and files
+ * the same way as in production. Collections of Mongock are kept, they hold the applied migrations.
+ */
+@RequiredArgsConstructor
+public class LoadDataHook {
+    private static final String MONGOCK_COLLECTION_PREFIX = "mongock";
+
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+    private final LoadClient loadClient;
+    private final LoadTestContext loadTestContext;
+
+    @LocalServerPort
+    private int port;
+
+    @Before("@load")
+    public void setUpLoad() {
+        clearDatabase();
+        loadClient.connect(port);
+    }
+
+    @After("@load")
+    public void tearDownLoad() {
+        clearDatabase();
+    }
+
+    @Given("the blog has {int} users with password {string}")
+    public void initUsers(int quantity, String password) {
+        loadTestContext.setPassword(password);
+        for (int i = 1; i <= quantity; i++) {
+            String username = "loadUser" + i;
+            loadTestContext.getUserIds().add(loadClient.createUser(username, password));
+            loadTestContext.getUsernames().add(username);
+        }
+    }
+
+    @And("the users have {int} posts with {int} comments each")
+    public void initPosts(int quantity, int commentsQuantity) {
+        List<Long> userIds = loadTestContext.getUserIds();
+        for (int i = 0; i < quantity; i++) {
+            long postId = loadClient.createPost(userIds.get(i % userIds.size()), "Load post " + i);
+            loadTestContext.getPostIds().add(postId);
+            for (int j = 0; j < commentsQuantity; j++)
+                assertEquals(201, loadClient.createComment(postId, userIds.get(j % userIds.size()),
+                        "Load comment " + j));
+        }
+    }
+
+    @And("every post has a file of {int} KB")
+    public void initFiles(int kilobytes) {
+        for (Long postId : loadTestContext.getPostIds()) {
+            byte[] content = new byte[kilobytes * 1024];
+            ThreadLocalRandom.current().nextBytes(content);
+            loadClient.addFile(postId, content);
+        }
+    }
+
+    private void clearDatabase() {
+        mongoTemplate.getCollectionNames().stream()
+                .filter(collectionName -> !collectionName.startsWith(MONGOCK_COLLECTION_PREFIX))
+                .forEach(collectionName -> mongoTemplate.remove(new Query(), collectionName));
+        cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(cache -> cache.clear());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bddservice.cucumber.load;
+
+import java.util.Arrays;
+
+/**
+ * Latencies recorded by one client, merged into a report once every client has finished.
+ */
+class LatencySamples {
+    private long[] latencies = new long[1024];
+    private int size;
+    private long errors;
+
+    void record(long latencyNanos, boolean succeeded) {
+        if (size == latencies.length)
+            latencies = Arrays.copyOf(latencies, size * 2);
+        latencies[size++] = latencyNanos;
+        if (!succeeded)
+            errors++;
+    }
+
+    void addAll(LatencySamples samples) {
+        if (size + samples.size > latencies.length)
+            latencies = Arrays.copyOf(latencies, Math.max(size + samples.size, size * 2));
+        System.arraycopy(samples.latencies, 0, latencies, size, samples.size);
+        size += samples.size;
+        errors += samples.errors;
+    }
+
+    long[] getSortedLatencies() {
+        long[] sortedLatencies = Arrays.copyOf(latencies, size);
+        Arrays.sort(sortedLatencies);
+        return sortedLatencies;
+    }
+
+    long getErrors() {
+        return errors;
+    }
+}
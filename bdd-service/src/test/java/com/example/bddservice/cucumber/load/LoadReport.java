@@ -0,0 +1,57 @@
+package com.example.bddservice.cucumber.load;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+@Builder
+public class LoadReport {
+    private final String profile;
+    private final long requests;
+    private final long errors;
+    private final Duration duration;
+    private final Duration p50;
+    private final Duration p95;
+    private final Duration p99;
+    private final Duration max;
+    private final double rps;
+
+    static LoadReport of(String profile, LatencySamples samples, Duration duration) {
+        long[] latencies = samples.getSortedLatencies();
+        return LoadReport.builder()
+                .profile(profile)
+                .requests(latencies.length)
+                .errors(samples.getErrors())
+                .duration(duration)
+                .p50(percentile(latencies, 50))
+                .p95(percentile(latencies, 95))
+                .p99(percentile(latencies, 99))
+                .max(percentile(latencies, 100))
+                .rps(latencies.length / (duration.toNanos() / 1e9))
+                .build();
+    }
+
+    /**
+     * Nearest-rank percentile of sorted latencies.
+     */
+    private static Duration percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0)
+            return Duration.ZERO;
+        int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+        return Duration.ofNanos(sortedLatencies[Math.max(rank, 1) - 1]);
+    }
+
+    public double getErrorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d requests in %ds, %.1f rps, %d errors (%.2f%%), " +
+                        "p50=%dms p95=%dms p99=%dms max=%dms",
+                profile, requests, duration.toSeconds(), rps, errors, getErrorRate() * 100,
+                p50.toMillis(), p95.toMillis(), p99.toMillis(), max.toMillis());
+    }
+}
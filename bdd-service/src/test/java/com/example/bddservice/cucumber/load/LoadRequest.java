@@ -0,0 +1,12 @@
+package com.example.bddservice.cucumber.load;
+
+import java.util.Random;
+
+@FunctionalInterface
+public interface LoadRequest {
+
+    /**
+     * Sends one request and returns the status code of its response.
+     */
+    int execute(Random random) throws Exception;
+}
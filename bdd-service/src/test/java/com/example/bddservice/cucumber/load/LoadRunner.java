@@ -0,0 +1,69 @@
+package com.example.bddservice.cucumber.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs a closed workload: every client sends its next request as soon as the previous one is answered.
+ * Requests started during the warmup of a profile aren't recorded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoadRunner {
+
+    private final LoadTestProps loadTestProps;
+
+    @SneakyThrows
+    public LoadReport run(String profileName, LoadRequest loadRequest) {
+        LoadTestProps.LoadProfile profile = loadTestProps.getProfile(profileName);
+        log.info("Run load profile : {} with {} clients for {}", profileName, profile.getConcurrency(),
+                profile.getDuration());
+        long measureFrom = System.nanoTime() + profile.getWarmup().toNanos();
+        long measureUntil = measureFrom + profile.getDuration().toNanos();
+        ExecutorService executorService = Executors.newFixedThreadPool(profile.getConcurrency());
+        try {
+            List<Future<LatencySamples>> clients = new ArrayList<>();
+            for (int i = 0; i < profile.getConcurrency(); i++)
+                clients.add(executorService.submit(() -> runClient(loadRequest, measureFrom, measureUntil)));
+            LatencySamples samples = new LatencySamples();
+            for (Future<LatencySamples> client : clients)
+                samples.addAll(client.get());
+            LoadReport loadReport = LoadReport.of(profileName, samples, profile.getDuration());
+            log.info("Load report of {}", loadReport);
+            return loadReport;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private LatencySamples runClient(LoadRequest loadRequest, long measureFrom, long measureUntil) {
+        LatencySamples samples = new LatencySamples();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start;
+        while ((start = System.nanoTime()) < measureUntil) {
+            boolean succeeded;
+            try {
+                int statusCode = loadRequest.execute(random);
+                succeeded = statusCode >= 200 && statusCode < 400;
+                if (!succeeded)
+                    log.debug("Load request failed with status code : {}", statusCode);
+            } catch (Exception e) {
+                log.debug("Load request failed", e);
+                succeeded = false;
+            }
+            if (start >= measureFrom)
+                samples.record(System.nanoTime() - start, succeeded);
+        }
+        return samples;
+    }
+}
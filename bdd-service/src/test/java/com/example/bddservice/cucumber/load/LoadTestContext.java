@@ -0,0 +1,23 @@
+package com.example.bddservice.cucumber.load;
+
+import io.cucumber.spring.ScenarioScope;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Users and posts seeded for a load scenario, read by the steps before the load starts.
+ */
+@Component
+@ScenarioScope
+@Getter
+@Setter
+public class LoadTestContext {
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final List<Long> postIds = new ArrayList<>();
+    private String password;
+}
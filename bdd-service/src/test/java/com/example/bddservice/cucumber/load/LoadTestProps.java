@@ -0,0 +1,45 @@
+package com.example.bddservice.cucumber.load;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "load-test")
+@Getter
+@Setter
+public class LoadTestProps {
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    private Map<String, LoadProfile> profiles = new HashMap<>();
+
+    public LoadProfile getProfile(String name) {
+        LoadProfile profile = profiles.get(name);
+        if (profile == null)
+            throw new IllegalArgumentException("Load profile " + name + " isn't configured");
+        return profile;
+    }
+
+    @Getter
+    @Setter
+    public static class LoadProfile {
+        private int concurrency = 16;
+        private Duration warmup = Duration.ofSeconds(5);
+        private Duration duration = Duration.ofSeconds(30);
+        private Slo slo = new Slo();
+    }
+
+    @Getter
+    @Setter
+    public static class Slo {
+        private Duration p50;
+        private Duration p95;
+        private Duration p99;
+        private Double minRps;
+        private double maxErrorRate;
+    }
+}
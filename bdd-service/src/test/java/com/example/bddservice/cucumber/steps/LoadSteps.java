@@ -0,0 +1,100 @@
+package com.example.bddservice.cucumber.steps;
+
+import com.example.bddservice.cucumber.client.LoadClient;
+import com.example.bddservice.cucumber.load.LoadReport;
+import com.example.bddservice.cucumber.load.LoadRunner;
+import com.example.bddservice.cucumber.load.LoadTestContext;
+import com.example.bddservice.cucumber.load.LoadTestProps;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.assertj.core.api.SoftAssertions;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static com.example.bddservice.cucumber.utils.UrlUtil.*;
+
+public class LoadSteps {
+    private static final int PAGE_SIZE = 20;
+    private static final int COMMENTS_PAGE_SIZE = 10;
+
+    @Autowired
+    private LoadClient loadClient;
+
+    @Autowired
+    private LoadRunner loadRunner;
+
+    @Autowired
+    private LoadTestProps loadTestProps;
+
+    @Autowired
+    private LoadTestContext loadTestContext;
+
+    private Scenario scenario;
+    private LoadReport loadReport;
+
+    @Before("@load")
+    public void setScenario(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    @When("clients browse posts under the {string} load profile")
+    public void browse_posts(String profile) {
+        List<Long> postIds = List.copyOf(loadTestContext.getPostIds());
+        int pages = Math.max(1, postIds.size() / PAGE_SIZE);
+        loadReport = loadRunner.run(profile, random -> {
+            long postId = postIds.get(random.nextInt(postIds.size()));
+            return switch (random.nextInt(4)) {
+                case 0 -> loadClient.get(POSTS + "?page=" + random.nextInt(pages) + "&size=" + PAGE_SIZE);
+                case 1 -> loadClient.get(POSTS_SCROLL + "?size=" + PAGE_SIZE);
+                case 2 -> loadClient.get(POSTS_BY_ID + postId);
+                default -> loadClient.get(POSTS_BY_ID + postId + COMMENTS + "?page=0&size=" + COMMENTS_PAGE_SIZE);
+            };
+        });
+    }
+
+    @When("clients comment on one hot post under the {string} load profile")
+    public void comment_on_hot_post(String profile) {
+        long hotPostId = loadTestContext.getPostIds().get(0);
+        List<Long> userIds = List.copyOf(loadTestContext.getUserIds());
+        loadReport = loadRunner.run(profile, random -> random.nextInt(4) == 0 ?
+                loadClient.get(POSTS_BY_ID + hotPostId) :
+                loadClient.createComment(hotPostId, userIds.get(random.nextInt(userIds.size())), "Storm comment"));
+    }
+
+    @When("clients download files of posts under the {string} load profile")
+    public void download_files(String profile) {
+        List<Long> postIds = List.copyOf(loadTestContext.getPostIds());
+        loadReport = loadRunner.run(profile, random ->
+                loadClient.download(POSTS_BY_ID + postIds.get(random.nextInt(postIds.size())) + FILE));
+    }
+
+    @When("users log in under the {string} load profile")
+    public void log_in(String profile) {
+        List<String> usernames = List.copyOf(loadTestContext.getUsernames());
+        String password = loadTestContext.getPassword();
+        loadReport = loadRunner.run(profile, random ->
+                loadClient.authenticate(usernames.get(random.nextInt(usernames.size())), password));
+    }
+
+    @Then("the load report meets the SLO of the {string} load profile")
+    public void the_load_report_meets_slo(String profile) {
+        scenario.log(loadReport.toString());
+        LoadTestProps.Slo slo = loadTestProps.getProfile(profile).getSlo();
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(loadReport.getRequests()).as("requests of %s", profile).isPositive();
+        if (slo.getP50() != null)
+            softly.assertThat(loadReport.getP50()).as("p50 of %s", profile).isLessThanOrEqualTo(slo.getP50());
+        if (slo.getP95() != null)
+            softly.assertThat(loadReport.getP95()).as("p95 of %s", profile).isLessThanOrEqualTo(slo.getP95());
+        if (slo.getP99() != null)
+            softly.assertThat(loadReport.getP99()).as("p99 of %s", profile).isLessThanOrEqualTo(slo.getP99());
+        if (slo.getMinRps() != null)
+            softly.assertThat(loadReport.getRps()).as("rps of %s", profile).isGreaterThanOrEqualTo(slo.getMinRps());
+        softly.assertThat(loadReport.getErrorRate()).as("error rate of %s", profile)
+                .isLessThanOrEqualTo(slo.getMaxErrorRate());
+        softly.assertAll();
+    }
+}
@@ -10,7 +10,7 @@ import java.util.Date;
 import static java.lang.System.currentTimeMillis;
 
 public class TestUtil {
-    private static String getJwtToken() {
+    public static String getJwtToken() {
         return "Bearer " + JWT.create()
                 .withSubject("admin")
                 .withExpiresAt(new Date(currentTimeMillis() + 10 * 10 * 60 * 1000))
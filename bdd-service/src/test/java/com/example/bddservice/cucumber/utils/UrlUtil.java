@@ -4,4 +4,10 @@ public class UrlUtil {
     public static final String SERVER_URL = "http://localhost:";
     public static final String USERS = "/users";
     public static final String USERS_BY_ID = "/users/";
+    public static final String USERS_AUTHENTICATE = "/users/authenticate";
+    public static final String POSTS = "/posts";
+    public static final String POSTS_SCROLL = "/posts/scroll";
+    public static final String POSTS_BY_ID = "/posts/";
+    public static final String COMMENTS = "/comments";
+    public static final String FILE = "/file";
 }
@@ -0,0 +1,23 @@
+@load
+Feature: keep latency and throughput of the blog within its SLOs under load
+
+  Background:
+    Given the blog has 20 users with password "loadPassword"
+    And the users have 50 posts with 10 comments each
+
+  Scenario: clients browse posts, their pages and comments
+    When clients browse posts under the "post-browsing" load profile
+    Then the load report meets the SLO of the "post-browsing" load profile
+
+  Scenario: clients storm one hot post with comments while reading it
+    When clients comment on one hot post under the "comment-storm" load profile
+    Then the load report meets the SLO of the "comment-storm" load profile
+
+  Scenario: clients download files of many posts at once
+    Given every post has a file of 512 KB
+    When clients download files of posts under the "file-download" load profile
+    Then the load report meets the SLO of the "file-download" load profile
+
+  Scenario: users log in all at once
+    When users log in under the "login-burst" load profile
+    Then the load report meets the SLO of the "login-burst" load profile
@@ -0,0 +1,65 @@
+package com.example.blogbenchmarks;
+
+import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
+import com.example.blogservice.model.Post;
+import com.example.blogservice.model.Role;
+import com.example.blogservice.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Builds the models the benchmarks work on, shaped like the documents a page of the blog is read from.
+ */
+public class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public static User user(long userId) {
+        return User.builder()
+                .id(userId)
+                .username("user" + userId)
+                .password("$2a$12$" + "x".repeat(53))
+                .email("user" + userId + "@mail.ru")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .role(Role.ROLE_USER)
+                .build();
+    }
+
+    public static Comment comment(long commentId, long postId) {
+        return Comment.builder()
+                .id(commentId)
+                .text("Comment " + commentId + " of post " + postId)
+                .user(user(commentId))
+                .postId(postId)
+                .build();
+    }
+
+    public static Post post(long postId, int comments) {
+        return Post.builder()
+                .id(postId)
+                .title("Title of post " + postId)
+                .content("Content of post " + postId + " ".repeat(10) + "x".repeat(500))
+                .user(user(postId))
+                .latestComments(LongStream.rangeClosed(1, comments)
+                        .mapToObj(commentId -> CommentSummary.builder()
+                                .id(commentId)
+                                .text("Comment " + commentId + " of post " + postId)
+                                .userId(commentId)
+                                .username("user" + commentId)
+                                .build())
+                        .collect(Collectors.toList()))
+                .commentCount(comments)
+                .build();
+    }
+
+    public static List<Post> posts(int posts, int comments) {
+        return LongStream.rangeClosed(1, posts)
+                .mapToObj(postId -> post(postId, comments))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.blogbenchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the usual JMH command line options and writes their results as JSON
+ * to jmh-result.json unless another result format or file is given, e.g.
+ * {@code java -jar blog-benchmarks/target/benchmarks.jar -rff jmh-result-$(git rev-parse --short HEAD).json}.
+ * Results of two commits are compared by loading both files into a JMH result visualizer.
+ */
+public class BenchmarkRunner {
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        if (!commandLineOptions.getResultFormat().hasValue())
+            options.resultFormat(ResultFormatType.JSON);
+        if (!commandLineOptions.getResult().hasValue())
+            options.result(DEFAULT_RESULT_FILE);
+        options.parent(commandLineOptions);
+        new Runner(options.build()).run();
+    }
+}
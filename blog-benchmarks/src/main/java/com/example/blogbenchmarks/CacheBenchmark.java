@@ -0,0 +1,85 @@
+package com.example.blogbenchmarks;
+
+import com.example.blogservice.cache.CacheRefreshRegistry;
+import com.example.blogservice.config.CacheConfig;
+import com.example.blogservice.dto.PostDtoResponse;
+import com.example.blogservice.mapper.PostMapper;
+import com.example.blogservice.mapper.impl.CommentMapperImpl;
+import com.example.blogservice.mapper.impl.PostMapperImpl;
+import com.example.blogservice.mapper.impl.UserMapperImpl;
+import com.example.blogservice.props.CacheProps;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.blogservice.utils.ConstantUtil.CacheName.COMMENT;
+import static com.example.blogservice.utils.ConstantUtil.CacheName.POST;
+
+/**
+ * Reads and writes posts in the caches built by {@link CacheConfig}: the post cache bounded by the estimated size
+ * of its entries and a cache of the same posts bounded by the number of entries, to show the cost of the weigher.
+ * Reads hit a cache filled with {@value #ENTRIES} posts with five latest comments each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    private static final int ENTRIES = 10_000;
+
+    @Param({POST, COMMENT})
+    public String cacheName;
+
+    private Cache cache;
+    private List<PostDtoResponse> posts;
+
+    @Setup
+    public void setUp() {
+        CacheProps cacheProps = new CacheProps();
+        cacheProps.setSpecs(Map.of(POST, weightedSpec(), COMMENT, sizedSpec()));
+        CacheManager cacheManager = new CacheConfig(cacheProps, new CacheRefreshRegistry(new SyncTaskExecutor()))
+                .cacheManager();
+        cache = cacheManager.getCache(cacheName);
+        PostMapper postMapper = new PostMapperImpl(new UserMapperImpl(), new CommentMapperImpl(new UserMapperImpl()));
+        posts = BenchmarkData.posts(ENTRIES, 5).stream()
+                .map(postMapper::mapToPostDtoResponse)
+                .toList();
+        posts.forEach(post -> cache.put(post.getId(), post));
+    }
+
+    @Benchmark
+    public Cache.ValueWrapper get() {
+        return cache.get((long) ThreadLocalRandom.current().nextInt(1, ENTRIES + 1));
+    }
+
+    @Benchmark
+    public void put() {
+        PostDtoResponse post = posts.get(ThreadLocalRandom.current().nextInt(ENTRIES));
+        cache.put(post.getId(), post);
+    }
+
+    private static CacheProps.CacheSpec weightedSpec() {
+        CacheProps.CacheSpec spec = new CacheProps.CacheSpec();
+        spec.setMaximumWeight(64L * 1024 * 1024);
+        spec.setExpireAfterWrite(Duration.ofHours(6));
+        spec.setExpireAfterAccess(Duration.ofHours(1));
+        return spec;
+    }
+
+    private static CacheProps.CacheSpec sizedSpec() {
+        CacheProps.CacheSpec spec = new CacheProps.CacheSpec();
+        spec.setMaximumSize(20_000L);
+        spec.setExpireAfterWrite(Duration.ofHours(6));
+        spec.setExpireAfterAccess(Duration.ofHours(1));
+        return spec;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.blogbenchmarks;
+
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.dto.PostDtoResponse;
+import com.example.blogservice.mapper.PostMapper;
+import com.example.blogservice.mapper.impl.CommentMapperImpl;
+import com.example.blogservice.mapper.impl.PostMapperImpl;
+import com.example.blogservice.mapper.impl.UserMapperImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the responses of the post endpoints to JSON with an object mapper configured like the one of the application:
+ * a single post, a page of posts and a slice of posts with its cursor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "5"})
+    public int comments;
+
+    private ObjectMapper objectMapper;
+    private PostDtoResponse post;
+    private PageImpl<PostDtoResponse> page;
+    private CursorSlice<PostDtoResponse> slice;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        PostMapper postMapper = new PostMapperImpl(new UserMapperImpl(), new CommentMapperImpl(new UserMapperImpl()));
+        List<PostDtoResponse> posts = BenchmarkData.posts(PAGE_SIZE, comments).stream()
+                .map(postMapper::mapToPostDtoResponse)
+                .toList();
+        PageRequest pageRequest = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        post = posts.get(0);
+        page = new PageImpl<>(posts, pageRequest, 1000);
+        slice = new CursorSlice<>(posts, PAGE_SIZE, Sort.by("id"), "eyJpZCI6MjB9");
+    }
+
+    @Benchmark
+    public byte[] writePost() throws Exception {
+        return objectMapper.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] writeSlice() throws Exception {
+        return objectMapper.writeValueAsBytes(slice);
+    }
+}
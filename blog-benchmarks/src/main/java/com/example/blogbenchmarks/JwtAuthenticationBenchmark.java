@@ -0,0 +1,59 @@
+package com.example.blogbenchmarks;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.blogservice.props.VerifiedTokenCacheProps;
+import com.example.blogservice.security.provider.JwtAuthenticationProvider;
+import com.example.blogservice.security.service.UserStateService;
+import com.example.blogservice.security.token.JwtAuthenticationToken;
+import com.example.blogservice.security.token.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.Authentication;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticates a request by its access token in {@link JwtAuthenticationProvider},
+ * with the signature verified on every request and with the verified token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    @Param({"false", "true"})
+    public boolean verifiedTokenCacheEnabled;
+
+    private JwtAuthenticationProvider jwtAuthenticationProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        Algorithm algorithm = Algorithm.HMAC256("secret".getBytes());
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(verifiedTokenCacheEnabled ?
+                Map.of("verifiedTokenCache", new VerifiedTokenCache(new VerifiedTokenCacheProps(),
+                        new SimpleMeterRegistry())) :
+                Map.of());
+        jwtAuthenticationProvider = new JwtAuthenticationProvider(JWT.require(algorithm).build(),
+                beanFactory.getBeanProvider(UserStateService.class),
+                beanFactory.getBeanProvider(VerifiedTokenCache.class));
+        token = JWT.create()
+                .withSubject("user1")
+                .withExpiresAt(Instant.now().plusSeconds(3600))
+                .withClaim("userId", 1L)
+                .withClaim("roles", "ROLE_USER")
+                .sign(algorithm);
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return jwtAuthenticationProvider.authenticate(new JwtAuthenticationToken(token));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.blogbenchmarks;
+
+import com.example.blogservice.dto.CommentDtoResponse;
+import com.example.blogservice.dto.PostDtoResponse;
+import com.example.blogservice.dto.UserDtoResponse;
+import com.example.blogservice.mapper.CommentMapper;
+import com.example.blogservice.mapper.PostMapper;
+import com.example.blogservice.mapper.UserMapper;
+import com.example.blogservice.mapper.impl.CommentMapperImpl;
+import com.example.blogservice.mapper.impl.PostMapperImpl;
+import com.example.blogservice.mapper.impl.UserMapperImpl;
+import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.Post;
+import com.example.blogservice.model.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a post with 0, 5 and 100 latest comments, a comment and a user to their responses.
+ * A post is also mapped by ModelMapper the way it was before the mappers were written by hand,
+ * run with {@code -prof gc} to compare the allocation per post as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private PostMapper postMapper;
+    private ModelMapper modelMapper;
+    private CommentMapper commentMapper;
+    private UserMapper userMapper;
+    private Comment comment;
+    private User user;
+
+    @State(Scope.Benchmark)
+    public static class PostState {
+        @Param({"0", "5", "100"})
+        public int comments;
+
+        private Post post;
+
+        @Setup
+        public void setUp() {
+            post = BenchmarkData.post(1L, comments);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+        commentMapper = new CommentMapperImpl(userMapper);
+        postMapper = new PostMapperImpl(userMapper, commentMapper);
+        modelMapper = new ModelMapper();
+        comment = BenchmarkData.comment(1L, 1L);
+        user = BenchmarkData.user(1L);
+    }
+
+    @Benchmark
+    public PostDtoResponse mapPost(PostState postState) {
+        return postMapper.mapToPostDtoResponse(postState.post);
+    }
+
+    @Benchmark
+    public PostDtoResponse mapPostWithModelMapper(PostState postState) {
+        Post post = postState.post;
+        PostDtoResponse postDtoResponse = modelMapper.map(post, PostDtoResponse.class);
+        postDtoResponse.setUserDtoResponse(modelMapper.map(post.getUser(), UserDtoResponse.class));
+        postDtoResponse.setComments(post.getLatestComments() == null ? new ArrayList<>() :
+                post.getLatestComments().stream()
+                        .map(commentSummary -> CommentDtoResponse.builder()
+                                .id(commentSummary.getId())
+                                .text(commentSummary.getText())
+                                .userDtoResponse(UserDtoResponse.builder()
+                                        .id(commentSummary.getUserId())
+                                        .username(commentSummary.getUsername())
+                                        .build())
+                                .build())
+                        .collect(Collectors.toList()));
+        postDtoResponse.setCommentCount(post.getCommentCount());
+        return postDtoResponse;
+    }
+
+    @Benchmark
+    public CommentDtoResponse mapComment() {
+        return commentMapper.mapToCommentDtoResponse(comment);
+    }
+
+    @Benchmark
+    public UserDtoResponse mapUser() {
+        return userMapper.mapToUserDtoResponse(user);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.blogbenchmarks;
+
+import com.example.blogservice.model.sequence.DatabaseSequence;
+import com.example.blogservice.props.SequenceProps;
+import com.example.blogservice.service.impl.SequenceGeneratorService;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates ids with the block sizes of {@link SequenceGeneratorService} by one and by eight threads.
+ * The $inc of the sequence is answered from memory after a pause of {@value #ROUND_TRIP_MICROS} microseconds,
+ * which stands for the round trip to the database, so the results show how many round trips a block saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceGeneratorBenchmark {
+    private static final String SEQUENCE_NAME = "post_sequence";
+    private static final long ROUND_TRIP_MICROS = 200;
+
+    @Param({"1", "50", "1000"})
+    public int blockSize;
+
+    private SequenceGeneratorService sequenceGeneratorService;
+
+    @Setup
+    public void setUp() {
+        SequenceProps sequenceProps = new SequenceProps();
+        sequenceProps.setBlockSizes(Map.of(SEQUENCE_NAME, blockSize));
+        sequenceGeneratorService = new SequenceGeneratorService(sequenceOperations(), sequenceProps);
+    }
+
+    @Benchmark
+    public Long generateSequence() {
+        return sequenceGeneratorService.generateSequence(SEQUENCE_NAME);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Long generateSequenceConcurrently() {
+        return sequenceGeneratorService.generateSequence(SEQUENCE_NAME);
+    }
+
+    private static MongoOperations sequenceOperations() {
+        AtomicLong sequence = new AtomicLong();
+        return (MongoOperations) Proxy.newProxyInstance(MongoOperations.class.getClassLoader(),
+                new Class<?>[]{MongoOperations.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findAndModify"))
+                        throw new UnsupportedOperationException(method.getName());
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ROUND_TRIP_MICROS));
+                    Number increment = (Number) ((Update) args[1]).getUpdateObject().get("$inc", Document.class)
+                            .get("seq");
+                    return new DatabaseSequence(SEQUENCE_NAME, sequence.addAndGet(increment.longValue()));
+                });
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.blogbenchmarks;
+
+import com.example.blogservice.utils.VirtualThreadUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serves {@link #connections} concurrent requests, each blocked for {@value #ROUND_TRIP_MILLIS} milliseconds
+ * by a round trip to the database, on the threads of every request execution mode of the service:
+ * the pool of {@value #TOMCAT_MAX_THREADS} platform threads of Tomcat, a virtual thread per request, and a virtual
+ * thread per request which blocks inside a monitor and pins its carrier, as a synchronized block of a driver would.
+ * The virtual modes require Java 21 or later, on older runtimes their setup fails and only platform is reported.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long ROUND_TRIP_MILLIS = 10;
+
+    @Param({"platform", "virtual", "virtual-pinned"})
+    public String mode;
+
+    @Param({"5000"})
+    public int connections;
+
+    private ExecutorService executorService;
+    private Runnable request;
+
+    @Setup
+    public void setUp() {
+        executorService = mode.equals("platform") ?
+                new ThreadPoolExecutor(TOMCAT_MAX_THREADS, TOMCAT_MAX_THREADS, 60, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>()) :
+                VirtualThreadUtil.newThreadPerTaskExecutor("request-");
+        request = mode.equals("virtual-pinned") ?
+                ThreadModeBenchmark::pinnedRoundTrip :
+                ThreadModeBenchmark::roundTrip;
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public void serveConcurrentRequests() throws InterruptedException {
+        CountDownLatch served = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++)
+            executorService.execute(() -> {
+                request.run();
+                served.countDown();
+            });
+        served.await();
+    }
+
+    private static void roundTrip() {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ROUND_TRIP_MILLIS));
+    }
+
+    private static void pinnedRoundTrip() {
+        Object monitor = new Object();
+        synchronized (monitor) {
+            roundTrip();
+        }
+    }
+}
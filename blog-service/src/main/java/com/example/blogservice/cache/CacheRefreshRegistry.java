@@ -0,0 +1,120 @@
+package com.example.blogservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Refreshes entries of caches ahead of their expiration with uncached loaders registered by services
+ * for the caches they fill.
+ * The caches are plain Caffeine caches, so a miss runs the cached method once and no loader runs
+ * inside a computation of the cache. On schedule, every entry which is older than the refresh interval
+ * of its cache and was read since it was written is reloaded on threadPoolTaskExecutor and replaced
+ * only if it wasn't changed or evicted meanwhile. An entry whose model is gone is evicted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheRefreshRegistry {
+
+    @Qualifier("threadPoolTaskExecutor")
+    private final Executor refreshExecutor;
+    private final Map<String, Function<Object, Object>> loaders = new ConcurrentHashMap<>();
+    private final Map<String, RefreshedCache> refreshedCaches = new ConcurrentHashMap<>();
+    private final Set<String> refreshingCaches = ConcurrentHashMap.newKeySet();
+
+    public void register(String cacheName, Function<Object, Object> loader) {
+        log.debug("Register refresh loader for cache : {}", cacheName);
+        loaders.put(cacheName, loader);
+    }
+
+    public void track(String cacheName, Cache<Object, Object> cache, Duration refreshAfterWrite) {
+        Optional<Policy.FixedExpiration<Object, Object>> expireAfterWrite = cache.policy().expireAfterWrite();
+        if (expireAfterWrite.isEmpty()) {
+            log.warn("Cache : {} isn't refreshed, refresh after write requires expire after write", cacheName);
+            return;
+        }
+        log.debug("Refresh entries of cache : {} after {}", cacheName, refreshAfterWrite);
+        refreshedCaches.put(cacheName, new RefreshedCache(cache, expireAfterWrite.get(),
+                cache.policy().expireAfterAccess().orElse(null), refreshAfterWrite));
+    }
+
+    @Scheduled(fixedDelayString = "#{@cacheProps.refreshInterval.toMillis()}")
+    public void refresh() {
+        refreshedCaches.forEach((cacheName, refreshedCache) -> {
+            Function<Object, Object> loader = loaders.get(cacheName);
+            if (loader == null || !refreshingCaches.add(cacheName))
+                return;
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        refresh(cacheName, refreshedCache, loader);
+                    } finally {
+                        refreshingCaches.remove(cacheName);
+                    }
+                });
+            } catch (RuntimeException e) {
+                refreshingCaches.remove(cacheName);
+                log.warn("Refresh of cache : {} was rejected", cacheName, e);
+            }
+        });
+    }
+
+    private void refresh(String cacheName, RefreshedCache refreshedCache, Function<Object, Object> loader) {
+        int refreshed = 0;
+        for (Object key : refreshedCache.cache.asMap().keySet()) {
+            if (!refreshedCache.isDue(key))
+                continue;
+            Object value = refreshedCache.cache.policy().getIfPresentQuietly(key);
+            if (value == null)
+                continue;
+            try {
+                Object loadedValue = loader.apply(key);
+                if (loadedValue == null)
+                    refreshedCache.cache.asMap().remove(key, value);
+                else
+                    refreshedCache.cache.asMap().replace(key, value, loadedValue);
+                refreshed++;
+            } catch (RuntimeException e) {
+                log.warn("Couldn't refresh entry with key : {} of cache : {}", key, cacheName, e);
+            }
+        }
+        log.debug("Refreshed {} entries of cache : {}", refreshed, cacheName);
+    }
+
+    private static class RefreshedCache {
+        private final Cache<Object, Object> cache;
+        private final Policy.FixedExpiration<Object, Object> expireAfterWrite;
+        private final Policy.FixedExpiration<Object, Object> expireAfterAccess;
+        private final Duration refreshAfterWrite;
+
+        private RefreshedCache(Cache<Object, Object> cache, Policy.FixedExpiration<Object, Object> expireAfterWrite,
+                               Policy.FixedExpiration<Object, Object> expireAfterAccess, Duration refreshAfterWrite) {
+            this.cache = cache;
+            this.expireAfterWrite = expireAfterWrite;
+            this.expireAfterAccess = expireAfterAccess;
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+
+        private boolean isDue(Object key) {
+            Duration writeAge = expireAfterWrite.ageOf(key).orElse(Duration.ZERO);
+            if (writeAge.compareTo(refreshAfterWrite) < 0)
+                return false;
+            return expireAfterAccess == null || expireAfterAccess.ageOf(key)
+                    .map(accessAge -> accessAge.compareTo(writeAge) < 0)
+                    .orElse(false);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.blogservice.cache;
+
+import com.example.blogservice.dto.CommentDtoResponse;
+import com.example.blogservice.dto.LoadFile;
+import com.example.blogservice.dto.PostDtoResponse;
+import com.example.blogservice.dto.UserDtoResponse;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.util.List;
+
+/**
+ * Estimates the weight of a cached value in bytes from the lengths of its strings plus a fixed overhead
+ * per object, which is close to the size of its JSON representation without serializing it on every write.
+ * Values of other types weigh the fixed overhead.
+ */
+public class EstimatedSizeWeigher implements Weigher<Object, Object> {
+
+    static final int OBJECT_OVERHEAD = 64;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long weight = estimate(value);
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static long estimate(Object value) {
+        if (value instanceof PostDtoResponse post)
+            return OBJECT_OVERHEAD + length(post.getTitle()) + length(post.getContent())
+                    + estimate(post.getUserDtoResponse()) + estimate(post.getFile()) + estimate(post.getComments());
+        if (value instanceof CommentDtoResponse comment)
+            return OBJECT_OVERHEAD + length(comment.getText()) + estimate(comment.getUserDtoResponse());
+        if (value instanceof UserDtoResponse user)
+            return OBJECT_OVERHEAD + length(user.getUsername()) + length(user.getEmail());
+        if (value instanceof LoadFile file)
+            return OBJECT_OVERHEAD + length(file.getId()) + length(file.getFileName()) + length(file.getFileType())
+                    + length(file.getDownloadUrl()) + (file.getFile() != null ? file.getFile().length : 0);
+        if (value instanceof List<?> values)
+            return values.stream()
+                    .mapToLong(EstimatedSizeWeigher::estimate)
+                    .sum();
+        return value != null ? OBJECT_OVERHEAD : 0;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.blogservice.changeunit;
+
+import io.mongock.api.annotations.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/**
+ * Replaces the index of refresh tokens by user id with one by user id and activity, so deactivating the tokens
+ * of a user on login only visits its active tokens however many revoked ones are still stored.
+ */
+@ChangeUnit(id = "2023-03-02-index-active-refresh-tokens-by-user-id", order = "009", author = "miachyn.a")
+@RequiredArgsConstructor
+public class IndexActiveRefreshTokensByUserId {
+
+    private static final String COLLECTION_NAME = "refresh_token";
+    private static final String USER_ID_INDEX = "user_id";
+    private static final String USER_ID_IS_ACTIVE_INDEX = "user_id_is_active";
+
+    private final MongoTemplate mongoTemplate;
+
+    @BeforeExecution
+    public void beforeExecution() {
+        mongoTemplate.indexOps(COLLECTION_NAME)
+                .ensureIndex(new Index("userId", Sort.Direction.ASC)
+                        .on("isActive", Sort.Direction.ASC)
+                        .named(USER_ID_IS_ACTIVE_INDEX));
+    }
+
+    @Execution
+    public void changeSet() {
+        mongoTemplate.indexOps(COLLECTION_NAME).dropIndex(USER_ID_INDEX);
+    }
+
+    @RollbackBeforeExecution
+    public void rollbackBefore() {
+        mongoTemplate.indexOps(COLLECTION_NAME).dropIndex(USER_ID_IS_ACTIVE_INDEX);
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        mongoTemplate.indexOps(COLLECTION_NAME)
+                .ensureIndex(new Index("userId", Sort.Direction.ASC).named(USER_ID_INDEX));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.blogservice.changeunit;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Counts references of stored files, so a file whose content is already stored is referenced instead of being
+ * stored again and is deleted with its last reference. Files stored before get their only reference
+ * but no checksum, so they are never shared. Files are indexed by their checksum in {@link IndexFilesByPartsChecksum}.
+ */
+@ChangeUnit(id = "2023-05-02-index-files-by-checksum", order = "011", author = "miachyn.a")
+@RequiredArgsConstructor
+public class IndexFilesByChecksum {
+
+    private static final String COLLECTION_NAME = "fs.files";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Execution
+    public void changeSet() {
+        mongoTemplate.updateMulti(new Query(where("metadata.references").exists(false)),
+                new Update().set("metadata.references", 1), COLLECTION_NAME);
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        mongoTemplate.updateMulti(new Query(where("metadata.partsSha256").exists(false)),
+                new Update().unset("metadata.references"), COLLECTION_NAME);
+    }
+}
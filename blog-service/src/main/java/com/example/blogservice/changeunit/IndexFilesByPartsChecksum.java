@@ -0,0 +1,38 @@
+package com.example.blogservice.changeunit;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/**
+ * Indexes stored files by the checksum of the checksums of their parts and the size of their parts, which replace
+ * the checksum of their content, so a committed upload is checked for stored content without reading its chunks again.
+ * Files stored before have only the checksum of their content, so they aren't shared with new files.
+ */
+@ChangeUnit(id = "2023-07-02-index-files-by-parts-checksum", order = "013", author = "miachyn.a")
+@RequiredArgsConstructor
+public class IndexFilesByPartsChecksum {
+
+    private static final String COLLECTION_NAME = "fs.files";
+    private static final String PARTS_CHECKSUM_INDEX = "metadata_partsSha256_partSize";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Execution
+    public void changeSet() {
+        mongoTemplate.indexOps(COLLECTION_NAME)
+                .ensureIndex(new Index("metadata.partsSha256", Sort.Direction.ASC)
+                        .on("metadata.partSize", Sort.Direction.ASC)
+                        .sparse()
+                        .named(PARTS_CHECKSUM_INDEX));
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        mongoTemplate.indexOps(COLLECTION_NAME).dropIndex(PARTS_CHECKSUM_INDEX);
+    }
+}
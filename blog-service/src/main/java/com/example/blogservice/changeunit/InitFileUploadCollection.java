@@ -0,0 +1,52 @@
+package com.example.blogservice.changeunit;
+
+import io.mongock.api.annotations.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/**
+ * Creates the collection of resumable uploads and the indexes of GridFS which the driver creates itself
+ * only before its own first upload, while parts of resumable uploads are written as chunks directly.
+ */
+@ChangeUnit(id = "2023-04-02-init-file_upload-collection", order = "010", author = "miachyn.a")
+@RequiredArgsConstructor
+public class InitFileUploadCollection {
+
+    private static final String EXPIRES_INDEX = "expires";
+    private static final String FILES_ID_N_INDEX = "files_id_1_n_1";
+    private static final String FILENAME_UPLOAD_DATE_INDEX = "filename_1_uploadDate_1";
+
+    private final MongoTemplate mongoTemplate;
+
+    @BeforeExecution
+    public void beforeExecution() {
+        mongoTemplate.createCollection("file_upload");
+    }
+
+    @Execution
+    public void changeSet() {
+        mongoTemplate.indexOps("file_upload")
+                .ensureIndex(new Index("expires", Sort.Direction.ASC).named(EXPIRES_INDEX));
+        mongoTemplate.indexOps("fs.chunks")
+                .ensureIndex(new Index("files_id", Sort.Direction.ASC)
+                        .on("n", Sort.Direction.ASC)
+                        .unique()
+                        .named(FILES_ID_N_INDEX));
+        mongoTemplate.indexOps("fs.files")
+                .ensureIndex(new Index("filename", Sort.Direction.ASC)
+                        .on("uploadDate", Sort.Direction.ASC)
+                        .named(FILENAME_UPLOAD_DATE_INDEX));
+    }
+
+    @RollbackBeforeExecution
+    public void rollbackBefore() {
+        mongoTemplate.dropCollection("file_upload");
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        mongoTemplate.indexOps("file_upload").dropIndex(EXPIRES_INDEX);
+    }
+}
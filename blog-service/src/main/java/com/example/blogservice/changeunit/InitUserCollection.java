@@ -11,7 +11,7 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.schema.JsonSchemaProperty;
 import org.springframework.data.mongodb.core.schema.MongoJsonSchema;
 import org.springframework.data.mongodb.core.validation.Validator;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 
 import java.util.List;
 
@@ -21,7 +21,7 @@ public class InitUserCollection {
 
     private final MongoTemplate mongoTemplate;
     private final List<User> usersList;
-    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final DelegatingPasswordEncoder passwordEncoder;
 
     @BeforeExecution
     public void beforeExecution() {
@@ -42,10 +42,9 @@ public class InitUserCollection {
 
     @Execution
     public void changeSet() {
-        usersList.forEach(user -> {
-            user.setPassword(bCryptPasswordEncoder.encode(user.getPassword()));
-            mongoTemplate.save(user, "user");
-        });
+        usersList.parallelStream()
+                .forEach(user -> user.setPassword(passwordEncoder.encode(user.getPassword())));
+        mongoTemplate.insert(usersList, "user");
     }
 
     @RollbackBeforeExecution
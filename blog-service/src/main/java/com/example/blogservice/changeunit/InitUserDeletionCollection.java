@@ -0,0 +1,53 @@
+package com.example.blogservice.changeunit;
+
+import io.mongock.api.annotations.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/**
+ * Creates the collection of tombstones of deleted users and indexes posts and comments by their user,
+ * which a user deletion reads in batches until none are left.
+ * Finished tombstones are removed by the TTL monitor of the server once they expire.
+ */
+@ChangeUnit(id = "2023-06-02-init-user_deletion-collection", order = "012", author = "miachyn.a")
+@RequiredArgsConstructor
+public class InitUserDeletionCollection {
+
+    private static final String STATUS_LEASE_EXPIRES_INDEX = "status_lease_expires";
+    private static final String EXPIRES_INDEX = "expires";
+    private static final String USER_ID_INDEX = "user_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    @BeforeExecution
+    public void beforeExecution() {
+        mongoTemplate.createCollection("user_deletion");
+    }
+
+    @Execution
+    public void changeSet() {
+        mongoTemplate.indexOps("user_deletion")
+                .ensureIndex(new Index("status", Sort.Direction.ASC)
+                        .on("leaseExpires", Sort.Direction.ASC)
+                        .named(STATUS_LEASE_EXPIRES_INDEX));
+        mongoTemplate.indexOps("user_deletion")
+                .ensureIndex(new Index("expires", Sort.Direction.ASC).expire(0).named(EXPIRES_INDEX));
+        mongoTemplate.indexOps("post")
+                .ensureIndex(new Index("user.$id", Sort.Direction.ASC).named(USER_ID_INDEX));
+        mongoTemplate.indexOps("comment")
+                .ensureIndex(new Index("user.$id", Sort.Direction.ASC).named(USER_ID_INDEX));
+    }
+
+    @RollbackBeforeExecution
+    public void rollbackBefore() {
+        mongoTemplate.dropCollection("user_deletion");
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        mongoTemplate.indexOps("post").dropIndex(USER_ID_INDEX);
+        mongoTemplate.indexOps("comment").dropIndex(USER_ID_INDEX);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.blogservice.changeunit;
+
+import com.example.blogservice.model.CommentSummary;
+import com.example.blogservice.props.CommentSummaryProps;
+import com.mongodb.DBRef;
+import io.mongock.api.annotations.*;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces the list of comment references stored in every post with the post id stored in every comment,
+ * and keeps only the latest comments of a post embedded as summaries together with the total count of them.
+ */
+@ChangeUnit(id = "2023-01-02-migrate-comments-to-post-summaries", order = "007", author = "miachyn.a")
+@RequiredArgsConstructor
+public class MigrateCommentsToPostSummaries {
+
+    private static final String POST_ID_INDEX = "post_id";
+    private static final String LATEST_COMMENTS_USER_ID_INDEX = "latest_comments_user_id";
+
+    private final MongoTemplate mongoTemplate;
+    private final CommentSummaryProps commentSummaryProps;
+
+    @BeforeExecution
+    public void beforeExecution() {
+        mongoTemplate.indexOps("comment")
+                .ensureIndex(new Index("postId", Sort.Direction.ASC).named(POST_ID_INDEX));
+        mongoTemplate.indexOps("post")
+                .ensureIndex(new Index("latestComments.userId", Sort.Direction.ASC).named(LATEST_COMMENTS_USER_ID_INDEX));
+    }
+
+    @Execution
+    public void changeSet() {
+        mongoTemplate.getCollection("post")
+                .find(new Document("comments", new Document("$exists", true)))
+                .forEach(this::migratePost);
+    }
+
+    @RollbackBeforeExecution
+    public void rollbackBefore() {
+        mongoTemplate.indexOps("comment").dropIndex(POST_ID_INDEX);
+        mongoTemplate.indexOps("post").dropIndex(LATEST_COMMENTS_USER_ID_INDEX);
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        mongoTemplate.getCollection("post")
+                .find()
+                .forEach(post -> {
+                    List<DBRef> comments = mongoTemplate.getCollection("comment")
+                            .find(new Document("postId", post.get("_id")))
+                            .projection(new Document("_id", 1))
+                            .map(comment -> new DBRef("comment", comment.get("_id")))
+                            .into(new ArrayList<>());
+                    mongoTemplate.getCollection("post").updateOne(new Document("_id", post.get("_id")),
+                            new Document("$set", new Document("comments", comments))
+                                    .append("$unset", new Document("latestComments", "").append("commentCount", "")));
+                });
+        mongoTemplate.updateMulti(new Query(), new Update().unset("postId"), "comment");
+    }
+
+    private void migratePost(Document post) {
+        Object postId = post.get("_id");
+        List<Object> commentIds = post.getList("comments", DBRef.class).stream()
+                .map(DBRef::getId)
+                .toList();
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(commentIds)),
+                new Update().set("postId", postId), "comment");
+
+        List<Document> latestComments = mongoTemplate.find(new Query(Criteria.where("postId").is(postId))
+                        .with(Sort.by(Sort.Direction.DESC, "_id"))
+                        .limit(commentSummaryProps.getSize()), Document.class, "comment");
+        Map<Object, String> usernames = findUsernames(latestComments);
+        List<Object> summaries = latestComments.stream()
+                .map(comment -> {
+                    Object userId = Optional.ofNullable(comment.get("user", DBRef.class))
+                            .map(DBRef::getId)
+                            .orElse(null);
+                    return CommentSummary.builder()
+                            .id(comment.getLong("_id"))
+                            .text(comment.getString("text"))
+                            .userId(userId == null ? null : ((Number) userId).longValue())
+                            .username(usernames.get(userId))
+                            .build();
+                })
+                .map(mongoTemplate.getConverter()::convertToMongoType)
+                .toList();
+        long commentCount = mongoTemplate.count(new Query(Criteria.where("postId").is(postId)), "comment");
+
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(postId)),
+                new Update().set("latestComments", summaries)
+                        .set("commentCount", commentCount)
+                        .unset("comments"), "post");
+    }
+
+    private Map<Object, String> findUsernames(List<Document> comments) {
+        List<Object> userIds = comments.stream()
+                .map(comment -> comment.get("user", DBRef.class))
+                .filter(Objects::nonNull)
+                .map(DBRef::getId)
+                .distinct()
+                .toList();
+        return mongoTemplate.find(new Query(Criteria.where("_id").in(userIds)), Document.class, "user").stream()
+                .collect(Collectors.toMap(user -> user.get("_id"), user -> user.getString("username"),
+                        (first, second) -> first));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.blogservice.changeunit;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import io.mongock.api.annotations.*;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Replaces the user reference stored in every refresh token with the flat user id and indexes the lookups
+ * of refresh tokens by token and by user id.
+ * Expired tokens are removed by the TTL monitor of the server once their expiry date has passed.
+ * Revoked tokens keep their expiry date, so they stay until then to detect the reuse of a replaced token.
+ */
+@ChangeUnit(id = "2023-02-02-migrate-refresh-tokens-to-user-id", order = "008", author = "miachyn.a")
+@RequiredArgsConstructor
+public class MigrateRefreshTokensToUserId {
+
+    private static final String COLLECTION_NAME = "refresh_token";
+    private static final String TOKEN_INDEX = "token";
+    private static final String USER_ID_INDEX = "user_id";
+    private static final String EXPIRES_INDEX = "expires";
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @BeforeExecution
+    public void beforeExecution() {
+        mongoTemplate.indexOps(COLLECTION_NAME)
+                .ensureIndex(new Index("token", Sort.Direction.ASC).unique().named(TOKEN_INDEX));
+        mongoTemplate.indexOps(COLLECTION_NAME)
+                .ensureIndex(new Index("userId", Sort.Direction.ASC).named(USER_ID_INDEX));
+        mongoTemplate.indexOps(COLLECTION_NAME)
+                .ensureIndex(new Index("expires", Sort.Direction.ASC).expire(0).named(EXPIRES_INDEX));
+    }
+
+    @Execution
+    public void changeSet() {
+        migrate("user", refreshToken -> new Document("$set",
+                new Document("userId", ((Number) refreshToken.get("user", DBRef.class).getId()).longValue()))
+                .append("$unset", new Document("user", "")));
+    }
+
+    @RollbackBeforeExecution
+    public void rollbackBefore() {
+        mongoTemplate.indexOps(COLLECTION_NAME).dropIndex(TOKEN_INDEX);
+        mongoTemplate.indexOps(COLLECTION_NAME).dropIndex(USER_ID_INDEX);
+        mongoTemplate.indexOps(COLLECTION_NAME).dropIndex(EXPIRES_INDEX);
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        migrate("userId", refreshToken -> new Document("$set",
+                new Document("user", new Document("$ref", "user").append("$id", refreshToken.get("userId"))))
+                .append("$unset", new Document("userId", "")));
+    }
+
+    private void migrate(String field, Function<Document, Document> update) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION_NAME);
+        List<UpdateOneModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+        for (Document refreshToken : collection.find(new Document(field, new Document("$exists", true)))
+                .projection(new Document(field, 1))
+                .batchSize(BATCH_SIZE)) {
+            batch.add(new UpdateOneModel<>(new Document("_id", refreshToken.get("_id")), update.apply(refreshToken)));
+            if (batch.size() == BATCH_SIZE) {
+                collection.bulkWrite(batch, new BulkWriteOptions().ordered(false));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+            collection.bulkWrite(batch, new BulkWriteOptions().ordered(false));
+    }
+}
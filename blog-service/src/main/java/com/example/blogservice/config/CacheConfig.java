@@ -0,0 +1,50 @@
+package com.example.blogservice.config;
+
+import com.example.blogservice.cache.CacheRefreshRegistry;
+import com.example.blogservice.cache.EstimatedSizeWeigher;
+import com.example.blogservice.props.CacheProps;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@RequiredArgsConstructor
+public class CacheConfig {
+    private final CacheProps cacheProps;
+    private final CacheRefreshRegistry cacheRefreshRegistry;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(getCaffeine(cacheProps.getDefaultSpec()));
+        cacheProps.getSpecs().forEach((name, spec) -> cacheManager.registerCustomCache(name, buildCache(name, spec)));
+        return cacheManager;
+    }
+
+    private Cache<Object, Object> buildCache(String name, CacheProps.CacheSpec spec) {
+        Cache<Object, Object> cache = getCaffeine(spec).build();
+        if (spec.getRefreshAfterWrite() != null)
+            cacheRefreshRegistry.track(name, cache, spec.getRefreshAfterWrite());
+        return cache;
+    }
+
+    private Caffeine<Object, Object> getCaffeine(CacheProps.CacheSpec spec) {
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder().recordStats();
+        if (spec.getMaximumWeight() != null)
+            caffeine.maximumWeight(spec.getMaximumWeight())
+                    .weigher(new EstimatedSizeWeigher());
+        else if (spec.getMaximumSize() != null)
+            caffeine.maximumSize(spec.getMaximumSize());
+        if (spec.getExpireAfterWrite() != null)
+            caffeine.expireAfterWrite(spec.getExpireAfterWrite());
+        if (spec.getExpireAfterAccess() != null)
+            caffeine.expireAfterAccess(spec.getExpireAfterAccess());
+        return caffeine;
+    }
+}
@@ -3,49 +3,82 @@ package com.example.blogservice.config;
 import com.example.blogservice.converter.JsonFileConverter;
 import com.example.blogservice.model.User;
 import com.example.blogservice.props.InitUserProps;
-import com.google.common.cache.CacheBuilder;
+import com.example.blogservice.props.PasswordHashingProps;
+import com.example.blogservice.props.UserDeletionProps;
+import com.example.blogservice.security.encoder.BoundedPasswordEncoder;
+import com.example.blogservice.security.encoder.CostAwareBCryptPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mongock.runner.springboot.EnableMongock;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
-import java.util.concurrent.TimeUnit;
 
 @Configuration
 @RequiredArgsConstructor
 @EnableMongock
 @EnableSpringDataWebSupport
-@EnableCaching
+@EnableScheduling
 public class Config {
+    private static final String BCRYPT_ENCODING_ID = "bcrypt";
+
     @Value("${init.users.location}")
     private String fileLocation;
     private final InitUserProps initUserProps;
+    private final PasswordHashingProps passwordHashingProps;
+    private final UserDeletionProps userDeletionProps;
     private final JsonFileConverter jsonFileConverter;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public DelegatingPasswordEncoder delegatingPasswordEncoder() {
+        PasswordEncoder bCryptPasswordEncoder = new CostAwareBCryptPasswordEncoder(passwordHashingProps.getBcryptStrength());
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(BCRYPT_ENCODING_ID,
+                Map.of(BCRYPT_ENCODING_ID, bCryptPasswordEncoder));
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+        return delegatingPasswordEncoder;
     }
 
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
+    @Primary
+    public PasswordEncoder passwordEncoder(DelegatingPasswordEncoder delegatingPasswordEncoder, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder, passwordHashingExecutor(),
+                passwordHashingProps.getTimeout(), meterRegistry);
+    }
+
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(passwordHashingProps.getPoolSize());
+        executor.setMaxPoolSize(passwordHashingProps.getPoolSize());
+        executor.setQueueCapacity(passwordHashingProps.getQueueCapacity());
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "userDeletionExecutor")
+    public ThreadPoolTaskExecutor userDeletionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(userDeletionProps.getPoolSize());
+        executor.setMaxPoolSize(userDeletionProps.getPoolSize());
+        executor.setQueueCapacity(userDeletionProps.getQueueCapacity());
+        executor.setThreadNamePrefix("user-deletion-");
+        executor.initialize();
+        return executor;
     }
 
     @Bean
@@ -64,6 +97,7 @@ public class Config {
     }
 
     @Bean(name = "threadPoolTaskExecutor")
+    @ConditionalOnProperty(name = "threads.virtual.enabled", havingValue = "false", matchIfMissing = true)
     public Executor getAsyncExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setMaxPoolSize(100);
@@ -71,19 +105,6 @@ public class Config {
         return executor;
     }
 
-    @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager() {
-            @Override
-            protected Cache createConcurrentMapCache(String name) {
-                return new ConcurrentMapCache(name, CacheBuilder.newBuilder()
-                        .expireAfterWrite(1, TimeUnit.HOURS)
-                        .maximumSize(10)
-                        .build().asMap(), false);
-            }
-        };
-    }
-
     @Bean
     public List<User> usersList() {
         return jsonFileConverter.readValueForList(fileLocation, User.class);
@@ -0,0 +1,26 @@
+package com.example.blogservice.config;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The algorithm and the verifier are immutable and thread safe, so they are built once
+ * instead of for every signed or verified token.
+ */
+@Configuration
+public class JwtConfig {
+
+    @Bean
+    public Algorithm jwtAlgorithm(@Value("${jwt.secret}") String secretKey) {
+        return Algorithm.HMAC256(secretKey.getBytes());
+    }
+
+    @Bean
+    public JWTVerifier jwtVerifier(Algorithm jwtAlgorithm) {
+        return JWT.require(jwtAlgorithm).build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.blogservice.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Times the methods of services annotated with {@link io.micrometer.core.annotation.Timed}.
+ * Invocations of repositories, commands of the Mongo driver, caches and executors are timed
+ * by the auto-configuration of actuator, percentile histograms of all of them are configured in application.yaml.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
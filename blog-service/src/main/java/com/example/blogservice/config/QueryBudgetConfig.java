@@ -0,0 +1,37 @@
+package com.example.blogservice.config;
+
+import com.example.blogservice.monitoring.QueryBudgetFilter;
+import com.example.blogservice.monitoring.QueryBudgetTracker;
+import com.example.blogservice.props.QueryBudgetProps;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "query.budget.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class QueryBudgetConfig {
+    private final QueryBudgetProps queryBudgetProps;
+
+    @Bean
+    public QueryBudgetTracker queryBudgetTracker() {
+        return new QueryBudgetTracker(queryBudgetProps.getSlowCommandThreshold());
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer queryBudgetCustomizer(QueryBudgetTracker queryBudgetTracker) {
+        return builder -> builder.addCommandListener(queryBudgetTracker);
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(QueryBudgetTracker queryBudgetTracker) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(queryBudgetTracker, queryBudgetProps));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -39,6 +39,7 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         JwtLoginFilter jwtLoginFilter = new JwtLoginFilter(userService, jwtService);
         jwtLoginFilter.setFilterProcessesUrl("/users/authenticate");
+        jwtLoginFilter.setAuthenticationFailureHandler(new JwtAuthenticationFailureHandler(objectMapper));
         http.csrf()
                 .disable()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
@@ -61,7 +62,8 @@ public class SecurityConfig {
                                 new AntPathRequestMatcher("/posts", "DELETE"),
                                 new AntPathRequestMatcher("/posts/**", "POST"),
                                 new AntPathRequestMatcher("/posts/**", "PUT"),
-                                new AntPathRequestMatcher("/posts/**", "DELETE")
+                                new AntPathRequestMatcher("/posts/**", "DELETE"),
+                                new AntPathRequestMatcher("/posts/*/file/uploads/**", "GET")
                         )
                 ), objectMapper);
         authenticationTokenFilter.setAuthenticationManager(authenticationManager());
@@ -0,0 +1,44 @@
+package com.example.blogservice.config;
+
+import com.example.blogservice.props.VirtualThreadProps;
+import com.example.blogservice.utils.VirtualThreadUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Handles servlet requests and async listeners on virtual threads instead of the pools of Tomcat
+ * and threadPoolTaskExecutor, so blocking reads of Mongo and GridFS don't cap the number of concurrent requests.
+ * Password hashing stays on its bounded pool of platform threads, it is bound by the CPU
+ * and a request waiting for it unmounts its virtual thread. Startup fails below Java 21.
+ * <p>
+ * Nothing on these threads waits in a monitor: async tasks are limited by a semaphore, and caches are plain
+ * Caffeine caches refreshed by {@link com.example.blogservice.cache.CacheRefreshRegistry} on this executor,
+ * so no loader runs inside a synchronized computation of a cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadConfig {
+    private final VirtualThreadProps virtualThreadProps;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = VirtualThreadUtil.newThreadPerTaskExecutor("tomcat-handler-");
+        log.info("Servlet requests are handled on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(name = "threadPoolTaskExecutor")
+    public Executor virtualThreadAsyncExecutor() {
+        return VirtualThreadUtil.limitConcurrency(VirtualThreadUtil.newThreadPerTaskExecutor("async-"),
+                virtualThreadProps.getAsyncConcurrencyLimit());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.blogservice.controller;
 
 import com.example.blogservice.dto.CommentDtoRequest;
 import com.example.blogservice.dto.CommentDtoResponse;
+import com.example.blogservice.dto.CursorSlice;
 import com.example.blogservice.dto.UserDtoResponse;
 import com.example.blogservice.handling.BlogApiErrorResponse;
 import com.example.blogservice.handling.ValidationErrorResponse;
@@ -15,16 +16,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Set;
+
 import static com.example.blogservice.utils.ConstantUtil.SwaggerResponse.*;
+import static com.example.blogservice.utils.SortUtil.checkSortable;
 
 
 @RestController
@@ -33,6 +40,7 @@ import static com.example.blogservice.utils.ConstantUtil.SwaggerResponse.*;
 @Slf4j
 @Validated
 public class CommentController {
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id");
     private final CommentService commentService;
 
     @Operation(summary = "Returns a comment of certain post by postId and commentId")
@@ -80,6 +88,32 @@ public class CommentController {
         return commentService.findAllCommentsByPost(postId, pageable);
     }
 
+    @Operation(summary = "Returns a slice of comments of certain post after the cursor without counting all comments")
+    @ApiResponses({
+            @ApiResponse(responseCode = RESPONSE_CODE_OK, description = RESPONSE_DESCRIPTION_OK,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = CommentDtoResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_BAD_REQUEST, description = RESPONSE_DESCRIPTION_BAD_REQUEST,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = ValidationErrorResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_NOT_FOUNDED, description = RESPONSE_DESCRIPTION_NOT_FOUNDED,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = BlogApiErrorResponse.class))})
+    })
+    @GetMapping("/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorSlice<CommentDtoResponse> getCommentsByPostIdAfter(@Parameter(description = "Id of post for comments to be searched",
+            required = true, example = "1")
+                                                                   @PathVariable @ValidId Long postId,
+                                                                   @Parameter(description = "Cursor of the previous slice, absent for the first slice")
+                                                                   @RequestParam(required = false) String after,
+                                                                   @Parameter(description = "Number of elements in slice")
+                                                                   @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+                                                                   Sort sort) {
+        log.info("Get {} comments of post with id : {} after cursor : {}", size, postId, after);
+        return commentService.findAllCommentsByPostAfter(postId, after, size, checkSortable(sort, SORTABLE_PROPERTIES));
+    }
+
 
     @Operation(summary = "Save a new comment for certain post")
     @ApiResponses({
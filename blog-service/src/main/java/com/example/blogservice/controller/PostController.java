@@ -1,12 +1,14 @@
 package com.example.blogservice.controller;
 
-import com.example.blogservice.dto.LoadFile;
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.dto.FileUploadDtoResponse;
 import com.example.blogservice.dto.PostDtoRequest;
 import com.example.blogservice.dto.PostDtoResponse;
 import com.example.blogservice.handling.BlogApiErrorResponse;
 import com.example.blogservice.handling.ValidationErrorResponse;
 import com.example.blogservice.security.user.AuthenticatedUser;
 import com.example.blogservice.service.PostService;
+import com.example.blogservice.utils.FileResponseUtil;
 import com.example.blogservice.validator.ValidId;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,22 +17,30 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 
 import static com.example.blogservice.utils.ConstantUtil.SwaggerResponse.*;
+import static com.example.blogservice.utils.SortUtil.checkSortable;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -40,6 +50,9 @@ import static org.springframework.http.HttpStatus.OK;
 @Slf4j
 @Validated
 public class PostController {
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "title");
+
+    private static final String DIGEST = "Digest";
 
     private final PostService postService;
 
@@ -54,9 +67,38 @@ public class PostController {
     })
     @GetMapping
     @ResponseStatus(OK)
-    public Page<PostDtoResponse> findAllPosts(Pageable pageable) {
+    public Page<PostDtoResponse> findAllPosts(Pageable pageable,
+                                              @Parameter(description = "Return content of files inside of posts")
+                                              @RequestParam(defaultValue = "false") boolean inlineFile) {
         log.info("Find all posts");
-        return postService.findAll(pageable);
+        return inlineFile ?
+                postService.findAllWithFileContent(pageable) :
+                postService.findAll(pageable);
+    }
+
+    @Operation(summary = "Returns a slice of posts after the cursor without counting all posts")
+    @ApiResponses({
+            @ApiResponse(responseCode = RESPONSE_CODE_OK, description = RESPONSE_DESCRIPTION_OK,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = PostDtoResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_BAD_REQUEST, description = RESPONSE_DESCRIPTION_BAD_REQUEST,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = ValidationErrorResponse.class))})
+    })
+    @GetMapping("/scroll")
+    @ResponseStatus(OK)
+    public CursorSlice<PostDtoResponse> findPostsAfter(@Parameter(description = "Cursor of the previous slice, absent for the first slice")
+                                                       @RequestParam(required = false) String after,
+                                                       @Parameter(description = "Number of elements in slice")
+                                                       @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+                                                       Sort sort,
+                                                       @Parameter(description = "Return content of files inside of posts")
+                                                       @RequestParam(defaultValue = "false") boolean inlineFile) {
+        log.info("Find {} posts after cursor : {}", size, after);
+        checkSortable(sort, SORTABLE_PROPERTIES);
+        return inlineFile ?
+                postService.findAllAfterWithFileContent(after, size, sort) :
+                postService.findAllAfter(after, size, sort);
     }
 
 
@@ -75,9 +117,13 @@ public class PostController {
     @GetMapping("/{postId}")
     @ResponseStatus(OK)
     public PostDtoResponse getPostById(@Parameter(description = "Id of post to be searched", required = true, example = "1")
-                                       @PathVariable @ValidId Long postId) {
+                                       @PathVariable @ValidId Long postId,
+                                       @Parameter(description = "Return content of file inside of post")
+                                       @RequestParam(defaultValue = "false") boolean inlineFile) {
         log.info("Get post by id:{}", postId);
-        return postService.getById(postId);
+        return inlineFile ?
+                postService.getByIdWithFileContent(postId) :
+                postService.getById(postId);
     }
 
 
@@ -158,9 +204,13 @@ public class PostController {
     @GetMapping("/byUser/{userId}")
     @ResponseStatus(OK)
     public List<PostDtoResponse> findAllPostsByUserId(@Parameter(description = "Id of user for posts to be searched", required = true, example = "1")
-                                                      @PathVariable @ValidId Long userId) {
+                                                      @PathVariable @ValidId Long userId,
+                                                      @Parameter(description = "Return content of files inside of posts")
+                                                      @RequestParam(defaultValue = "false") boolean inlineFile) {
         log.info("Find all posts by user id : {}", userId);
-        return postService.findAllByUserId(userId);
+        return inlineFile ?
+                postService.findAllByUserIdWithFileContent(userId) :
+                postService.findAllByUserId(userId);
     }
 
 
@@ -233,6 +283,128 @@ public class PostController {
 
 
 
+    @Operation(summary = "Start a resumable upload of file to post, the file replaces an existing one on commit")
+    @ApiResponses({
+            @ApiResponse(responseCode = RESPONSE_CODE_CREATED, description = RESPONSE_DESCRIPTION_CREATED,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = FileUploadDtoResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_BAD_REQUEST, description = RESPONSE_DESCRIPTION_BAD_REQUEST,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = ValidationErrorResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_NOT_FOUNDED, description = RESPONSE_DESCRIPTION_NOT_FOUNDED,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = BlogApiErrorResponse.class))})
+    })
+    @PostMapping("/{postId}/file/uploads")
+    @ResponseStatus(CREATED)
+    public FileUploadDtoResponse createFileUpload(@Parameter(description = "Id of post for file to be uploaded", required = true)
+                                                  @PathVariable @ValidId Long postId,
+                                                  @Parameter(description = "Name of file", required = true)
+                                                  @RequestParam @NotBlank String fileName,
+                                                  @Parameter(description = "Content type of file")
+                                                  @RequestParam(defaultValue = MediaType.APPLICATION_OCTET_STREAM_VALUE) String contentType,
+                                                  @Parameter(description = "Size of file in bytes", required = true)
+                                                  @RequestParam @PositiveOrZero long length,
+                                                  @AuthenticationPrincipal AuthenticatedUser authenticatedUser) {
+        log.info("Create upload of file : {} with size : {} to post with id : {}", fileName, length, postId);
+        return postService.createFileUpload(postId, fileName, contentType, length, authenticatedUser);
+    }
+
+    @Operation(summary = "Returns a resumable upload of file to post with numbers of parts received so far")
+    @ApiResponses({
+            @ApiResponse(responseCode = RESPONSE_CODE_OK, description = RESPONSE_DESCRIPTION_OK,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = FileUploadDtoResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_NOT_FOUNDED, description = RESPONSE_DESCRIPTION_NOT_FOUNDED,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = BlogApiErrorResponse.class))})
+    })
+    @GetMapping("/{postId}/file/uploads/{uploadId}")
+    @ResponseStatus(OK)
+    public FileUploadDtoResponse getFileUpload(@Parameter(description = "Id of post for file to be uploaded", required = true)
+                                               @PathVariable @ValidId Long postId,
+                                               @Parameter(description = "Id of upload", required = true,
+                                                       schema = @Schema(implementation = String.class))
+                                               @PathVariable ObjectId uploadId,
+                                               @AuthenticationPrincipal AuthenticatedUser authenticatedUser) {
+        log.info("Get upload with id : {} of file to post with id : {}", uploadId, postId);
+        return postService.getFileUpload(postId, uploadId, authenticatedUser);
+    }
+
+    @Operation(summary = "Upload a part of file, the part replaces one uploaded before with the same number")
+    @ApiResponses({
+            @ApiResponse(responseCode = RESPONSE_CODE_OK, description = RESPONSE_DESCRIPTION_OK,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = FileUploadDtoResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_BAD_REQUEST, description = RESPONSE_DESCRIPTION_BAD_REQUEST,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = BlogApiErrorResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_NOT_FOUNDED, description = RESPONSE_DESCRIPTION_NOT_FOUNDED,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = BlogApiErrorResponse.class))})
+    })
+    @PutMapping(value = "/{postId}/file/uploads/{uploadId}/parts/{partNumber}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @ResponseStatus(OK)
+    public FileUploadDtoResponse uploadFilePart(@Parameter(description = "Id of post for file to be uploaded", required = true)
+                                                @PathVariable @ValidId Long postId,
+                                                @Parameter(description = "Id of upload", required = true,
+                                                        schema = @Schema(implementation = String.class))
+                                                @PathVariable ObjectId uploadId,
+                                                @Parameter(description = "Number of part starting from 0", required = true)
+                                                @PathVariable @PositiveOrZero int partNumber,
+                                                @Parameter(description = "SHA-256 checksum of part", required = true,
+                                                        example = "sha-256=X48E9qOokqqrvdts8nOJRJN3OWDUoyWxBf7kbu9DBPE=")
+                                                @RequestHeader(value = DIGEST, required = false) String digest,
+                                                InputStream content,
+                                                @AuthenticationPrincipal AuthenticatedUser authenticatedUser) {
+        log.info("Upload part : {} of upload with id : {} of file to post with id : {}", partNumber, uploadId, postId);
+        return postService.uploadFilePart(postId, uploadId, partNumber, content, digest, authenticatedUser);
+    }
+
+    @Operation(summary = "Commit a resumable upload once all of its parts are uploaded and set the file to post")
+    @ApiResponses({
+            @ApiResponse(responseCode = RESPONSE_CODE_OK, description = RESPONSE_DESCRIPTION_OK,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = PostDtoResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_BAD_REQUEST, description = RESPONSE_DESCRIPTION_BAD_REQUEST,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = BlogApiErrorResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_NOT_FOUNDED, description = RESPONSE_DESCRIPTION_NOT_FOUNDED,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = BlogApiErrorResponse.class))})
+    })
+    @PostMapping("/{postId}/file/uploads/{uploadId}/commit")
+    @ResponseStatus(OK)
+    public PostDtoResponse commitFileUpload(@Parameter(description = "Id of post for file to be uploaded", required = true)
+                                            @PathVariable @ValidId Long postId,
+                                            @Parameter(description = "Id of upload", required = true,
+                                                    schema = @Schema(implementation = String.class))
+                                            @PathVariable ObjectId uploadId,
+                                            @AuthenticationPrincipal AuthenticatedUser authenticatedUser) {
+        log.info("Commit upload with id : {} of file to post with id : {}", uploadId, postId);
+        return postService.commitFileUpload(postId, uploadId, authenticatedUser);
+    }
+
+    @Operation(summary = "Abort a resumable upload and delete its uploaded parts")
+    @ApiResponses({
+            @ApiResponse(responseCode = RESPONSE_CODE_OK, description = RESPONSE_DESCRIPTION_OK),
+            @ApiResponse(responseCode = RESPONSE_CODE_NOT_FOUNDED, description = RESPONSE_DESCRIPTION_NOT_FOUNDED,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = BlogApiErrorResponse.class))})
+    })
+    @DeleteMapping("/{postId}/file/uploads/{uploadId}")
+    @ResponseStatus(OK)
+    public void abortFileUpload(@Parameter(description = "Id of post for file to be uploaded", required = true)
+                                @PathVariable @ValidId Long postId,
+                                @Parameter(description = "Id of upload", required = true,
+                                        schema = @Schema(implementation = String.class))
+                                @PathVariable ObjectId uploadId,
+                                @AuthenticationPrincipal AuthenticatedUser authenticatedUser) {
+        log.info("Abort upload with id : {} of file to post with id : {}", uploadId, postId);
+        postService.abortFileUpload(postId, uploadId, authenticatedUser);
+    }
+
     @Operation(summary = "Get file from post")
     @ApiResponses({
             @ApiResponse(responseCode = RESPONSE_CODE_CREATED, description = RESPONSE_DESCRIPTION_OK,
@@ -246,14 +418,10 @@ public class PostController {
                             schema = @Schema(implementation = BlogApiErrorResponse.class))})
     })
     @GetMapping("/{postId}/file")
-    @ResponseStatus(OK)
-    public ResponseEntity<ByteArrayResource> getFileFromPost(@Parameter(description = "Id of post for file to be deleted", required = true)
-                                                             @PathVariable Long postId) {
+    public ResponseEntity<?> getFileFromPost(@Parameter(description = "Id of post for file to be downloaded", required = true)
+                                             @PathVariable Long postId,
+                                             WebRequest webRequest) {
         log.info("Get file from post :{}", postId);
-        LoadFile file = postService.getFileFromPost(postId);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(file.getFileType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
-                .body(new ByteArrayResource(file.getFile()));
+        return FileResponseUtil.getFileResponse(postService.getFileFromPost(postId), webRequest);
     }
 }
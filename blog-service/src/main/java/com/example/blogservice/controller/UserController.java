@@ -1,10 +1,13 @@
 package com.example.blogservice.controller;
 
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.dto.UserDeletionDtoResponse;
 import com.example.blogservice.dto.UserDtoRequest;
 import com.example.blogservice.dto.UserDtoResponse;
 import com.example.blogservice.handling.BlogApiErrorResponse;
 import com.example.blogservice.handling.ValidationErrorResponse;
 import com.example.blogservice.security.user.AuthenticatedUser;
+import com.example.blogservice.service.UserDeletionService;
 import com.example.blogservice.service.UserService;
 import com.example.blogservice.validator.ValidId;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,17 +17,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Set;
+
 import static com.example.blogservice.utils.ConstantUtil.SwaggerResponse.*;
+import static com.example.blogservice.utils.SortUtil.checkSortable;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -34,7 +43,9 @@ import static org.springframework.http.HttpStatus.OK;
 @Slf4j
 @Validated
 public class UserController {
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "username");
     private final UserService userService;
+    private final UserDeletionService userDeletionService;
 
     @Operation(summary = "Returns all users")
     @ApiResponses({
@@ -52,6 +63,26 @@ public class UserController {
         return userService.findAll(pageable);
     }
 
+    @Operation(summary = "Returns a slice of users after the cursor without counting all users")
+    @ApiResponses({
+            @ApiResponse(responseCode = RESPONSE_CODE_OK, description = RESPONSE_DESCRIPTION_OK,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = UserDtoResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_BAD_REQUEST, description = RESPONSE_DESCRIPTION_BAD_REQUEST,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = ValidationErrorResponse.class))})
+    })
+    @GetMapping("/scroll")
+    @ResponseStatus(OK)
+    public CursorSlice<UserDtoResponse> getUsersAfter(@Parameter(description = "Cursor of the previous slice, absent for the first slice")
+                                                      @RequestParam(required = false) String after,
+                                                      @Parameter(description = "Number of elements in slice")
+                                                      @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+                                                      Sort sort) {
+        log.info("Get {} users after cursor : {}", size, after);
+        return userService.findAllAfter(after, size, checkSortable(sort, SORTABLE_PROPERTIES));
+    }
+
     @Operation(summary = "Returns a user by userId")
     @ApiResponses({
             @ApiResponse(responseCode = RESPONSE_CODE_OK, description = RESPONSE_DESCRIPTION_OK,
@@ -72,6 +103,26 @@ public class UserController {
         return userService.getById(userId);
     }
 
+    @Operation(summary = "Returns progress of removal of posts, comments and files of a deleted user")
+    @ApiResponses({
+            @ApiResponse(responseCode = RESPONSE_CODE_OK, description = RESPONSE_DESCRIPTION_OK,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = UserDeletionDtoResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_BAD_REQUEST, description = RESPONSE_DESCRIPTION_BAD_REQUEST,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = ValidationErrorResponse.class))}),
+            @ApiResponse(responseCode = RESPONSE_CODE_NOT_FOUNDED, description = RESPONSE_DESCRIPTION_NOT_FOUNDED,
+                    content = {@Content(mediaType = APPLICATION_JSON,
+                            schema = @Schema(implementation = BlogApiErrorResponse.class))})
+    })
+    @GetMapping("/{userId}/deletion")
+    @ResponseStatus(OK)
+    public UserDeletionDtoResponse getUserDeletion(@Parameter(description = "Id of deleted user", required = true, example = "1")
+                                                   @PathVariable @ValidId Long userId) {
+        log.info("Get deletion of user by id : {}", userId);
+        return userDeletionService.getUserDeletion(userId);
+    }
+
     @Operation(summary = "Save a new user")
     @ApiResponses({
             @ApiResponse(responseCode = RESPONSE_CODE_CREATED, description = RESPONSE_DESCRIPTION_CREATED,
@@ -0,0 +1,44 @@
+package com.example.blogservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Slice of a keyset pagination: instead of a page number it carries an opaque cursor of its last element
+ * to be passed as 'after' to get the next slice. It is read without counting all elements.
+ */
+public class CursorSlice<T> extends SliceImpl<T> {
+
+    @Schema(description = "Cursor to get the next slice, absent for the last slice", implementation = String.class)
+    private final String nextCursor;
+
+    public CursorSlice(List<T> content, int size, Sort sort, String nextCursor) {
+        super(content, PageRequest.of(0, size, sort), nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public <U> CursorSlice<U> map(Function<? super T, ? extends U> converter) {
+        return new CursorSlice<>(getConvertedContent(converter), getSize(), getSort(), nextCursor);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CursorSlice<?> that && super.equals(that) && Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), nextCursor);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.blogservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FileUploadDtoResponse {
+    @Schema(description = "Id of upload, it becomes ObjectId of file in GridFS on commit", implementation = String.class)
+    private String id;
+    private String fileName;
+    private String contentType;
+    @Schema(description = "Size of file in bytes")
+    private long length;
+    @Schema(description = "Size in bytes of every part except the last one, which may be shorter")
+    private long partSize;
+    @Schema(description = "Numbers of parts received so far, the missing ones have to be uploaded before commit")
+    private List<Integer> parts;
+    @Schema(description = "Time after which an upload without new parts is deleted")
+    private LocalDateTime expires;
+}
@@ -1,13 +1,21 @@
 package com.example.blogservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class LoadFile {
+    @Schema(description = "ObjectId of file in GridFS", implementation = String.class)
+    private String id;
     private String fileName;
     private String fileType;
     private String fileSize;
+    @Schema(description = "Url to download content of file", example = "/posts/1/file", implementation = String.class)
+    private String downloadUrl;
+    @Schema(description = "Content of file, present only when it was requested with inlineFile=true")
     private byte[] file;
 }
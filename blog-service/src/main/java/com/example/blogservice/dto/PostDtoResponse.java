@@ -26,6 +26,10 @@ public class PostDtoResponse {
     @Schema(description = "Title of post",example = "Some awesome title",implementation = String.class)
     private String title;
 
-    @Schema(description = "List of comments which are in this post", implementation = CommentDtoResponse.class)
+    @Schema(description = "Latest comments of this post, all of them are paged by /posts/{postId}/comments",
+            implementation = CommentDtoResponse.class)
     private List<CommentDtoResponse> comments;
+
+    @Schema(description = "Number of comments in this post", example = "12", implementation = Long.class)
+    private long commentCount;
 }
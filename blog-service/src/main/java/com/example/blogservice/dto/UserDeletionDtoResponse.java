@@ -0,0 +1,30 @@
+package com.example.blogservice.dto;
+
+import com.example.blogservice.model.UserDeletionStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserDeletionDtoResponse {
+    private Long userId;
+    private String username;
+    @Schema(description = "Status of removal of posts, comments, files and statistics of deleted user")
+    private UserDeletionStatus status;
+    private long deletedPosts;
+    private long deletedComments;
+    private long deletedFiles;
+    private long deletedStatistics;
+    private long deletedRefreshTokens;
+    private LocalDateTime created;
+    @Schema(description = "Time of the last removed batch")
+    private LocalDateTime updated;
+    private LocalDateTime finished;
+}
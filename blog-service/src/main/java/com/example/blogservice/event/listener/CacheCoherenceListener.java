@@ -0,0 +1,112 @@
+package com.example.blogservice.event.listener;
+
+import com.example.blogservice.event.ModelCreatedEvent;
+import com.example.blogservice.event.ModelDeletedEvent;
+import com.example.blogservice.event.ModelUpdatedEvent;
+import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.Post;
+import com.example.blogservice.model.User;
+import com.example.blogservice.repository.CommentRepository;
+import com.example.blogservice.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static com.example.blogservice.utils.ConstantUtil.CacheName.*;
+
+/**
+ * Keeps cached posts, comments and users coherent with the database.
+ * A post entry embeds its author and its latest comments with their authors,
+ * so a change of any of them evicts the post too.
+ * Posts and comments of a deleted user are evicted by the user deletion as they are removed.
+ * Deletions are handled before DeleteModelListener removes the comments of a deleted post.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheCoherenceListener {
+    private final CacheManager cacheManager;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+
+    @EventListener
+    public void handleCreateAction(ModelCreatedEvent modelCreatedEvent) {
+        log.debug("Evict cached entries for created model : {}", modelCreatedEvent);
+        evictModel(modelCreatedEvent.getModelName(), modelCreatedEvent.getModelId());
+    }
+
+    @EventListener
+    public void handleUpdateAction(ModelUpdatedEvent modelUpdatedEvent) {
+        log.debug("Evict cached entries dependent on updated model : {}", modelUpdatedEvent);
+        String modelName = modelUpdatedEvent.getModelName();
+        long modelId = modelUpdatedEvent.getModelId();
+        evictModel(modelName, modelId);
+        if (Comment.class.getName().equals(modelName)) {
+            commentRepository.findById(modelId)
+                    .ifPresent(this::evictPostOfComment);
+        } else if (User.class.getName().equals(modelName)) {
+            evictUserDependents(modelId);
+        }
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void handleDeleteAction(ModelDeletedEvent modelDeletedEvent) {
+        log.debug("Evict cached entries dependent on deleted model : {}", modelDeletedEvent);
+        switch (modelDeletedEvent.getModelType()) {
+            case POST -> {
+                Post post = (Post) modelDeletedEvent.getModel();
+                evict(POST, post.getId());
+                commentRepository.findIdsByPostId(post.getId())
+                        .forEach(comment -> evict(COMMENT, comment.getId()));
+            }
+            case COMMENT -> {
+                Comment comment = (Comment) modelDeletedEvent.getModel();
+                evict(COMMENT, comment.getId());
+                evictPostOfComment(comment);
+            }
+            case USER -> {
+                User user = (User) modelDeletedEvent.getModel();
+                evict(USER, user.getId());
+                evict(USER_STATE, user.getId());
+            }
+        }
+    }
+
+    private void evictModel(String modelName, long modelId) {
+        if (Post.class.getName().equals(modelName))
+            evict(POST, modelId);
+        else if (Comment.class.getName().equals(modelName))
+            evict(COMMENT, modelId);
+        else if (User.class.getName().equals(modelName)) {
+            evict(USER, modelId);
+            evict(USER_STATE, modelId);
+        }
+    }
+
+    private void evictUserDependents(Long userId) {
+        postRepository.findIdsByUserId(userId)
+                .forEach(post -> evict(POST, post.getId()));
+        commentRepository.findIdsAndPostIdsByUserId(userId)
+                .forEach(comment -> {
+                    evict(COMMENT, comment.getId());
+                    evictPostOfComment(comment);
+                });
+    }
+
+    private void evictPostOfComment(Comment comment) {
+        if (comment.getPostId() != null)
+            evict(POST, comment.getPostId());
+    }
+
+    private void evict(String cacheName, Long key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null)
+            cache.evict(key);
+    }
+}
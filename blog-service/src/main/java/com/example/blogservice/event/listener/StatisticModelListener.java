@@ -22,7 +22,6 @@ public class StatisticModelListener implements AsyncConfigurer {
     public static final String MODEL_STATISTIC_ID_PATTERN = "%s-%s";
     private final ModelUpdateStatisticsService modelUpdateStatisticsService;
 
-    @Async("threadPoolTaskExecutor")
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleUpdateTransaction(ModelUpdatedEvent modelUpdatedEvent) {
         log.info("Received modelUpdatedEvent = {}", modelUpdatedEvent);
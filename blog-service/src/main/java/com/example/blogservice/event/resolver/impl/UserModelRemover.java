@@ -3,20 +3,21 @@ package com.example.blogservice.event.resolver.impl;
 import com.example.blogservice.event.ModelType;
 import com.example.blogservice.event.resolver.ModelRemover;
 import com.example.blogservice.model.User;
-import com.example.blogservice.service.CommentService;
-import com.example.blogservice.service.PostService;
+import com.example.blogservice.service.UserDeletionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Replaces a deleted user with a tombstone and removes its posts, comments, files and statistics
+ * in the background, so deleting a user doesn't wait for them.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class UserModelRemover implements ModelRemover {
 
-    private final CommentService commentService;
-    private final PostService postService;
+    private final UserDeletionService userDeletionService;
 
     @Override
     public ModelType getModelType() {
@@ -24,11 +25,10 @@ public class UserModelRemover implements ModelRemover {
     }
 
     @Override
-    @Transactional
     public void prepareModelRemoving(Object model) {
         log.info("Delete all user's posts and comments  with user id : {}", model);
         User user = (User) model;
-        postService.deleteAllByUser(user);
-        commentService.deleteAllByUser(user);
+        userDeletionService.startUserDeletion(user);
+        userDeletionService.deleteUserContent(user.getId());
     }
 }
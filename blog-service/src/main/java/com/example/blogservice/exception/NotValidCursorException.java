@@ -0,0 +1,7 @@
+package com.example.blogservice.exception;
+
+public class NotValidCursorException extends RuntimeException {
+    public NotValidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.blogservice.exception;
+
+public class NotValidFileUploadException extends RuntimeException {
+    public NotValidFileUploadException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.blogservice.handling;
 
 import com.example.blogservice.exception.NotValidCredentialsException;
+import com.example.blogservice.exception.NotValidCursorException;
+import com.example.blogservice.exception.NotValidFileUploadException;
 import com.example.blogservice.exception.NotValidTokenException;
+import com.example.blogservice.exception.PasswordHashingUnavailableException;
 import com.example.blogservice.exception.ResourceNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
@@ -79,4 +82,31 @@ public class BlogApiExceptionHandler {
         return new BlogApiErrorResponse(exception.getMessage());
     }
 
+    @ExceptionHandler(value = NotValidCursorException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public BlogApiErrorResponse notValidCursorExceptionHandler(HttpServletRequest request,
+                                                               NotValidCursorException exception) {
+        log.warn("The {}. Cursor of slice isn't valid : {}.Url of request : {}",
+                exception.getClass().getSimpleName(), exception.getMessage(), request.getRequestURL());
+        return new BlogApiErrorResponse(exception.getMessage());
+    }
+
+    @ExceptionHandler(value = NotValidFileUploadException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public BlogApiErrorResponse notValidFileUploadExceptionHandler(HttpServletRequest request,
+                                                                   NotValidFileUploadException exception) {
+        log.warn("The {}. Upload of file isn't valid : {}.Url of request : {}",
+                exception.getClass().getSimpleName(), exception.getMessage(), request.getRequestURL());
+        return new BlogApiErrorResponse(exception.getMessage());
+    }
+
+    @ExceptionHandler(value = PasswordHashingUnavailableException.class)
+    @ResponseStatus(SERVICE_UNAVAILABLE)
+    public BlogApiErrorResponse passwordHashingUnavailableExceptionHandler(HttpServletRequest request,
+                                                                          PasswordHashingUnavailableException exception) {
+        log.warn("The {}. Password hashing is overloaded : {}.Url of request : {}",
+                exception.getClass().getSimpleName(), exception.getMessage(), request.getRequestURL());
+        return new BlogApiErrorResponse(exception.getMessage());
+    }
+
 }
@@ -4,12 +4,17 @@ import com.example.blogservice.dto.CommentDtoRequest;
 import com.example.blogservice.dto.CommentDtoResponse;
 import com.example.blogservice.dto.UserDtoResponse;
 import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
 import com.example.blogservice.model.User;
 
 public interface CommentMapper {
 
     CommentDtoResponse mapToCommentDtoResponse(Comment comment);
 
+    CommentDtoResponse mapToCommentDtoResponse(CommentSummary commentSummary);
+
+    CommentSummary mapToCommentSummary(Comment comment);
+
     Comment mapToComment(Long commentId, UserDtoResponse userComment, CommentDtoRequest commentDtoRequest);
 
     Comment mapToComment(Long commentId, User user, CommentDtoRequest commentDtoRequest);
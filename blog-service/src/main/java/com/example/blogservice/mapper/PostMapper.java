@@ -3,7 +3,7 @@ package com.example.blogservice.mapper;
 import com.example.blogservice.dto.PostDtoRequest;
 import com.example.blogservice.dto.PostDtoResponse;
 import com.example.blogservice.dto.UserDtoResponse;
-import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
 import com.example.blogservice.model.Post;
 
 import java.util.List;
@@ -13,5 +13,6 @@ public interface PostMapper {
 
     PostDtoResponse mapToPostDtoResponse(Post post);
 
-    Post mapToPost(Long postId, PostDtoRequest postDtoRequest, UserDtoResponse userDtoResponse, List<Comment> comments);
+    Post mapToPost(Long postId, PostDtoRequest postDtoRequest, UserDtoResponse userDtoResponse,
+                   List<CommentSummary> latestComments, long commentCount);
 }
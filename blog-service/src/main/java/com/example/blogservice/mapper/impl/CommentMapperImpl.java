@@ -6,43 +6,63 @@ import com.example.blogservice.dto.UserDtoResponse;
 import com.example.blogservice.mapper.CommentMapper;
 import com.example.blogservice.mapper.UserMapper;
 import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
 import com.example.blogservice.model.User;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class CommentMapperImpl implements CommentMapper {
 
-    private final ModelMapper modelMapper;
     private final UserMapper userMapper;
 
     @Override
     public CommentDtoResponse mapToCommentDtoResponse(Comment comment) {
-        if (comment != null) {
-            CommentDtoResponse commentDtoResponse = modelMapper.map(comment, CommentDtoResponse.class);
-            commentDtoResponse.setUserDtoResponse(userMapper.mapToUserDtoResponse(comment.getUser()));
-            return commentDtoResponse;
-        }
-        return null;
+        if (comment == null)
+            return null;
+        return CommentDtoResponse.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .userDtoResponse(userMapper.mapToUserDtoResponse(comment.getUser()))
+                .build();
+    }
+
+    @Override
+    public CommentDtoResponse mapToCommentDtoResponse(CommentSummary commentSummary) {
+        return CommentDtoResponse.builder()
+                .id(commentSummary.getId())
+                .text(commentSummary.getText())
+                .userDtoResponse(UserDtoResponse.builder()
+                        .id(commentSummary.getUserId())
+                        .username(commentSummary.getUsername())
+                        .build())
+                .build();
+    }
+
+    @Override
+    public CommentSummary mapToCommentSummary(Comment comment) {
+        return CommentSummary.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .userId(comment.getUser().getId())
+                .username(comment.getUser().getUsername())
+                .build();
     }
 
     @Override
     public Comment mapToComment(Long commentId,
                                 UserDtoResponse userComment,
                                 CommentDtoRequest commentDtoRequest) {
-        Comment comment = modelMapper.map(commentDtoRequest, Comment.class);
-        comment.setUser(userMapper.mapToUser(userComment));
-        comment.setId(commentId);
-        return comment;
+        return mapToComment(commentId, userMapper.mapToUser(userComment), commentDtoRequest);
     }
 
     @Override
     public Comment mapToComment(Long commentId, User user, CommentDtoRequest commentDtoRequest) {
-        Comment comment = modelMapper.map(commentDtoRequest, Comment.class);
-        comment.setUser(user);
-        comment.setId(commentId);
-        return comment;
+        return Comment.builder()
+                .id(commentId)
+                .text(commentDtoRequest.getText())
+                .user(user)
+                .build();
     }
 }
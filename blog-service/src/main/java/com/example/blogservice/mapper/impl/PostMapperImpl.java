@@ -1,55 +1,62 @@
 package com.example.blogservice.mapper.impl;
 
+import com.example.blogservice.dto.CommentDtoResponse;
 import com.example.blogservice.dto.PostDtoRequest;
 import com.example.blogservice.dto.PostDtoResponse;
 import com.example.blogservice.dto.UserDtoResponse;
 import com.example.blogservice.mapper.CommentMapper;
 import com.example.blogservice.mapper.PostMapper;
 import com.example.blogservice.mapper.UserMapper;
-import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
 import com.example.blogservice.model.Post;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class PostMapperImpl implements PostMapper {
-    private final ModelMapper modelMapper;
     private final UserMapper userMapper;
     private final CommentMapper commentMapper;
 
     @Override
     public Post mapToPost(Long postId, PostDtoRequest postDtoRequest, UserDtoResponse userDtoResponse) {
-        Post post = modelMapper.map(postDtoRequest, Post.class);
-        post.setUser(userMapper.mapToUser(userDtoResponse));
-        post.setId(postId);
-        post.setComments(new ArrayList<>());
-        return post;
+        return mapToPost(postId, postDtoRequest, userDtoResponse, new ArrayList<>(), 0);
     }
 
     @Override
     public PostDtoResponse mapToPostDtoResponse(Post post) {
-        PostDtoResponse postDtoResponse = modelMapper.map(post, PostDtoResponse.class);
-        postDtoResponse.setUserDtoResponse(userMapper.mapToUserDtoResponse(post.getUser()));
-        postDtoResponse.setComments(post.getComments() == null || post.getComments().isEmpty() ?
-                new ArrayList<>() :
-                post.getComments().stream()
-                        .map(commentMapper::mapToCommentDtoResponse)
-                        .collect(Collectors.toList()));
-        return postDtoResponse;
+        return PostDtoResponse.builder()
+                .id(post.getId())
+                .content(post.getContent())
+                .title(post.getTitle())
+                .userDtoResponse(userMapper.mapToUserDtoResponse(post.getUser()))
+                .comments(mapToCommentDtoResponses(post.getLatestComments()))
+                .commentCount(post.getCommentCount())
+                .build();
     }
 
     @Override
-    public Post mapToPost(Long postId, PostDtoRequest postDtoRequest, UserDtoResponse userDtoResponse, List<Comment> comments) {
-        Post post = modelMapper.map(postDtoRequest, Post.class);
-        post.setUser(userMapper.mapToUser(userDtoResponse));
-        post.setId(postId);
-        post.setComments(comments);
-        return post;
+    public Post mapToPost(Long postId, PostDtoRequest postDtoRequest, UserDtoResponse userDtoResponse,
+                          List<CommentSummary> latestComments, long commentCount) {
+        return Post.builder()
+                .id(postId)
+                .title(postDtoRequest.getTitle())
+                .content(postDtoRequest.getContent())
+                .user(userMapper.mapToUser(userDtoResponse))
+                .latestComments(latestComments)
+                .commentCount(commentCount)
+                .build();
+    }
+
+    private List<CommentDtoResponse> mapToCommentDtoResponses(List<CommentSummary> latestComments) {
+        if (latestComments == null)
+            return new ArrayList<>();
+        List<CommentDtoResponse> commentDtoResponses = new ArrayList<>(latestComments.size());
+        for (CommentSummary commentSummary : latestComments)
+            commentDtoResponses.add(commentMapper.mapToCommentDtoResponse(commentSummary));
+        return commentDtoResponses;
     }
 }
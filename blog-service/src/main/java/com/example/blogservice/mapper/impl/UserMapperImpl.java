@@ -6,42 +6,68 @@ import com.example.blogservice.dto.UserDtoResponse;
 import com.example.blogservice.mapper.UserMapper;
 import com.example.blogservice.model.Role;
 import com.example.blogservice.model.User;
-import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
-@RequiredArgsConstructor
 public class UserMapperImpl implements UserMapper {
 
-    private final ModelMapper modelMapper;
-
     @Override
     public UserDtoResponse mapToUserDtoResponse(User user) {
-        return modelMapper.map(user, UserDtoResponse.class);
+        if (user == null)
+            return null;
+        return UserDtoResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .dateOfBirth(user.getDateOfBirth())
+                .build();
     }
 
     @Override
     public User mapToUser(Long userId, UserDtoRequest userDtoRequest, String password, Role role) {
-        User user = modelMapper.map(userDtoRequest, User.class);
-        user.setId(userId);
-        user.setPassword(password);
-        user.setRole(role);
-        return user;
+        return User.builder()
+                .id(userId)
+                .username(userDtoRequest.getUsername())
+                .password(password)
+                .email(userDtoRequest.getEmail())
+                .dateOfBirth(userDtoRequest.getDateOfBirth())
+                .role(role)
+                .build();
     }
 
     @Override
     public User mapToUser(UserDtoResponse userDtoResponse) {
-        return modelMapper.map(userDtoResponse, User.class);
+        if (userDtoResponse == null)
+            return null;
+        return User.builder()
+                .id(userDtoResponse.getId())
+                .username(userDtoResponse.getUsername())
+                .email(userDtoResponse.getEmail())
+                .dateOfBirth(userDtoResponse.getDateOfBirth())
+                .build();
     }
 
     @Override
     public User mapToUser(UserDto userDto) {
-        return modelMapper.map(userDto, User.class);
+        if (userDto == null)
+            return null;
+        return User.builder()
+                .id(userDto.getId())
+                .username(userDto.getUsername())
+                .password(userDto.getPassword())
+                .role(userDto.getRole())
+                .build();
     }
 
     @Override
     public UserDto mapToUserDto(User user) {
-        return modelMapper.map(user, UserDto.class);
+        if (user == null)
+            return null;
+        return UserDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .build();
     }
 }
@@ -27,4 +27,6 @@ public class Comment {
     @DBRef
     private User user;
 
+    private Long postId;
+
 }
@@ -0,0 +1,21 @@
+package com.example.blogservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CommentSummary {
+
+    private Long id;
+
+    private String text;
+
+    private Long userId;
+
+    private String username;
+}
@@ -0,0 +1,55 @@
+package com.example.blogservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Session of a resumable upload of a file of a post. Its id becomes the id of the GridFS file, and the parts
+ * received so far are already stored as GridFS chunks of that file, so the file only has to be described on commit.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "file_upload")
+public class FileUpload {
+
+    @Id
+    private ObjectId id;
+
+    private Long postId;
+
+    private String fileName;
+
+    private String contentType;
+
+    private long length;
+
+    private int chunkSize;
+
+    private int chunksPerPart;
+
+    @Builder.Default
+    private Map<Integer, FileUploadPart> parts = new HashMap<>();
+
+    private LocalDateTime created;
+
+    private LocalDateTime expires;
+
+    public long getPartSize() {
+        return (long) chunkSize * chunksPerPart;
+    }
+
+    public int getPartCount() {
+        return (int) ((length + getPartSize() - 1) / getPartSize());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.blogservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FileUploadPart {
+
+    private long length;
+
+    private String checksum;
+}
@@ -34,6 +34,11 @@ public class Post {
 
     private ObjectId file;
 
-    @DBRef(lazy = true)
-    private List<Comment> comments;
+    private String fileName;
+
+    private String fileType;
+
+    private List<CommentSummary> latestComments;
+
+    private long commentCount;
 }
@@ -0,0 +1,51 @@
+package com.example.blogservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a deleted user, which stays while posts, comments, files and statistics of the user are removed
+ * in the background, and counts what has been removed so far.
+ * The instance removing them holds a lease until leaseExpires, so another instance resumes the removal
+ * if it stops before it is done. A finished tombstone is kept until it expires to report the result.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "user_deletion")
+public class UserDeletion {
+
+    @Id
+    private Long userId;
+
+    private String username;
+
+    private UserDeletionStatus status;
+
+    private long deletedPosts;
+
+    private long deletedComments;
+
+    private long deletedFiles;
+
+    private long deletedStatistics;
+
+    private long deletedRefreshTokens;
+
+    private LocalDateTime created;
+
+    private LocalDateTime updated;
+
+    private LocalDateTime leaseExpires;
+
+    private LocalDateTime finished;
+
+    private LocalDateTime expires;
+}
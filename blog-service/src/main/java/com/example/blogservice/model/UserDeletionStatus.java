@@ -0,0 +1,5 @@
+package com.example.blogservice.model;
+
+public enum UserDeletionStatus {
+    PENDING, RUNNING, DONE
+}
@@ -0,0 +1,45 @@
+package com.example.blogservice.monitoring;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mongo commands and GridFS bytes of a single request, counted by {@link QueryBudgetTracker}.
+ * Commands are grouped by their shape, shapes beyond the first {@value #MAX_COMMAND_SHAPES} are only counted.
+ */
+@Getter
+public class QueryBudget {
+    static final int MAX_COMMAND_SHAPES = 50;
+
+    private int commandCount;
+    private long gridFsBytes;
+    private final Map<String, Integer> commandShapes = new LinkedHashMap<>();
+    private final Set<Integer> gridFsRequestIds = new HashSet<>();
+
+    void addCommand(String shape) {
+        commandCount++;
+        if (commandShapes.containsKey(shape) || commandShapes.size() < MAX_COMMAND_SHAPES)
+            commandShapes.merge(shape, 1, Integer::sum);
+    }
+
+    void addGridFsBytes(long bytes) {
+        gridFsBytes += bytes;
+    }
+
+    void addGridFsRequest(int requestId) {
+        gridFsRequestIds.add(requestId);
+    }
+
+    boolean removeGridFsRequest(int requestId) {
+        return gridFsRequestIds.remove(requestId);
+    }
+
+    public Map<String, Integer> getCommandShapes() {
+        return Collections.unmodifiableMap(commandShapes);
+    }
+}
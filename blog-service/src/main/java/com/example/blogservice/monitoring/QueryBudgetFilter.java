@@ -0,0 +1,68 @@
+package com.example.blogservice.monitoring;
+
+import com.example.blogservice.props.QueryBudgetProps;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Tracks the Mongo commands and GridFS bytes of every request and logs the requests which exceed the query budget
+ * together with the shapes of their commands.
+ * When enabled, the number of commands run before the response is committed is returned in the X-Query-Count header,
+ * chunks of a downloaded file streamed after that are only counted in the log.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private final QueryBudgetTracker queryBudgetTracker;
+    private final QueryBudgetProps queryBudgetProps;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryBudget budget = queryBudgetTracker.start();
+        try {
+            if (queryBudgetProps.isHeaderEnabled()) {
+                filterChain.doFilter(request, new QueryCountResponseWrapper(response, budget));
+                if (!response.isCommitted())
+                    setQueryCount(response, budget);
+            } else {
+                filterChain.doFilter(request, response);
+            }
+        } finally {
+            queryBudgetTracker.stop();
+            if (budget.getCommandCount() > queryBudgetProps.getMaxCommands() ||
+                    budget.getGridFsBytes() > queryBudgetProps.getMaxGridFsSize().toBytes())
+                log.warn("Request {} {} exceeded query budget with {} Mongo commands and {} GridFS bytes : {}",
+                        request.getMethod(), request.getRequestURI(), budget.getCommandCount(),
+                        budget.getGridFsBytes(), budget.getCommandShapes());
+        }
+    }
+
+    private static void setQueryCount(HttpServletResponse response, QueryBudget budget) {
+        response.setHeader(QUERY_COUNT_HEADER, String.valueOf(budget.getCommandCount()));
+    }
+
+    private static class QueryCountResponseWrapper extends OnCommittedResponseWrapper {
+        private final QueryBudget budget;
+
+        QueryCountResponseWrapper(HttpServletResponse response, QueryBudget budget) {
+            super(response);
+            this.budget = budget;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setQueryCount((HttpServletResponse) getResponse(), budget);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.blogservice.monitoring;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the Mongo commands and the GridFS chunk bytes issued by the thread which started a {@link QueryBudget}.
+ * The synchronous driver notifies listeners on the thread running the command,
+ * so commands of asynchronous tasks started by a request aren't counted for it.
+ * A command is described by its shape, which keeps the name, the collection and the keys of its filter
+ * and replaces every value by '?', and is logged with it when it runs longer than the slow command threshold.
+ */
+@Slf4j
+public class QueryBudgetTracker implements CommandListener {
+    private static final String GRID_FS_CHUNKS_SUFFIX = ".chunks";
+    private static final String GRID_FS_DATA_FIELD = "data";
+    private static final String HIDDEN_VALUE = "?";
+
+    private final ThreadLocal<QueryBudget> budgets = new ThreadLocal<>();
+    private final Map<Integer, String> runningCommands = new ConcurrentHashMap<>();
+    private final long slowCommandThresholdNanos;
+
+    public QueryBudgetTracker(Duration slowCommandThreshold) {
+        this.slowCommandThresholdNanos = slowCommandThreshold.toNanos();
+    }
+
+    public QueryBudget start() {
+        QueryBudget budget = new QueryBudget();
+        budgets.set(budget);
+        return budget;
+    }
+
+    public void stop() {
+        budgets.remove();
+    }
+
+    public Optional<QueryBudget> getCurrentBudget() {
+        return Optional.ofNullable(budgets.get());
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String shape = getShape(event.getCommandName(), event.getCommand());
+        runningCommands.put(event.getRequestId(), shape);
+        QueryBudget budget = budgets.get();
+        if (budget == null)
+            return;
+        budget.addCommand(shape);
+        if (getCollection(event.getCommandName(), event.getCommand()).endsWith(GRID_FS_CHUNKS_SUFFIX)) {
+            budget.addGridFsRequest(event.getRequestId());
+            budget.addGridFsBytes(getChunkBytes(event.getCommand().get("documents")));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String shape = runningCommands.remove(event.getRequestId());
+        long elapsedNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (elapsedNanos >= slowCommandThresholdNanos)
+            log.warn("Slow Mongo command : {} took {} ms", shape, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        QueryBudget budget = budgets.get();
+        if (budget != null && budget.removeGridFsRequest(event.getRequestId())) {
+            BsonDocument cursor = event.getResponse().getDocument("cursor", new BsonDocument());
+            budget.addGridFsBytes(getChunkBytes(cursor.get("firstBatch")) + getChunkBytes(cursor.get("nextBatch")));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        runningCommands.remove(event.getRequestId());
+        QueryBudget budget = budgets.get();
+        if (budget != null)
+            budget.removeGridFsRequest(event.getRequestId());
+    }
+
+    static String getShape(String commandName, BsonDocument command) {
+        StringBuilder shape = new StringBuilder(commandName);
+        String collection = getCollection(commandName, command);
+        if (!collection.isEmpty())
+            shape.append(' ').append(collection);
+        BsonDocument filter = getFilter(command);
+        if (filter != null)
+            appendShape(shape.append(' '), filter);
+        if (command.isArray("pipeline")) {
+            shape.append(" [");
+            BsonArray pipeline = command.getArray("pipeline");
+            for (int i = 0; i < pipeline.size(); i++) {
+                if (i > 0)
+                    shape.append(", ");
+                appendShape(shape, pipeline.get(i));
+            }
+            shape.append(']');
+        }
+        return shape.toString();
+    }
+
+    private static String getCollection(String commandName, BsonDocument command) {
+        if (command.isString(commandName))
+            return command.getString(commandName).getValue();
+        return command.isString("collection") ? command.getString("collection").getValue() : "";
+    }
+
+    private static BsonDocument getFilter(BsonDocument command) {
+        if (command.isDocument("filter"))
+            return command.getDocument("filter");
+        if (command.isDocument("query"))
+            return command.getDocument("query");
+        for (String statements : new String[]{"updates", "deletes"})
+            if (command.isArray(statements) && !command.getArray(statements).isEmpty() &&
+                    command.getArray(statements).get(0).isDocument())
+                return command.getArray(statements).get(0).asDocument().getDocument("q", null);
+        return null;
+    }
+
+    private static void appendShape(StringBuilder shape, BsonValue value) {
+        if (value.isDocument()) {
+            shape.append('{');
+            boolean first = true;
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (!first)
+                    shape.append(", ");
+                first = false;
+                appendShape(shape.append(entry.getKey()).append(": "), entry.getValue());
+            }
+            shape.append('}');
+        } else if (value.isArray() && !value.asArray().isEmpty() && value.asArray().get(0).isDocument()) {
+            shape.append('[');
+            BsonArray values = value.asArray();
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0)
+                    shape.append(", ");
+                appendShape(shape, values.get(i));
+            }
+            shape.append(']');
+        } else {
+            shape.append(HIDDEN_VALUE);
+        }
+    }
+
+    private static long getChunkBytes(BsonValue chunks) {
+        if (chunks == null || !chunks.isArray())
+            return 0;
+        long bytes = 0;
+        for (BsonValue chunk : chunks.asArray())
+            if (chunk.isDocument() && chunk.asDocument().isBinary(GRID_FS_DATA_FIELD))
+                bytes += chunk.asDocument().getBinary(GRID_FS_DATA_FIELD).getData().length;
+        return bytes;
+    }
+}
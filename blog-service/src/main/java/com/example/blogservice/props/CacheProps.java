@@ -0,0 +1,30 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "cache")
+@Getter
+@Setter
+public class CacheProps {
+    private Duration refreshInterval = Duration.ofMinutes(1);
+    private CacheSpec defaultSpec = new CacheSpec();
+    private Map<String, CacheSpec> specs = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class CacheSpec {
+        private Long maximumSize = 1000L;
+        private Long maximumWeight;
+        private Duration expireAfterWrite = Duration.ofHours(1);
+        private Duration expireAfterAccess;
+        private Duration refreshAfterWrite;
+    }
+}
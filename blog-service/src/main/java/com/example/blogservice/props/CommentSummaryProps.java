@@ -0,0 +1,14 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "comment.summary")
+@Getter
+@Setter
+public class CommentSummaryProps {
+    private int size = 5;
+}
@@ -0,0 +1,21 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "file.upload")
+@Getter
+@Setter
+public class FileUploadProps {
+    private DataSize chunkSize = DataSize.ofKilobytes(255);
+    private int chunksPerPart = 32;
+    private DataSize maxFileSize = DataSize.ofGigabytes(10);
+    private Duration expiration = Duration.ofHours(24);
+    private Duration cleanupInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,17 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "statistics.update")
+@Getter
+@Setter
+public class ModelUpdateStatisticsProps {
+    private Duration flushInterval = Duration.ofSeconds(5);
+    private int maxBufferSize = 10_000;
+}
@@ -0,0 +1,19 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "password.hashing")
+@Getter
+@Setter
+public class PasswordHashingProps {
+    private int bcryptStrength = 12;
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private Duration timeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,20 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "query.budget")
+@Getter
+@Setter
+public class QueryBudgetProps {
+    private int maxCommands = 20;
+    private DataSize maxGridFsSize = DataSize.ofMegabytes(64);
+    private Duration slowCommandThreshold = Duration.ofMillis(200);
+    private boolean headerEnabled;
+}
@@ -0,0 +1,22 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "sequence")
+@Getter
+@Setter
+public class SequenceProps {
+    private int defaultBlockSize = 1;
+    private Map<String, Integer> blockSizes = new HashMap<>();
+
+    public int getBlockSize(String seqName) {
+        return blockSizes.getOrDefault(seqName, defaultBlockSize);
+    }
+}
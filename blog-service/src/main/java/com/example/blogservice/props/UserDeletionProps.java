@@ -0,0 +1,21 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "user.deletion")
+@Getter
+@Setter
+public class UserDeletionProps {
+    private int batchSize = 1000;
+    private Duration lease = Duration.ofMinutes(5);
+    private Duration resumeInterval = Duration.ofMinutes(1);
+    private Duration retention = Duration.ofDays(7);
+    private int poolSize = 2;
+    private int queueCapacity = 100;
+}
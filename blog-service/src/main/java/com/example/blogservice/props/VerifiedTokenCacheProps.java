@@ -0,0 +1,15 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "jwt.verified-token-cache")
+@Getter
+@Setter
+public class VerifiedTokenCacheProps {
+    private boolean enabled = true;
+    private long maximumSize = 10000;
+}
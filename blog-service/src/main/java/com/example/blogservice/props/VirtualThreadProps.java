@@ -0,0 +1,15 @@
+package com.example.blogservice.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "threads.virtual")
+@Getter
+@Setter
+public class VirtualThreadProps {
+    private boolean enabled = false;
+    private int asyncConcurrencyLimit = 100;
+}
@@ -1,14 +1,36 @@
 package com.example.blogservice.repository;
 
 import com.example.blogservice.model.Comment;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface CommentRepository extends MongoRepository<Comment, Long> {
-    Page<Comment> findAllByIdIn(List<Long> ids, Pageable pageable);
+public interface CommentRepository extends MongoRepository<Comment, Long>, CommentRepositoryCustom {
+    List<Comment> findAllByPostIdAndIdNotIn(Long postId, Collection<Long> ids, Pageable pageable);
 
-    List<Comment> findAllByUserId(Long userId);
+    Optional<Comment> findByIdAndPostId(Long id, Long postId);
+
+    @Query(value = "{ 'postId' : ?0 }", fields = "{ '_id' : 1 }")
+    List<Comment> findIdsByPostId(Long postId);
+
+    @Query(value = "{ 'user.$id' : ?0 }", fields = "{ '_id' : 1, 'postId' : 1 }")
+    List<Comment> findIdsAndPostIdsByUserId(Long userId);
+
+    @Query(value = "{ 'user.$id' : ?0 }", fields = "{ '_id' : 1, 'postId' : 1 }")
+    List<Comment> findIdsAndPostIdsByUserId(Long userId, Pageable pageable);
+
+    @Query(value = "{ 'postId' : { $in : ?0 } }", fields = "{ '_id' : 1 }")
+    List<Comment> findIdsByPostIdIn(Collection<Long> postIds, Pageable pageable);
+
+    @Query(value = "{ 'postId' : ?0, 'user.$id' : { $ne : ?1 } }")
+    List<Comment> findAllByPostIdAndUserIdNot(Long postId, Long userId, Pageable pageable);
+
+    @Query(value = "{ 'postId' : ?0, 'user.$id' : { $ne : ?1 } }", count = true)
+    long countByPostIdAndUserIdNot(Long postId, Long userId);
+
+    long deleteAllByPostId(Long postId);
 }
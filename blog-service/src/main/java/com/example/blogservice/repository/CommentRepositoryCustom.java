@@ -0,0 +1,13 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.model.Comment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+public interface CommentRepositoryCustom {
+    Page<Comment> findAllByPostIdWithReferences(Long postId, Pageable pageable);
+
+    CursorSlice<Comment> findAllByPostIdAfter(Long postId, String after, int size, Sort sort);
+}
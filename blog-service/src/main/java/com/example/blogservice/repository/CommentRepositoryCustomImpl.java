@@ -0,0 +1,89 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.User;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Reads comments of a post with their authors resolved in batches, the same way as posts are read:
+ * comments are read without resolving their references, then all authors are fetched with one $in query.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+
+    private static final String ID_FIELD = "_id";
+    private static final String USER_FIELD = "user";
+    private static final String POST_ID_FIELD = "postId";
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public Page<Comment> findAllByPostIdWithReferences(Long postId, Pageable pageable) {
+        log.debug("Find comments of post with id : {} of page : {} with resolved references", postId, pageable);
+        MongoConverter mongoConverter = mongoOperations.getConverter();
+        Query query = new Query(where(POST_ID_FIELD).is(postId)).with(pageable);
+        BasicQuery mappedQuery = new BasicQuery(query.getQueryObject());
+        mappedQuery.setSortObject(new QueryMapper(mongoConverter).getMappedSort(query.getSortObject(),
+                mongoConverter.getMappingContext().getRequiredPersistentEntity(Comment.class)));
+        mappedQuery.skip(query.getSkip()).limit(query.getLimit());
+        List<Comment> comments = resolveReferences(mongoOperations.find(mappedQuery, Document.class,
+                mongoOperations.getCollectionName(Comment.class)));
+        return PageableExecutionUtils.getPage(comments, pageable,
+                () -> mongoOperations.count(new Query(where(POST_ID_FIELD).is(postId)), Comment.class));
+    }
+
+    @Override
+    public CursorSlice<Comment> findAllByPostIdAfter(Long postId, String after, int size, Sort sort) {
+        log.debug("Find {} comments of post with id : {} after cursor : {} sorted by : {}", size, postId, after, sort);
+        return KeysetPagination.findSlice(mongoOperations, Comment.class, where(POST_ID_FIELD).is(postId), after, size,
+                sort, this::resolveReferences);
+    }
+
+    private List<Comment> resolveReferences(List<Document> commentDocuments) {
+        if (commentDocuments.isEmpty())
+            return new ArrayList<>();
+        List<Long> userIds = commentDocuments.stream()
+                .map(commentDocument -> commentDocument.get(USER_FIELD, DBRef.class))
+                .filter(Objects::nonNull)
+                .map(userRef -> (Long) userRef.getId())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, User> users = userIds.isEmpty() ?
+                Map.of() :
+                mongoOperations.find(new Query(where(ID_FIELD).in(userIds)), User.class).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+        return commentDocuments.stream()
+                .map(commentDocument -> readComment(commentDocument, users))
+                .collect(Collectors.toList());
+    }
+
+    private Comment readComment(Document commentDocument, Map<Long, User> users) {
+        DBRef userRef = (DBRef) commentDocument.remove(USER_FIELD);
+        Comment comment = mongoOperations.getConverter().read(Comment.class, commentDocument);
+        comment.setUser(userRef != null ? users.get((Long) userRef.getId()) : null);
+        return comment;
+    }
+}
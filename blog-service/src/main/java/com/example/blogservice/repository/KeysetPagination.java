@@ -0,0 +1,103 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.exception.NotValidCursorException;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonParseException;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads slices of a collection by keyset (seek) pagination.
+ * The sort is always completed with _id, the cursor of a slice holds the values of the sort keys of its last document,
+ * and the next slice continues right after them with a range condition instead of skipping the previous documents.
+ * One more document than requested is read to know whether there is a next slice, so nothing is counted.
+ */
+final class KeysetPagination {
+
+    private static final String ID_FIELD = "_id";
+    private static final JsonWriterSettings CURSOR_JSON_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED)
+            .build();
+
+    private KeysetPagination() {
+    }
+
+    static <T> CursorSlice<T> findSlice(MongoOperations mongoOperations, Class<?> entityClass, Criteria criteria,
+                                        String after, int size, Sort sort,
+                                        Function<List<Document>, List<T>> reader) {
+        MongoConverter mongoConverter = mongoOperations.getConverter();
+        MongoPersistentEntity<?> entity = mongoConverter.getMappingContext().getRequiredPersistentEntity(entityClass);
+        QueryMapper queryMapper = new QueryMapper(mongoConverter);
+        Sort keysetSort = sort.isSorted() ? sort : Sort.by(ID_FIELD);
+        Document sortObject = queryMapper.getMappedSort(new Query().with(keysetSort).getSortObject(), entity);
+        if (!sortObject.containsKey(ID_FIELD))
+            sortObject.append(ID_FIELD, keysetSort.stream().reduce((first, second) -> second)
+                    .map(order -> order.isAscending() ? 1 : -1)
+                    .orElse(1));
+
+        Document queryObject = queryMapper.getMappedObject(criteria.getCriteriaObject(), entity);
+        if (after != null)
+            queryObject = new Document("$and", List.of(queryObject, getSeekObject(sortObject, decode(after, sortObject))));
+        BasicQuery query = new BasicQuery(queryObject);
+        query.setSortObject(sortObject);
+        query.limit(size + 1);
+
+        List<Document> documents = mongoOperations.find(query, Document.class,
+                mongoOperations.getCollectionName(entityClass));
+        String nextCursor = null;
+        if (documents.size() > size) {
+            documents = new ArrayList<>(documents.subList(0, size));
+            nextCursor = encode(documents.get(size - 1), sortObject);
+        }
+        return new CursorSlice<>(reader.apply(documents), size, keysetSort, nextCursor);
+    }
+
+    private static Document getSeekObject(Document sortObject, Document cursor) {
+        List<Document> conditions = new ArrayList<>();
+        Document equalKeys = new Document();
+        for (Map.Entry<String, Object> sortKey : sortObject.entrySet()) {
+            String operator = ((Number) sortKey.getValue()).intValue() > 0 ? "$gt" : "$lt";
+            conditions.add(new Document(equalKeys)
+                    .append(sortKey.getKey(), new Document(operator, cursor.get(sortKey.getKey()))));
+            equalKeys.append(sortKey.getKey(), cursor.get(sortKey.getKey()));
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new Document("$or", conditions);
+    }
+
+    private static String encode(Document document, Document sortObject) {
+        Document cursor = new Document();
+        sortObject.keySet().forEach(key -> cursor.append(key,
+                document.getEmbedded(Arrays.asList(key.split("\\.")), Object.class)));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cursor.toJson(CURSOR_JSON_SETTINGS).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Document decode(String after, Document sortObject) {
+        Document cursor;
+        try {
+            cursor = Document.parse(new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | JsonParseException e) {
+            throw new NotValidCursorException("Cursor " + after + " is malformed");
+        }
+        if (!new ArrayList<>(cursor.keySet()).equals(new ArrayList<>(sortObject.keySet())))
+            throw new NotValidCursorException("Cursor " + after + " doesn't match sort " + sortObject.keySet());
+        return cursor;
+    }
+}
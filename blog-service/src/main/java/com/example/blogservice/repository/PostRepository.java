@@ -1,18 +1,19 @@
 package com.example.blogservice.repository;
 
-import com.example.blogservice.model.Comment;
 import com.example.blogservice.model.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface PostRepository extends MongoRepository<Post, Long> {
-    List<Post> findAllByUserId(Long userId);
+public interface PostRepository extends MongoRepository<Post, Long>, PostRepositoryCustom {
 
-    boolean existsByIdAndCommentsContaining(Long postId, Comment comment);
+    @Query(value = "{ 'user.$id' : ?0 }", fields = "{ '_id' : 1 }")
+    List<Post> findIdsByUserId(Long userId);
 
-    Optional<Post> findPostByCommentsIsContaining(Comment comment);
+    @Query(value = "{ 'user.$id' : ?0 }", fields = "{ '_id' : 1, 'file' : 1 }")
+    List<Post> findIdsAndFilesByUserId(Long userId, Pageable pageable);
 }
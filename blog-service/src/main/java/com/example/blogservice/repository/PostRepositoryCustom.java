@@ -0,0 +1,36 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.model.CommentSummary;
+import com.example.blogservice.model.Post;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PostRepositoryCustom {
+    Page<Post> findAllWithReferences(Pageable pageable);
+
+    CursorSlice<Post> findAllAfterWithReferences(String after, int size, Sort sort);
+
+    List<Post> findAllByUserIdWithReferences(Long userId);
+
+    Optional<Post> updatePost(Post post);
+
+    Optional<Post> replaceFile(Long postId, ObjectId file, String fileName, String fileType);
+
+    boolean addCommentSummary(Long postId, CommentSummary commentSummary, int latestCommentsSize);
+
+    void updateCommentSummary(Long postId, CommentSummary commentSummary);
+
+    Optional<Post> removeCommentSummary(Long postId, Long commentId);
+
+    void appendCommentSummary(Long postId, CommentSummary commentSummary, int latestCommentsSize);
+
+    void replaceCommentSummaries(Long postId, List<CommentSummary> latestComments, long commentCount);
+
+    void updateCommentSummariesUsername(Long userId, String username);
+}
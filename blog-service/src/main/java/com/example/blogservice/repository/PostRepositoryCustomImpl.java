@@ -0,0 +1,195 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.model.CommentSummary;
+import com.example.blogservice.model.Post;
+import com.example.blogservice.model.User;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Reads posts with their authors resolved in batches: posts are read without resolving their references,
+ * then all authors of the posts are fetched with one $in query instead of one query per post.
+ * Latest comments of a post are embedded in it and are maintained by atomic updates,
+ * so a post is never saved as a whole document after it was created, only its own fields are set.
+ * A removed comment is pulled from them in the same update which decrements the comment count,
+ * so only the removal of one of the latest comments reads the next one to take its place.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    private static final String ID_FIELD = "_id";
+    private static final String USER_FIELD = "user";
+    private static final String TITLE_FIELD = "title";
+    private static final String CONTENT_FIELD = "content";
+    private static final String FILE_FIELD = "file";
+    private static final String FILE_NAME_FIELD = "fileName";
+    private static final String FILE_TYPE_FIELD = "fileType";
+    private static final String LATEST_COMMENTS_FIELD = "latestComments";
+    private static final String COMMENT_COUNT_FIELD = "commentCount";
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public Page<Post> findAllWithReferences(Pageable pageable) {
+        log.debug("Find posts of page : {} with resolved references", pageable);
+        MongoConverter mongoConverter = mongoOperations.getConverter();
+        Query query = new Query().with(pageable);
+        BasicQuery mappedQuery = new BasicQuery(query.getQueryObject());
+        mappedQuery.setSortObject(new QueryMapper(mongoConverter).getMappedSort(query.getSortObject(),
+                mongoConverter.getMappingContext().getRequiredPersistentEntity(Post.class)));
+        mappedQuery.skip(query.getSkip()).limit(query.getLimit());
+        List<Post> posts = resolveReferences(mongoOperations.find(mappedQuery, Document.class,
+                mongoOperations.getCollectionName(Post.class)));
+        return PageableExecutionUtils.getPage(posts, pageable, () -> mongoOperations.count(new Query(), Post.class));
+    }
+
+    @Override
+    public CursorSlice<Post> findAllAfterWithReferences(String after, int size, Sort sort) {
+        log.debug("Find {} posts after cursor : {} sorted by : {} with resolved references", size, after, sort);
+        return KeysetPagination.findSlice(mongoOperations, Post.class, new Criteria(), after, size, sort,
+                this::resolveReferences);
+    }
+
+    @Override
+    public List<Post> findAllByUserIdWithReferences(Long userId) {
+        log.debug("Find posts of user with id : {} with resolved references", userId);
+        return resolveReferences(mongoOperations.find(new Query(where(USER_FIELD + ".$id").is(userId)), Document.class,
+                mongoOperations.getCollectionName(Post.class)));
+    }
+
+    @Override
+    public Optional<Post> updatePost(Post post) {
+        log.debug("Update title, content, user and file of post with id : {}", post.getId());
+        Update update = new Update().set(TITLE_FIELD, post.getTitle())
+                .set(CONTENT_FIELD, post.getContent())
+                .set(USER_FIELD, post.getUser());
+        if (post.getFile() != null)
+            update.set(FILE_FIELD, post.getFile())
+                    .set(FILE_NAME_FIELD, post.getFileName())
+                    .set(FILE_TYPE_FIELD, post.getFileType());
+        return Optional.ofNullable(mongoOperations.findAndModify(new Query(where("id").is(post.getId())), update,
+                options().returnNew(true), Post.class));
+    }
+
+    @Override
+    public Optional<Post> replaceFile(Long postId, ObjectId file, String fileName, String fileType) {
+        log.debug("Replace file of post with id : {} with file : {} with name : {}, type : {}",
+                postId, file, fileName, fileType);
+        return Optional.ofNullable(mongoOperations.findAndModify(new Query(where("id").is(postId)),
+                new Update().set(FILE_FIELD, file)
+                        .set(FILE_NAME_FIELD, fileName)
+                        .set(FILE_TYPE_FIELD, fileType),
+                Post.class));
+    }
+
+    @Override
+    public boolean addCommentSummary(Long postId, CommentSummary commentSummary, int latestCommentsSize) {
+        log.debug("Add comment summary : {} to post with id : {}", commentSummary, postId);
+        Update update = new Update().inc(COMMENT_COUNT_FIELD, 1);
+        update.push(LATEST_COMMENTS_FIELD)
+                .atPosition(Update.Position.FIRST)
+                .slice(latestCommentsSize)
+                .each(commentSummary);
+        return mongoOperations.updateFirst(new Query(where("id").is(postId)), update, Post.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public void updateCommentSummary(Long postId, CommentSummary commentSummary) {
+        log.debug("Update comment summary : {} in post with id : {}", commentSummary, postId);
+        mongoOperations.updateFirst(new Query(where("id").is(postId)
+                        .and(LATEST_COMMENTS_FIELD + ".id").is(commentSummary.getId())),
+                new Update().set(LATEST_COMMENTS_FIELD + ".$", commentSummary), Post.class);
+    }
+
+    @Override
+    public Optional<Post> removeCommentSummary(Long postId, Long commentId) {
+        log.debug("Remove comment with id : {} from post with id : {}", commentId, postId);
+        Query query = new Query(where("id").is(postId));
+        query.fields().include(LATEST_COMMENTS_FIELD, COMMENT_COUNT_FIELD);
+        return Optional.ofNullable(mongoOperations.findAndModify(query,
+                new Update().pull(LATEST_COMMENTS_FIELD, new Query(where("id").is(commentId)))
+                        .inc(COMMENT_COUNT_FIELD, -1),
+                Post.class));
+    }
+
+    @Override
+    public void appendCommentSummary(Long postId, CommentSummary commentSummary, int latestCommentsSize) {
+        log.debug("Append comment summary : {} to post with id : {}", commentSummary, postId);
+        Update update = new Update();
+        update.push(LATEST_COMMENTS_FIELD)
+                .slice(latestCommentsSize)
+                .each(commentSummary);
+        mongoOperations.updateFirst(new Query(where("id").is(postId)
+                .and(LATEST_COMMENTS_FIELD + ".id").ne(commentSummary.getId())), update, Post.class);
+    }
+
+    @Override
+    public void replaceCommentSummaries(Long postId, List<CommentSummary> latestComments, long commentCount) {
+        log.debug("Replace comment summaries of post with id : {} with {} of {} comments",
+                postId, latestComments.size(), commentCount);
+        mongoOperations.updateFirst(new Query(where("id").is(postId)),
+                new Update().set(LATEST_COMMENTS_FIELD, latestComments).set(COMMENT_COUNT_FIELD, commentCount),
+                Post.class);
+    }
+
+    @Override
+    public void updateCommentSummariesUsername(Long userId, String username) {
+        log.debug("Update username of comment summaries of user with id : {} to : {}", userId, username);
+        mongoOperations.updateMulti(new Query(where(LATEST_COMMENTS_FIELD + ".userId").is(userId)),
+                new Update().set(LATEST_COMMENTS_FIELD + ".$[summary].username", username)
+                        .filterArray(where("summary.userId").is(userId)), Post.class);
+    }
+
+    private List<Post> resolveReferences(List<Document> postDocuments) {
+        if (postDocuments.isEmpty())
+            return new ArrayList<>();
+        List<Long> userIds = postDocuments.stream()
+                .map(postDocument -> postDocument.get(USER_FIELD, DBRef.class))
+                .filter(Objects::nonNull)
+                .map(userRef -> (Long) userRef.getId())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, User> users = userIds.isEmpty() ?
+                Map.of() :
+                mongoOperations.find(new Query(where(ID_FIELD).in(userIds)), User.class).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+        return postDocuments.stream()
+                .map(postDocument -> readPost(postDocument, users))
+                .collect(Collectors.toList());
+    }
+
+    private Post readPost(Document postDocument, Map<Long, User> users) {
+        DBRef userRef = (DBRef) postDocument.remove(USER_FIELD);
+        Post post = mongoOperations.getConverter().read(Post.class, postDocument);
+        post.setUser(userRef != null ? users.get((Long) userRef.getId()) : null);
+        return post;
+    }
+}
@@ -4,12 +4,9 @@ import com.example.blogservice.model.RefreshToken;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RefreshTokenRepository extends MongoRepository<RefreshToken, Long> {
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, Long>, RefreshTokenRepositoryCustom {
     Optional<RefreshToken> findRefreshTokenByToken(String token);
-
-    List<RefreshToken> findRefreshTokensByUserId(Long id);
 }
@@ -0,0 +1,9 @@
+package com.example.blogservice.repository;
+
+import java.time.LocalDateTime;
+
+public interface RefreshTokenRepositoryCustom {
+    long deactivateRefreshTokensByUserId(Long userId, LocalDateTime revoked);
+
+    long deleteRefreshTokensByUserId(Long userId);
+}
@@ -0,0 +1,32 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.model.RefreshToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenRepositoryCustomImpl implements RefreshTokenRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public long deactivateRefreshTokensByUserId(Long userId, LocalDateTime revoked) {
+        log.debug("Deactivate active refresh tokens of user with id : {}", userId);
+        return mongoOperations.updateMulti(new Query(where("userId").is(userId).and("isActive").is(true)),
+                new Update().set("isActive", false).set("revoked", revoked), RefreshToken.class).getModifiedCount();
+    }
+
+    @Override
+    public long deleteRefreshTokensByUserId(Long userId) {
+        log.debug("Delete refresh tokens of user with id : {}", userId);
+        return mongoOperations.remove(new Query(where("userId").is(userId)), RefreshToken.class).getDeletedCount();
+    }
+}
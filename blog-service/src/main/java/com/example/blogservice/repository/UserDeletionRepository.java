@@ -0,0 +1,17 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.model.UserDeletion;
+import com.example.blogservice.model.UserDeletionStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserDeletionRepository extends MongoRepository<UserDeletion, Long>, UserDeletionRepositoryCustom {
+
+    @Query(value = "{ 'status' : { $ne : ?0 }, 'leaseExpires' : { $lt : ?1 } }", fields = "{ '_id' : 1 }")
+    List<UserDeletion> findIdsByStatusNotAndLeaseExpiresBefore(UserDeletionStatus status, LocalDateTime date);
+}
@@ -0,0 +1,14 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.model.UserDeletion;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface UserDeletionRepositoryCustom {
+    Optional<UserDeletion> acquireUserDeletion(Long userId, LocalDateTime date, LocalDateTime leaseExpires);
+
+    void addUserDeletionProgress(UserDeletion progress, LocalDateTime date, LocalDateTime leaseExpires);
+
+    void finishUserDeletion(Long userId, LocalDateTime finished, LocalDateTime expires);
+}
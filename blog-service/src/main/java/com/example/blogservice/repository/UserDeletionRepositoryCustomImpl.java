@@ -0,0 +1,71 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.model.UserDeletion;
+import com.example.blogservice.model.UserDeletionStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * A user deletion is acquired by taking its lease with an atomic update, which only succeeds
+ * if the deletion isn't done and nobody else holds an unexpired lease on it.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class UserDeletionRepositoryCustomImpl implements UserDeletionRepositoryCustom {
+
+    private static final String ID_FIELD = "_id";
+    private static final String STATUS_FIELD = "status";
+    private static final String UPDATED_FIELD = "updated";
+    private static final String LEASE_EXPIRES_FIELD = "leaseExpires";
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public Optional<UserDeletion> acquireUserDeletion(Long userId, LocalDateTime date, LocalDateTime leaseExpires) {
+        log.debug("Acquire deletion of user with id : {} until : {}", userId, leaseExpires);
+        return Optional.ofNullable(mongoOperations.findAndModify(
+                new Query(where(ID_FIELD).is(userId)
+                        .and(STATUS_FIELD).ne(UserDeletionStatus.DONE)
+                        .and(LEASE_EXPIRES_FIELD).lte(date)),
+                new Update().set(STATUS_FIELD, UserDeletionStatus.RUNNING)
+                        .set(UPDATED_FIELD, date)
+                        .set(LEASE_EXPIRES_FIELD, leaseExpires),
+                FindAndModifyOptions.options().returnNew(true),
+                UserDeletion.class));
+    }
+
+    @Override
+    public void addUserDeletionProgress(UserDeletion progress, LocalDateTime date, LocalDateTime leaseExpires) {
+        log.debug("Add progress : {} of deletion of user with id : {}", progress, progress.getUserId());
+        mongoOperations.updateFirst(new Query(where(ID_FIELD).is(progress.getUserId())),
+                new Update().inc("deletedPosts", progress.getDeletedPosts())
+                        .inc("deletedComments", progress.getDeletedComments())
+                        .inc("deletedFiles", progress.getDeletedFiles())
+                        .inc("deletedStatistics", progress.getDeletedStatistics())
+                        .inc("deletedRefreshTokens", progress.getDeletedRefreshTokens())
+                        .set(UPDATED_FIELD, date)
+                        .set(LEASE_EXPIRES_FIELD, leaseExpires),
+                UserDeletion.class);
+    }
+
+    @Override
+    public void finishUserDeletion(Long userId, LocalDateTime finished, LocalDateTime expires) {
+        log.debug("Finish deletion of user with id : {}", userId);
+        mongoOperations.updateFirst(new Query(where(ID_FIELD).is(userId)),
+                new Update().set(STATUS_FIELD, UserDeletionStatus.DONE)
+                        .set(UPDATED_FIELD, finished)
+                        .set("finished", finished)
+                        .set("expires", expires)
+                        .unset(LEASE_EXPIRES_FIELD),
+                UserDeletion.class);
+    }
+}
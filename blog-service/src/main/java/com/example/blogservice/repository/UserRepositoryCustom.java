@@ -0,0 +1,11 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.model.User;
+import org.springframework.data.domain.Sort;
+
+public interface UserRepositoryCustom {
+    CursorSlice<User> findAllAfter(String after, int size, Sort sort);
+
+    boolean replacePassword(Long userId, String password, String newPassword);
+}
@@ -0,0 +1,38 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+@Slf4j
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public CursorSlice<User> findAllAfter(String after, int size, Sort sort) {
+        log.debug("Find {} users after cursor : {} sorted by : {}", size, after, sort);
+        return KeysetPagination.findSlice(mongoOperations, User.class, new Criteria(), after, size, sort,
+                userDocuments -> userDocuments.stream()
+                        .map(userDocument -> mongoOperations.getConverter().read(User.class, userDocument))
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public boolean replacePassword(Long userId, String password, String newPassword) {
+        log.debug("Replace password hash of user with id : {}", userId);
+        return mongoOperations.updateFirst(new Query(where("id").is(userId).and("password").is(password)),
+                new Update().set("password", newPassword), User.class).getModifiedCount() > 0;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.blogservice.security.filter;
 
 import com.example.blogservice.dto.UserDto;
+import com.example.blogservice.exception.NotValidCredentialsException;
+import com.example.blogservice.exception.NotValidTokenException;
+import com.example.blogservice.exception.PasswordHashingUnavailableException;
 import com.example.blogservice.security.service.JWTService;
 import com.example.blogservice.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -9,12 +12,16 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
@@ -34,7 +41,15 @@ public class JwtLoginFilter extends UsernamePasswordAuthenticationFilter {
             throws AuthenticationException {
         String username = request.getParameter(SECURITY_USERNAME_KEY);
         String password = request.getParameter(SECURITY_PASSWORD_KEY);
-        return new UsernamePasswordAuthenticationToken(username, password);
+        try {
+            UserDto user = userService.getUserByUsernameAndPassword(username, password);
+            return UsernamePasswordAuthenticationToken.authenticated(user, null,
+                    List.of(new SimpleGrantedAuthority(user.getRole().name())));
+        } catch (NotValidTokenException | NotValidCredentialsException e) {
+            throw new BadCredentialsException("Username or password isn't valid");
+        } catch (PasswordHashingUnavailableException e) {
+            throw new AuthenticationServiceException(e.getMessage(), e);
+        }
     }
 
     @Override
@@ -42,8 +57,7 @@ public class JwtLoginFilter extends UsernamePasswordAuthenticationFilter {
                                             HttpServletResponse response,
                                             FilterChain chain,
                                             Authentication authResult) throws IOException, ServletException {
-        String username =  authResult.getName();
-        UserDto user = userService.getUserByUsername(username);
+        UserDto user = (UserDto) authResult.getPrincipal();
         Map<String, String> tokens = jwtService.createAccessAndRefreshTokens(user);
         response.setContentType(APPLICATION_JSON_VALUE);
         new ObjectMapper().writeValue(response.getOutputStream(), tokens);
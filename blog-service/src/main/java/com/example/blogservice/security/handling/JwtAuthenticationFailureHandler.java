@@ -1,5 +1,6 @@
 package com.example.blogservice.security.handling;
 
+import com.example.blogservice.exception.PasswordHashingUnavailableException;
 import com.example.blogservice.handling.BlogApiErrorResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @Component
@@ -29,7 +31,12 @@ public class JwtAuthenticationFailureHandler implements AuthenticationFailureHan
         final BlogApiErrorResponse blogApiErrorResponse = new BlogApiErrorResponse(exception.getMessage());
 
         response.setContentType(APPLICATION_JSON_VALUE);
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        if (exception.getCause() instanceof PasswordHashingUnavailableException) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(RETRY_AFTER, "1");
+        } else {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        }
         response.getOutputStream().println(objectMapper.writeValueAsString(blogApiErrorResponse));
         response.getOutputStream().flush();
     }
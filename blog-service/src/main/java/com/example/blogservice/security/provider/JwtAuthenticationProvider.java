@@ -1,31 +1,36 @@
 package com.example.blogservice.security.provider;
 
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.blogservice.security.service.UserStateService;
 import com.example.blogservice.security.token.JwtAuthenticationToken;
+import com.example.blogservice.security.token.VerifiedToken;
+import com.example.blogservice.security.token.VerifiedTokenCache;
 import com.example.blogservice.security.user.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.AbstractUserDetailsAuthenticationProvider;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
+/**
+ * Authenticates requests by their access token alone: the principal is built from the subject,
+ * userId and roles claims without reading the user from the database.
+ * Already verified tokens are taken from the verified token cache when it's enabled.
+ * When the user state check is enabled the claims are also compared with the cached state of the user,
+ * so tokens of deleted or changed users stop working.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationProvider extends AbstractUserDetailsAuthenticationProvider {
 
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
-
-    private final UserDetailsService userDetailsService;
+    private final JWTVerifier jwtVerifier;
+    private final ObjectProvider<UserStateService> userStateService;
+    private final ObjectProvider<VerifiedTokenCache> verifiedTokenCache;
 
     @Override
     protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
@@ -36,13 +41,22 @@ public class JwtAuthenticationProvider extends AbstractUserDetailsAuthentication
     protected UserDetails retrieveUser(String username, UsernamePasswordAuthenticationToken authentication) {
         final JwtAuthenticationToken authToken = (JwtAuthenticationToken) authentication;
         final String token = authToken.getToken();
+        VerifiedTokenCache tokenCache = verifiedTokenCache.getIfAvailable();
+        AuthenticatedUser authenticatedUser = tokenCache == null ?
+                verify(token).getAuthenticatedUser() :
+                tokenCache.get(token, this::verify);
+        UserStateService stateService = userStateService.getIfAvailable();
+        if (stateService != null && !stateService.isActual(authenticatedUser))
+            throw new AuthenticationCredentialsNotFoundException("User of token has been changed or deleted");
+        return authenticatedUser;
+    }
+
+    private VerifiedToken verify(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(SECRET_KEY.getBytes());
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decodedJWT = verifier.verify(token);
-            String name = decodedJWT.getSubject();
-            UserDetails userDetails = userDetailsService.loadUserByUsername(name);
-            return new AuthenticatedUser(userDetails.getUsername(), token, decodedJWT.getClaim("roles").asString());
+            DecodedJWT decodedJWT = jwtVerifier.verify(token);
+            AuthenticatedUser authenticatedUser = new AuthenticatedUser(decodedJWT.getSubject(), token,
+                    decodedJWT.getClaim("roles").asString(), decodedJWT.getClaim("userId").asLong());
+            return new VerifiedToken(authenticatedUser, decodedJWT.getExpiresAtAsInstant());
         } catch (JWTVerificationException e) {
             throw new AuthenticationCredentialsNotFoundException(e.getMessage());
         }
@@ -0,0 +1,7 @@
+package com.example.blogservice.security.service;
+
+import com.example.blogservice.security.user.AuthenticatedUser;
+
+public interface UserStateService {
+    boolean isActual(AuthenticatedUser authenticatedUser);
+}
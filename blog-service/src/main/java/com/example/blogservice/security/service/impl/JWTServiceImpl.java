@@ -9,7 +9,6 @@ import com.example.blogservice.security.service.JWTService;
 import com.example.blogservice.service.RefreshTokenService;
 import com.example.blogservice.service.UserService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,19 +27,16 @@ public class JWTServiceImpl implements JWTService {
     public static final String ACCESS_TOKEN = "access_token";
     public static final String REFRESH_TOKEN = "refresh_token";
 
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
-
     private final RefreshTokenService refreshTokenService;
     private final UserService userService;
+    private final Algorithm jwtAlgorithm;
+    private final JWTVerifier jwtVerifier;
 
 
     @Override
     public String getUsernameByTokenHeader(String header) {
         String token = getValidHeader(header);
-        Algorithm algorithm = getAlgorithm();
-        JWTVerifier verifier = JWT.require(algorithm).build();
-        return verifier.verify(token).getSubject();
+        return jwtVerifier.verify(token).getSubject();
     }
 
     @Override
@@ -60,7 +56,7 @@ public class JWTServiceImpl implements JWTService {
                 .withIssuer("blogproject.example")
                 .withClaim("userId", user.getId())
                 .withClaim("roles", user.getRole().name())
-                .sign(getAlgorithm());
+                .sign(jwtAlgorithm);
     }
 
 
@@ -69,7 +65,7 @@ public class JWTServiceImpl implements JWTService {
     public Map<String, String> createTokensByRefreshTokenHeader(String header) {
         String refreshToken = getValidHeader(header);
         RefreshToken token = refreshTokenService.getByToken(refreshToken);
-        UserDto user = userService.getInnerUserById(token.getUser().getId());
+        UserDto user = userService.getInnerUserById(token.getUserId());
         return createTokensByRefreshToken(user, token);
     }
 
@@ -85,10 +81,6 @@ public class JWTServiceImpl implements JWTService {
         return refreshTokenService.replaceToken(token, user, currentDate);
     }
 
-    private Algorithm getAlgorithm() {
-        return Algorithm.HMAC256(SECRET_KEY.getBytes());
-    }
-
     private String getValidHeader(String header) {
         if (header != null && header.startsWith(TOKEN_PREFIX))
             return header.substring(TOKEN_PREFIX.length());
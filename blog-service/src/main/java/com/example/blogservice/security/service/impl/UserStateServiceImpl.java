@@ -0,0 +1,63 @@
+package com.example.blogservice.security.service.impl;
+
+import com.example.blogservice.repository.UserRepository;
+import com.example.blogservice.security.service.UserStateService;
+import com.example.blogservice.security.user.AuthenticatedUser;
+import com.example.blogservice.security.user.UserState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import static com.example.blogservice.utils.ConstantUtil.CacheName.USER_STATE;
+
+/**
+ * Compares the claims of a token with the username and role of its user, read at most once per
+ * user-state cache expiry. Updated and deleted users are evicted by the cache coherence listener.
+ */
+@Service
+@ConditionalOnProperty(name = "jwt.user-state.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class UserStateServiceImpl implements UserStateService {
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    @Override
+    public boolean isActual(AuthenticatedUser authenticatedUser) {
+        Long userId = authenticatedUser.getUserId();
+        if (userId == null)
+            return false;
+        UserState userState = getUserState(userId);
+        boolean isActual = userState != null &&
+                userState.getUsername().equals(authenticatedUser.getUsername()) &&
+                userState.getRole().equals(authenticatedUser.getRole());
+        if (!isActual)
+            log.debug("Token of user with id : {} doesn't match the state of the user", userId);
+        return isActual;
+    }
+
+    /**
+     * Reads the state outside of the cache, as a loading Caffeine cache holds the monitor of a map bin while
+     * loading and would pin a virtual thread for the whole read. Concurrent misses of a user read it twice.
+     */
+    private UserState getUserState(Long userId) {
+        Cache cache = cacheManager.getCache(USER_STATE);
+        if (cache == null)
+            return loadUserState(userId);
+        Cache.ValueWrapper cachedUserState = cache.get(userId);
+        if (cachedUserState != null)
+            return (UserState) cachedUserState.get();
+        UserState userState = loadUserState(userId);
+        cache.put(userId, userState);
+        return userState;
+    }
+
+    private UserState loadUserState(Long userId) {
+        return userRepository.findById(userId)
+                .map(user -> new UserState(user.getUsername(), user.getRole().name()))
+                .orElse(null);
+    }
+}
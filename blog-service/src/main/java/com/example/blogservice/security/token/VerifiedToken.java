@@ -0,0 +1,14 @@
+package com.example.blogservice.security.token;
+
+import com.example.blogservice.security.user.AuthenticatedUser;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class VerifiedToken {
+    private AuthenticatedUser authenticatedUser;
+    private Instant expiresAt;
+}
@@ -0,0 +1,78 @@
+package com.example.blogservice.security.token;
+
+import com.example.blogservice.props.VerifiedTokenCacheProps;
+import com.example.blogservice.security.user.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.SneakyThrows;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Keeps the principals of already verified access tokens, keyed by the SHA-256 hash of the token,
+ * so repeated requests with the same token skip the signature check and the parsing of the claims.
+ * An entry expires together with its token, tokens without expiry and failed verifications aren't cached.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.verified-token-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class VerifiedTokenCache {
+    public static final String CACHE_NAME = "verified-token";
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(VerifiedTokenCacheProps verifiedTokenCacheProps, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheProps.getMaximumSize())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public AuthenticatedUser get(String token, Function<String, VerifiedToken> verifier) {
+        String tokenHash = hash(token);
+        VerifiedToken verifiedToken = cache.getIfPresent(tokenHash);
+        if (verifiedToken == null) {
+            verifiedToken = verifier.apply(token);
+            if (verifiedToken.getExpiresAt() != null)
+                cache.put(tokenHash, verifiedToken);
+        }
+        return verifiedToken.getAuthenticatedUser();
+    }
+
+    @SneakyThrows
+    private static String hash(String token) {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String tokenHash, VerifiedToken verifiedToken, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), verifiedToken.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenHash, VerifiedToken verifiedToken, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(tokenHash, verifiedToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenHash, VerifiedToken verifiedToken, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
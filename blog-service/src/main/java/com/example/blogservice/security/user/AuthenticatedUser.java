@@ -1,7 +1,8 @@
 package com.example.blogservice.security.user;
 
+import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
-import lombok.RequiredArgsConstructor;
+import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,12 +11,20 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
-@RequiredArgsConstructor
+@AllArgsConstructor
 @EqualsAndHashCode
 public class AuthenticatedUser implements UserDetails {
     private final String username;
     private final String token;
+    @Getter
     private final String role;
+    @Getter
+    @EqualsAndHashCode.Exclude
+    private final Long userId;
+
+    public AuthenticatedUser(String username, String token, String role) {
+        this(username, token, role, null);
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
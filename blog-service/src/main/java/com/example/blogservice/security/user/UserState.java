@@ -0,0 +1,11 @@
+package com.example.blogservice.security.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserState {
+    private String username;
+    private String role;
+}
@@ -2,15 +2,18 @@ package com.example.blogservice.service;
 
 import com.example.blogservice.dto.CommentDtoRequest;
 import com.example.blogservice.dto.CommentDtoResponse;
+import com.example.blogservice.dto.CursorSlice;
 import com.example.blogservice.model.Post;
-import com.example.blogservice.model.User;
 import com.example.blogservice.security.user.AuthenticatedUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 public interface CommentService {
     Page<CommentDtoResponse> findAllCommentsByPost(Long postId, Pageable pageable);
 
+    CursorSlice<CommentDtoResponse> findAllCommentsByPostAfter(Long postId, String after, int size, Sort sort);
+
     CommentDtoResponse findCommentByPostIdAndCommentId(Long postId, Long commentId);
 
     CommentDtoResponse save(CommentDtoRequest commentDtoRequest, Long postId, AuthenticatedUser principal);
@@ -19,7 +22,5 @@ public interface CommentService {
 
     void delete(Long commentId, Long postId, AuthenticatedUser authenticatedUser);
 
-    void deleteAllByUser(User user);
-
     void deleteAllByPost(Post post);
 }
@@ -1,13 +1,33 @@
 package com.example.blogservice.service;
 
+import com.example.blogservice.dto.FileUploadDtoResponse;
 import com.example.blogservice.dto.LoadFile;
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 public interface FileService {
     ObjectId uploadFile(MultipartFile multipartFile);
 
     LoadFile downloadFile(ObjectId id);
 
+    LoadFile getFileDescriptor(ObjectId id);
+
+    GridFsResource getFileResource(ObjectId id, String fileName, String contentType);
+
     void deleteFile(ObjectId file);
+
+    FileUploadDtoResponse createUpload(Long postId, String fileName, String contentType, long length);
+
+    FileUploadDtoResponse getUpload(ObjectId uploadId, Long postId);
+
+    FileUploadDtoResponse uploadPart(ObjectId uploadId, Long postId, int partNumber, InputStream content, String digest);
+
+    LoadFile commitUpload(ObjectId uploadId, Long postId);
+
+    void abortUpload(ObjectId uploadId, Long postId);
+
+    void deleteExpiredUploads();
 }
@@ -2,8 +2,14 @@ package com.example.blogservice.service;
 
 import com.example.blogservice.model.ModelUpdateStatistics;
 
+import java.util.Collection;
+
 public interface ModelUpdateStatisticsService {
     void update(ModelUpdateStatistics updateModelInf);
 
     void save(ModelUpdateStatistics createModelInf);
+
+    void flush();
+
+    long deleteAllByModelIds(String modelName, Collection<Long> modelIds);
 }
@@ -1,23 +1,36 @@
 package com.example.blogservice.service;
 
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.dto.FileUploadDtoResponse;
 import com.example.blogservice.dto.LoadFile;
 import com.example.blogservice.dto.PostDtoRequest;
 import com.example.blogservice.dto.PostDtoResponse;
 import com.example.blogservice.model.Comment;
-import com.example.blogservice.model.User;
 import com.example.blogservice.security.user.AuthenticatedUser;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface PostService {
 
     PostDtoResponse getById(Long id);
 
+    PostDtoResponse getByIdWithFileContent(Long id);
+
     Page<PostDtoResponse> findAll(Pageable pageable);
 
+    Page<PostDtoResponse> findAllWithFileContent(Pageable pageable);
+
+    CursorSlice<PostDtoResponse> findAllAfter(String after, int size, Sort sort);
+
+    CursorSlice<PostDtoResponse> findAllAfterWithFileContent(String after, int size, Sort sort);
+
     PostDtoResponse save(PostDtoRequest postDtoRequest, AuthenticatedUser authenticatedUser);
 
     PostDtoResponse update(Long postId, PostDtoRequest postDtoRequest, AuthenticatedUser principal);
@@ -26,10 +39,14 @@ public interface PostService {
 
     List<PostDtoResponse> findAllByUserId(Long userId);
 
+    List<PostDtoResponse> findAllByUserIdWithFileContent(Long userId);
+
     boolean existsById(Long postId);
 
     void addCommentToPost(Long postId, Comment newComment);
 
+    void updateCommentInPost(Long postId, Comment comment);
+
     boolean existsByPostIdAndComment(Long postId, Comment comment);
 
     PostDtoResponse addFileToPost(Long postId, MultipartFile file, AuthenticatedUser authenticatedUser);
@@ -38,9 +55,19 @@ public interface PostService {
 
     void deleteFileInPost(Long postId, AuthenticatedUser authenticatedUser);
 
-    LoadFile getFileFromPost(Long postId);
+    GridFsResource getFileFromPost(Long postId);
+
+    FileUploadDtoResponse createFileUpload(Long postId, String fileName, String contentType, long length,
+                                           AuthenticatedUser authenticatedUser);
+
+    FileUploadDtoResponse getFileUpload(Long postId, ObjectId uploadId, AuthenticatedUser authenticatedUser);
+
+    FileUploadDtoResponse uploadFilePart(Long postId, ObjectId uploadId, int partNumber, InputStream content,
+                                         String digest, AuthenticatedUser authenticatedUser);
+
+    PostDtoResponse commitFileUpload(Long postId, ObjectId uploadId, AuthenticatedUser authenticatedUser);
 
-    void deleteAllByUser(User user);
+    void abortFileUpload(Long postId, ObjectId uploadId, AuthenticatedUser authenticatedUser);
 
     void deleteCommentFromPostByComment(Comment comment);
 }
@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
 
 
 public interface RefreshTokenService {
-    void deactivateRefreshTokensByUserId(Long id);
+    long deactivateRefreshTokensByUserId(Long id);
 
     RefreshToken createRefreshToken(UserDto user);
 
@@ -0,0 +1,14 @@
+package com.example.blogservice.service;
+
+import com.example.blogservice.dto.UserDeletionDtoResponse;
+import com.example.blogservice.model.User;
+
+public interface UserDeletionService {
+    void startUserDeletion(User user);
+
+    void deleteUserContent(Long userId);
+
+    void resumeUserDeletions();
+
+    UserDeletionDtoResponse getUserDeletion(Long userId);
+}
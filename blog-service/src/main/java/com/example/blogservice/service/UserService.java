@@ -1,11 +1,13 @@
 package com.example.blogservice.service;
 
+import com.example.blogservice.dto.CursorSlice;
 import com.example.blogservice.dto.UserDto;
 import com.example.blogservice.dto.UserDtoRequest;
 import com.example.blogservice.dto.UserDtoResponse;
 import com.example.blogservice.security.user.AuthenticatedUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 public interface UserService extends UserDetailsService {
@@ -16,6 +18,8 @@ public interface UserService extends UserDetailsService {
 
     Page<UserDtoResponse> findAll(Pageable pageable);
 
+    CursorSlice<UserDtoResponse> findAllAfter(String after, int size, Sort sort);
+
     UserDtoResponse save(UserDtoRequest userDtoRequest, String password);
 
     UserDtoResponse update(Long userId, UserDtoRequest userDtoRequest, AuthenticatedUser authenticatedUser);
@@ -27,6 +31,8 @@ public interface UserService extends UserDetailsService {
 
     UserDto getUserByUsername(String username);
 
+    UserDto getUserByUsernameAndPassword(String username, String password);
+
     UserDtoResponse changePasswordByUserId(Long id, String password, AuthenticatedUser authenticatedUser);
 
 }
@@ -2,7 +2,7 @@ package com.example.blogservice.service.impl;
 
 import com.example.blogservice.dto.CommentDtoRequest;
 import com.example.blogservice.dto.CommentDtoResponse;
-import com.example.blogservice.dto.PostDtoResponse;
+import com.example.blogservice.dto.CursorSlice;
 import com.example.blogservice.dto.UserDtoResponse;
 import com.example.blogservice.event.ModelCreatedEvent;
 import com.example.blogservice.event.ModelDeletedEvent;
@@ -19,6 +19,7 @@ import com.example.blogservice.security.user.AuthenticatedUser;
 import com.example.blogservice.service.CommentService;
 import com.example.blogservice.service.PostService;
 import com.example.blogservice.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -27,15 +28,16 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
+import static com.example.blogservice.utils.ConstantUtil.CacheName.COMMENT;
 import static com.example.blogservice.utils.ConstantUtil.Exception.NO_ENOUGH_PERMISSIONS;
+import static com.example.blogservice.utils.ConstantUtil.Metric.SERVICE_INVOCATIONS;
 
 @Service
+@Timed(SERVICE_INVOCATIONS)
 @Slf4j
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -51,21 +53,27 @@ public class CommentServiceImpl implements CommentService {
     @Override
     public Page<CommentDtoResponse> findAllCommentsByPost(Long postId, Pageable pageable) {
         log.debug("Get all comments of post : {}", postId);
-        PostDtoResponse postDtoResponse = postService.getById(postId);
-        List<Long> commentIds = postDtoResponse.getComments().stream()
-                .map(CommentDtoResponse::getId)
-                .collect(Collectors.toList());
-        return commentRepository.findAllByIdIn(commentIds, pageable)
+        if (!postService.existsById(postId))
+            throw new ResourceNotFoundException(Post.class, "id", postId);
+        return commentRepository.findAllByPostIdWithReferences(postId, pageable)
+                .map(commentMapper::mapToCommentDtoResponse);
+    }
+
+    @Override
+    public CursorSlice<CommentDtoResponse> findAllCommentsByPostAfter(Long postId, String after, int size, Sort sort) {
+        log.debug("Get {} comments of post : {} after cursor : {}", size, postId, after);
+        if (!postService.existsById(postId))
+            throw new ResourceNotFoundException(Post.class, "id", postId);
+        return commentRepository.findAllByPostIdAfter(postId, after, size, sort)
                 .map(commentMapper::mapToCommentDtoResponse);
     }
 
     @Override
-    @Cacheable(value = "comment", key = "#commentId")
+    @Cacheable(value = COMMENT, key = "#commentId")
     public CommentDtoResponse findCommentByPostIdAndCommentId(Long postId, Long commentId) {
         log.debug("Get comment with id : {} from post with id : {}", commentId, postId);
-        return postService.getById(postId).getComments().stream()
-                .filter(comment -> comment.getId().equals(commentId))
-                .findFirst()
+        return commentRepository.findByIdAndPostId(commentId, postId)
+                .map(commentMapper::mapToCommentDtoResponse)
                 .orElseThrow(() -> new ResourceNotFoundException(Comment.class, "id", commentId, Post.class, "id", postId));
     }
 
@@ -79,6 +87,7 @@ public class CommentServiceImpl implements CommentService {
             UserDtoResponse userDtoResponse = userService.getById(commentDtoRequest.getUserId());
             Comment newComment = commentMapper.mapToComment(sequenceGeneratorService.generateSequence(
                     Comment.SEQUENCE_NAME), userDtoResponse, commentDtoRequest);
+            newComment.setPostId(postId);
             newComment = commentRepository.save(newComment);
             postService.addCommentToPost(postId, newComment);
             publishSave(newComment);
@@ -90,7 +99,7 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     @Transactional
-    @CachePut(value = "comment", key = "#commentId")
+    @CachePut(value = COMMENT, key = "#commentId")
     public CommentDtoResponse update(Long commentId, Long postId, CommentDtoRequest commentDtoRequest, AuthenticatedUser authenticatedUser) {
         log.debug("Update comment with id : {} by : {} from post with id : {}", commentId, commentDtoRequest, postId);
         Comment comment = commentRepository.findById(commentId)
@@ -98,15 +107,18 @@ public class CommentServiceImpl implements CommentService {
                     log.error("Comment with id : {} wasn't found", commentId);
                     return new ResourceNotFoundException(Comment.class, "id", commentId);
                 });
-        checkValidCredentials(postId, commentId, authenticatedUser);
-        comment = commentMapper.mapToComment(comment.getId(), comment.getUser(), commentDtoRequest);
+        checkValidCredentials(postId, comment, authenticatedUser);
+        Comment updatedComment = commentMapper.mapToComment(comment.getId(), comment.getUser(), commentDtoRequest);
+        updatedComment.setPostId(comment.getPostId());
+        comment = commentRepository.save(updatedComment);
+        postService.updateCommentInPost(postId, comment);
         publishUpdate(commentId);
-        return commentMapper.mapToCommentDtoResponse(commentRepository.save(comment));
+        return commentMapper.mapToCommentDtoResponse(comment);
     }
 
 
     @Override
-    @CacheEvict(value = "comment", key = "#commentId")
+    @CacheEvict(value = COMMENT, key = "#commentId")
     public void delete(Long commentId, Long postId, AuthenticatedUser authenticatedUser) {
         log.debug("Delete comment by id : {}  from post with id : {}", commentId, postId);
         Comment comment = commentRepository.findById(commentId)
@@ -114,7 +126,7 @@ public class CommentServiceImpl implements CommentService {
                     log.error("Comment with id : {} wasn't found", commentId);
                     return new ResourceNotFoundException(Comment.class, "id", commentId);
                 });
-        checkValidCredentials(postId, commentId, authenticatedUser);
+        checkValidCredentials(postId, comment, authenticatedUser);
         publishDelete(comment);
         commentRepository.delete(comment);
 
@@ -134,31 +146,21 @@ public class CommentServiceImpl implements CommentService {
                 .build());
     }
 
-    @Override
-    public void deleteAllByUser(User user) {
-        log.debug("Delete all coments by user");
-        commentRepository.findAllByUserId(user.getId()).stream()
-                .peek(this::publishDelete)
-                .forEachOrdered(commentRepository::delete);
-    }
-
     @Override
     public void deleteAllByPost(Post post) {
         log.debug("Delete all comments by post : {}", post);
-        commentRepository.deleteAll(post.getComments());
+        long deletedComments = commentRepository.deleteAllByPostId(post.getId());
+        log.debug("Deleted {} comments of post with id : {}", deletedComments, post.getId());
     }
 
 
-    private void checkValidCredentials(Long postId, Long commentId, AuthenticatedUser authenticatedUser) {
+    private void checkValidCredentials(Long postId, Comment comment, AuthenticatedUser authenticatedUser) {
         if (authenticatedUser == null)
             throw new NotValidCredentialsException("User must be authenticated");
-        PostDtoResponse postDtoResponse = postService.getById(postId);
-        boolean isValid = postDtoResponse.getComments().stream()
-                .filter(comment -> comment.getId().equals(commentId))
-                .findFirst()
-                .map(comment -> comment.getUserDtoResponse().getUsername().equals(authenticatedUser.getUsername()) ||
-                        authenticatedUser.getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN")))
-                .orElseThrow(() -> new ResourceNotFoundException(Comment.class, "id", commentId, Post.class, "id", postId));
+        if (!postId.equals(comment.getPostId()))
+            throw new ResourceNotFoundException(Comment.class, "id", comment.getId(), Post.class, "id", postId);
+        boolean isValid = comment.getUser().getUsername().equals(authenticatedUser.getUsername()) ||
+                authenticatedUser.getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
         if (!isValid)
             throw new NotValidCredentialsException(NO_ENOUGH_PERMISSIONS);
     }
@@ -1,30 +1,88 @@
 package com.example.blogservice.service.impl;
 
+import com.example.blogservice.dto.FileUploadDtoResponse;
 import com.example.blogservice.dto.LoadFile;
+import com.example.blogservice.exception.NotValidFileUploadException;
+import com.example.blogservice.exception.ResourceNotFoundException;
+import com.example.blogservice.model.FileUpload;
+import com.example.blogservice.model.FileUploadPart;
+import com.example.blogservice.props.FileUploadProps;
 import com.example.blogservice.service.FileService;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.gridfs.model.GridFSFile;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
+import org.bson.Document;
+import org.bson.types.Binary;
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.blogservice.utils.ConstantUtil.Metric.SERVICE_INVOCATIONS;
+
+/**
+ * Files are stored in GridFS either at once from a multipart request or by resumable uploads.
+ * Every part of an upload is streamed from the request straight into GridFS chunks of the future file,
+ * holding a single chunk in memory, and is verified against its SHA-256 digest before it is recorded.
+ * A part may be uploaded again until the upload is committed, which only describes the file in GridFS.
+ * <p>
+ * Files are addressed by the SHA-256 checksum of the SHA-256 checksums of their parts as well, together with
+ * the size of the parts, which is kept next to the checksum, so files stored with another part size are never matched.
+ * For an upload the checksum is computed from the verified checksums of its parts on commit without reading its
+ * chunks again, a multipart file is digested while it is stored and its copy is deleted if its content was stored.
+ * A file whose content is already stored gets no own copy, the stored one gets another reference instead
+ * and is deleted with its last reference. Only the content is shared, the name and the content type
+ * of a file are kept by each of its references.
+ * Files stored concurrently with the same content may still be stored twice, each with its own references.
+ */
 @Service
+@Timed(SERVICE_INVOCATIONS)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class FileServiceImpl implements FileService {
+    private static final String FILES_COLLECTION = "fs.files";
+    private static final String CHUNKS_COLLECTION = "fs.chunks";
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+    private static final String DIGEST_PREFIX = "sha-256=";
+    private static final String PARTS_CHECKSUM = "partsSha256";
+    private static final String PARTS_CHECKSUM_FIELD = "metadata." + PARTS_CHECKSUM;
+    private static final String PART_SIZE = "partSize";
+    private static final String PART_SIZE_FIELD = "metadata." + PART_SIZE;
+    private static final String CONTENT_TYPE = "_contentType";
+    private static final String REFERENCES_FIELD = "metadata.references";
+
     private final GridFsTemplate gridFsTemplate;
     private final GridFsOperations gridFsOperations;
+    private final MongoTemplate mongoTemplate;
+    private final FileUploadProps fileUploadProps;
 
     @SneakyThrows
     @Override
@@ -32,32 +90,394 @@ public class FileServiceImpl implements FileService {
     public ObjectId uploadFile(MultipartFile file) {
         log.debug("Upload file with file name : {} , contentType: {}, size : {}",
                 file.getOriginalFilename(), file.getContentType(), file.getSize());
+        long partSize = fileUploadProps.getChunkSize().toBytes() * fileUploadProps.getChunksPerPart();
         DBObject data = new BasicDBObject();
         data.put("filesize", file.getSize());
+        data.put(PART_SIZE, partSize);
+        data.put("references", 1);
 
-        ObjectId store = gridFsTemplate.store(file.getInputStream(), file.getOriginalFilename(),
-                file.getContentType(), data);
+        ObjectId store;
+        String checksum;
+        try (PartsDigestInputStream content = new PartsDigestInputStream(file.getInputStream(), partSize)) {
+            store = gridFsTemplate.store(content, file.getOriginalFilename(), file.getContentType(), data);
+            checksum = content.getChecksum();
+        }
+        ObjectId storedFile = addReference(checksum, partSize);
+        if (storedFile != null) {
+            log.debug("File with checksum : {} is already stored with objectId : {}", checksum, storedFile);
+            gridFsTemplate.delete(new Query(Criteria.where("_id").is(store)));
+            return storedFile;
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(store)),
+                new Update().set(PARTS_CHECKSUM_FIELD, checksum), FILES_COLLECTION);
         return store;
-
     }
 
     @Override
     @SneakyThrows
     public LoadFile downloadFile(ObjectId id) {
         log.debug("Download file with objectId : {}", id);
-        GridFSFile gridFSFile = gridFsTemplate.findOne(new Query(Criteria.where("_id").is(id)));
-        return LoadFile.builder()
-                .fileName(gridFSFile.getFilename())
-                .fileSize(gridFSFile.getMetadata().get("filesize").toString())
-                .fileType(gridFSFile.getMetadata().get("_contentType").toString())
-                .file(IOUtils.toByteArray(gridFsOperations.getResource(gridFSFile).getInputStream()))
-                .build();
+        GridFSFile gridFSFile = getGridFSFile(id);
+        LoadFile loadFile = mapToLoadFile(gridFSFile);
+        loadFile.setFile(IOUtils.toByteArray(gridFsOperations.getResource(gridFSFile).getInputStream()));
+        return loadFile;
+    }
+
+    @Override
+    public LoadFile getFileDescriptor(ObjectId id) {
+        log.debug("Get descriptor of file with objectId : {}", id);
+        return mapToLoadFile(getGridFSFile(id));
+    }
+
+    @Override
+    public GridFsResource getFileResource(ObjectId id, String fileName, String contentType) {
+        log.debug("Get resource of file with objectId : {} as file with name : {}, contentType : {}",
+                id, fileName, contentType);
+        GridFSFile gridFSFile = getGridFSFile(id);
+        Document metadata = new Document();
+        if (gridFSFile.getMetadata() != null)
+            metadata.putAll(gridFSFile.getMetadata());
+        if (contentType != null)
+            metadata.put(CONTENT_TYPE, contentType);
+        return gridFsOperations.getResource(new GridFSFile(gridFSFile.getId(),
+                fileName != null ? fileName : gridFSFile.getFilename(), gridFSFile.getLength(),
+                gridFSFile.getChunkSize(), gridFSFile.getUploadDate(), metadata));
     }
 
     @Override
     @Transactional
     public void deleteFile(ObjectId objectId) {
         log.debug("Delete file with object id : {}", objectId);
-        gridFsTemplate.delete(new Query(Criteria.where("_id").is(objectId)));
+        Document file = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(objectId)),
+                new Update().inc(REFERENCES_FIELD, -1),
+                FindAndModifyOptions.options().returnNew(true),
+                Document.class, FILES_COLLECTION);
+        if (file == null)
+            return;
+        long references = file.getEmbedded(List.of("metadata", "references"), Number.class).longValue();
+        if (references > 0) {
+            log.debug("File with object id : {} is still referenced {} times", objectId, references);
+            return;
+        }
+        gridFsTemplate.delete(new Query(Criteria.where("_id").is(objectId)
+                .and(REFERENCES_FIELD).lte(0)));
+    }
+
+    @Override
+    @Transactional
+    public FileUploadDtoResponse createUpload(Long postId, String fileName, String contentType, long length) {
+        log.debug("Create upload of file with file name : {} , contentType: {}, size : {} for post with id : {}",
+                fileName, contentType, length, postId);
+        if (length < 0 || length > fileUploadProps.getMaxFileSize().toBytes())
+            throw new NotValidFileUploadException("Size of file " + length + " is out of range from 0 to " +
+                    fileUploadProps.getMaxFileSize().toBytes() + " bytes");
+        LocalDateTime currentDate = LocalDateTime.now();
+        FileUpload fileUpload = FileUpload.builder()
+                .id(new ObjectId())
+                .postId(postId)
+                .fileName(fileName)
+                .contentType(contentType)
+                .length(length)
+                .chunkSize((int) fileUploadProps.getChunkSize().toBytes())
+                .chunksPerPart(fileUploadProps.getChunksPerPart())
+                .created(currentDate)
+                .expires(currentDate.plus(fileUploadProps.getExpiration()))
+                .build();
+        return mapToFileUploadDtoResponse(mongoTemplate.insert(fileUpload));
+    }
+
+    @Override
+    public FileUploadDtoResponse getUpload(ObjectId uploadId, Long postId) {
+        log.debug("Get upload with id : {} of post with id : {}", uploadId, postId);
+        return mapToFileUploadDtoResponse(getFileUpload(uploadId, postId));
+    }
+
+    @Override
+    @Transactional
+    public FileUploadDtoResponse uploadPart(ObjectId uploadId, Long postId, int partNumber, InputStream content,
+                                            String digest) {
+        log.debug("Upload part : {} of upload with id : {} of post with id : {}", partNumber, uploadId, postId);
+        FileUpload fileUpload = getFileUpload(uploadId, postId);
+        if (partNumber < 0 || partNumber >= fileUpload.getPartCount())
+            throw new NotValidFileUploadException("Part number " + partNumber + " is out of range from 0 to " +
+                    (fileUpload.getPartCount() - 1));
+        byte[] checksum = getChecksum(digest);
+        FileUploadPart part = FileUploadPart.builder()
+                .length(writePart(fileUpload, partNumber, content, checksum))
+                .checksum(Base64.getEncoder().encodeToString(checksum))
+                .build();
+        FileUpload updatedFileUpload = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(uploadId)),
+                new Update().set("parts." + partNumber, part)
+                        .set("expires", LocalDateTime.now().plus(fileUploadProps.getExpiration())),
+                FindAndModifyOptions.options().returnNew(true),
+                FileUpload.class);
+        if (updatedFileUpload == null) {
+            deleteChunks(uploadId, getFirstChunk(fileUpload, partNumber), getFirstChunk(fileUpload, partNumber + 1));
+            throw new ResourceNotFoundException(FileUpload.class, "id", uploadId);
+        }
+        return mapToFileUploadDtoResponse(updatedFileUpload);
+    }
+
+    @Override
+    @Transactional
+    public LoadFile commitUpload(ObjectId uploadId, Long postId) {
+        log.debug("Commit upload with id : {} of post with id : {}", uploadId, postId);
+        FileUpload fileUpload = getFileUpload(uploadId, postId);
+        checkAllPartsUploaded(fileUpload);
+        long length = fileUpload.getLength();
+        long chunks = mongoTemplate.getCollection(CHUNKS_COLLECTION).countDocuments(new Document("files_id", uploadId));
+        if (chunks != (length + fileUpload.getChunkSize() - 1) / fileUpload.getChunkSize())
+            throw new NotValidFileUploadException("Upload with id " + uploadId + " has " + chunks +
+                    " chunks stored for " + length + " bytes");
+        String checksum = getPartsChecksum(fileUpload);
+        ObjectId storedFile = addReference(checksum, fileUpload.getPartSize());
+        if (storedFile != null) {
+            log.debug("File with checksum : {} is already stored with objectId : {}", checksum, storedFile);
+            deleteUpload(uploadId);
+            return mapToLoadFile(storedFile, fileUpload);
+        }
+        mongoTemplate.getCollection(FILES_COLLECTION).insertOne(new Document("_id", uploadId)
+                .append("length", length)
+                .append("chunkSize", fileUpload.getChunkSize())
+                .append("uploadDate", new Date())
+                .append("filename", fileUpload.getFileName())
+                .append("metadata", new Document(CONTENT_TYPE, fileUpload.getContentType())
+                        .append("filesize", length)
+                        .append(PARTS_CHECKSUM, checksum)
+                        .append(PART_SIZE, fileUpload.getPartSize())
+                        .append("references", 1)));
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(uploadId)), FileUpload.class);
+        return mapToLoadFile(uploadId, fileUpload);
+    }
+
+    @Override
+    @Transactional
+    public void abortUpload(ObjectId uploadId, Long postId) {
+        log.debug("Abort upload with id : {} of post with id : {}", uploadId, postId);
+        getFileUpload(uploadId, postId);
+        deleteUpload(uploadId);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "#{@fileUploadProps.cleanupInterval.toMillis()}")
+    public void deleteExpiredUploads() {
+        Query query = new Query(Criteria.where("expires").lt(LocalDateTime.now()));
+        query.fields().include("_id");
+        List<FileUpload> expiredUploads = mongoTemplate.find(query, FileUpload.class);
+        expiredUploads.forEach(fileUpload -> deleteUpload(fileUpload.getId()));
+        if (!expiredUploads.isEmpty())
+            log.info("Deleted {} expired uploads", expiredUploads.size());
+    }
+
+    @SneakyThrows
+    private long writePart(FileUpload fileUpload, int partNumber, InputStream content, byte[] checksum) {
+        int firstChunk = getFirstChunk(fileUpload, partNumber);
+        int lastChunk = getFirstChunk(fileUpload, partNumber + 1);
+        deleteChunks(fileUpload.getId(), firstChunk, lastChunk);
+        MongoCollection<Document> chunks = mongoTemplate.getCollection(CHUNKS_COLLECTION);
+        MessageDigest messageDigest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        long partLength = Math.min(fileUpload.getPartSize(), fileUpload.getLength() - partNumber * fileUpload.getPartSize());
+        byte[] buffer = new byte[fileUpload.getChunkSize()];
+        long length = 0;
+        try {
+            int chunk = firstChunk;
+            int read;
+            while ((read = IOUtils.read(content, buffer)) > 0) {
+                if (length + read > partLength)
+                    throw new NotValidFileUploadException("Part " + partNumber + " is larger than " +
+                            partLength + " bytes");
+                messageDigest.update(buffer, 0, read);
+                chunks.insertOne(new Document("files_id", fileUpload.getId())
+                        .append("n", chunk++)
+                        .append("data", new Binary(Arrays.copyOf(buffer, read))));
+                length += read;
+            }
+            if (length != partLength)
+                throw new NotValidFileUploadException("Part " + partNumber + " has " + length + " bytes instead of " +
+                        partLength);
+            if (!MessageDigest.isEqual(messageDigest.digest(), checksum))
+                throw new NotValidFileUploadException("Checksum of part " + partNumber + " doesn't match its content");
+        } catch (Exception e) {
+            deleteChunks(fileUpload.getId(), firstChunk, lastChunk);
+            throw e;
+        }
+        return length;
+    }
+
+    private void checkAllPartsUploaded(FileUpload fileUpload) {
+        for (int partNumber = 0; partNumber < fileUpload.getPartCount(); partNumber++)
+            if (!fileUpload.getParts().containsKey(partNumber))
+                throw new NotValidFileUploadException("Part " + partNumber + " of upload with id " +
+                        fileUpload.getId() + " is missing");
+    }
+
+    private byte[] getChecksum(String digest) {
+        return Optional.ofNullable(digest)
+                .stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(value -> value.regionMatches(true, 0, DIGEST_PREFIX, 0, DIGEST_PREFIX.length()))
+                .findFirst()
+                .map(value -> {
+                    try {
+                        return Base64.getDecoder().decode(value.substring(DIGEST_PREFIX.length()));
+                    } catch (IllegalArgumentException e) {
+                        throw new NotValidFileUploadException("Digest " + digest + " isn't valid base64");
+                    }
+                })
+                .orElseThrow(() -> new NotValidFileUploadException("Digest with " + CHECKSUM_ALGORITHM +
+                        " checksum of part is required"));
+    }
+
+    @SneakyThrows
+    private String getPartsChecksum(FileUpload fileUpload) {
+        MessageDigest messageDigest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        for (int partNumber = 0; partNumber < fileUpload.getPartCount(); partNumber++)
+            messageDigest.update(Base64.getDecoder().decode(fileUpload.getParts().get(partNumber).getChecksum()));
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+    private ObjectId addReference(String checksum, long partSize) {
+        Query query = new Query(Criteria.where(PARTS_CHECKSUM_FIELD).is(checksum)
+                .and(PART_SIZE_FIELD).is(partSize)
+                .and(REFERENCES_FIELD).gt(0));
+        query.fields().include("_id");
+        Document file = mongoTemplate.findAndModify(query, new Update().inc(REFERENCES_FIELD, 1),
+                Document.class, FILES_COLLECTION);
+        return file == null ? null : file.getObjectId("_id");
+    }
+
+    private int getFirstChunk(FileUpload fileUpload, int partNumber) {
+        return partNumber * fileUpload.getChunksPerPart();
+    }
+
+    private void deleteChunks(ObjectId uploadId, int firstChunk, int lastChunk) {
+        mongoTemplate.getCollection(CHUNKS_COLLECTION).deleteMany(new Document("files_id", uploadId)
+                .append("n", new Document("$gte", firstChunk).append("$lt", lastChunk)));
+    }
+
+    private void deleteUpload(ObjectId uploadId) {
+        mongoTemplate.getCollection(CHUNKS_COLLECTION).deleteMany(new Document("files_id", uploadId));
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(uploadId)), FileUpload.class);
+    }
+
+    private FileUpload getFileUpload(ObjectId uploadId, Long postId) {
+        FileUpload fileUpload = mongoTemplate.findOne(new Query(Criteria.where("_id").is(uploadId)
+                .and("postId").is(postId)
+                .and("expires").gt(LocalDateTime.now())), FileUpload.class);
+        if (fileUpload == null) {
+            log.error("Upload wasn't found by id : {} and postId : {}", uploadId, postId);
+            throw new ResourceNotFoundException(FileUpload.class, "id", uploadId);
+        }
+        return fileUpload;
+    }
+
+    private FileUploadDtoResponse mapToFileUploadDtoResponse(FileUpload fileUpload) {
+        return FileUploadDtoResponse.builder()
+                .id(fileUpload.getId().toHexString())
+                .fileName(fileUpload.getFileName())
+                .contentType(fileUpload.getContentType())
+                .length(fileUpload.getLength())
+                .partSize(fileUpload.getPartSize())
+                .parts(fileUpload.getParts().keySet().stream()
+                        .sorted()
+                        .toList())
+                .expires(fileUpload.getExpires())
+                .build();
+    }
+
+    private GridFSFile getGridFSFile(ObjectId id) {
+        GridFSFile gridFSFile = gridFsTemplate.findOne(new Query(Criteria.where("_id").is(id)));
+        if (gridFSFile == null) {
+            log.error("File wasn't found by objectId : {}", id);
+            throw new ResourceNotFoundException(LoadFile.class, "id", id);
+        }
+        return gridFSFile;
+    }
+
+    private LoadFile mapToLoadFile(GridFSFile gridFSFile) {
+        return LoadFile.builder()
+                .id(gridFSFile.getObjectId().toHexString())
+                .fileName(gridFSFile.getFilename())
+                .fileSize(String.valueOf(gridFSFile.getLength()))
+                .fileType(gridFSFile.getMetadata().get(CONTENT_TYPE).toString())
+                .build();
+    }
+
+    private LoadFile mapToLoadFile(ObjectId id, FileUpload fileUpload) {
+        return LoadFile.builder()
+                .id(id.toHexString())
+                .fileName(fileUpload.getFileName())
+                .fileSize(String.valueOf(fileUpload.getLength()))
+                .fileType(fileUpload.getContentType())
+                .build();
+    }
+
+    /**
+     * Digests the content read through it part by part, the checksum is the checksum of the checksums of its parts.
+     */
+    private static class PartsDigestInputStream extends FilterInputStream {
+        private final MessageDigest messageDigest;
+        private final MessageDigest partDigest;
+        private final long partSize;
+        private long partLength;
+
+        @SneakyThrows
+        private PartsDigestInputStream(InputStream content, long partSize) {
+            super(content);
+            this.messageDigest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+            this.partDigest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+            this.partSize = partSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = in.read();
+            if (read >= 0)
+                update(new byte[]{(byte) read}, 0, 1);
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0)
+                update(buffer, offset, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long length) throws IOException {
+            return IOUtils.skip(this, length);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private String getChecksum() {
+            if (partLength > 0) {
+                messageDigest.update(partDigest.digest());
+                partLength = 0;
+            }
+            return HexFormat.of().formatHex(messageDigest.digest());
+        }
+
+        private void update(byte[] buffer, int offset, int length) {
+            while (length > 0) {
+                int partRead = (int) Math.min(length, partSize - partLength);
+                partDigest.update(buffer, offset, partRead);
+                partLength += partRead;
+                offset += partRead;
+                length -= partRead;
+                if (partLength == partSize) {
+                    messageDigest.update(partDigest.digest());
+                    partLength = 0;
+                }
+            }
+        }
     }
 }
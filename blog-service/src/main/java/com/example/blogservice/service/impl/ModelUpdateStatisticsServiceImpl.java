@@ -1,41 +1,155 @@
 package com.example.blogservice.service.impl;
 
 import com.example.blogservice.model.ModelUpdateStatistics;
-import com.example.blogservice.repository.ModelUpdateStatisticsRepository;
+import com.example.blogservice.props.ModelUpdateStatisticsProps;
 import com.example.blogservice.service.ModelUpdateStatisticsService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import static com.example.blogservice.event.listener.StatisticModelListener.MODEL_STATISTIC_ID_PATTERN;
+
+/**
+ * Updates are coalesced in memory by statistics id and written behind with a single unordered bulk write
+ * of $inc upserts, either on schedule, when the buffer reaches its maximum size or on shutdown.
+ * A full buffer is flushed on threadPoolTaskExecutor, so the caller never waits for the bulk write.
+ * When the bulk write fails, only the upserts that were not applied are returned to the buffer.
+ * Buffered updates of deleted models are dropped together with their statistics.
+ * Statistics of created models are inserted by a $setOnInsert upsert, so a flush that lands first keeps its count.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ModelUpdateStatisticsServiceImpl implements ModelUpdateStatisticsService {
 
-    private final ModelUpdateStatisticsRepository modelUpdateStatisticsRepository;
     private final MongoOperations mongoOperations;
-
+    private final ModelUpdateStatisticsProps modelUpdateStatisticsProps;
+    @Qualifier("threadPoolTaskExecutor")
+    private final Executor flushExecutor;
+    private final Map<String, ModelUpdateStatistics> updateBuffer = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void update(ModelUpdateStatistics modelUpdateStatistics) {
-        log.debug("Get modeUpdateStatistics : {}", modelUpdateStatistics);
-        mongoOperations.findAndModify(new Query(Criteria.where("id").is(modelUpdateStatistics.getId())),
-                new Update().inc("updateCount", 1), options().returnNew(false), ModelUpdateStatistics.class);
+        log.debug("Buffer update of modeUpdateStatistics : {}", modelUpdateStatistics);
+        addToBuffer(modelUpdateStatistics.getId(), modelUpdateStatistics.getModelId(),
+                modelUpdateStatistics.getModelName(), 1);
+        if (updateBuffer.size() >= modelUpdateStatisticsProps.getMaxBufferSize())
+            requestFlush();
     }
 
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void save(ModelUpdateStatistics modelUpdateStatistics) {
         log.info("Make save modelUpdateStatistics = {}", modelUpdateStatistics);
-        modelUpdateStatisticsRepository.save(modelUpdateStatistics);
+        mongoOperations.upsert(new Query(Criteria.where("id").is(modelUpdateStatistics.getId())),
+                new Update().setOnInsert("modelId", modelUpdateStatistics.getModelId())
+                        .setOnInsert("modelName", modelUpdateStatistics.getModelName())
+                        .setOnInsert("updateCount", 0L),
+                ModelUpdateStatistics.class);
+    }
+
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "#{@modelUpdateStatisticsProps.flushInterval.toMillis()}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<ModelUpdateStatistics> updates = drainBuffer();
+            if (updates.isEmpty())
+                return;
+            log.debug("Flush {} buffered modelUpdateStatistics", updates.size());
+            BulkOperations bulkOperations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                    ModelUpdateStatistics.class);
+            updates.forEach(update -> bulkOperations.upsert(new Query(Criteria.where("id").is(update.getId())),
+                    new Update().inc("updateCount", update.getUpdateCount())
+                            .setOnInsert("modelId", update.getModelId())
+                            .setOnInsert("modelName", update.getModelName())));
+            try {
+                bulkOperations.execute();
+            } catch (BulkOperationException e) {
+                log.error("Failed to flush {} of {} modelUpdateStatistics, failed updates are returned to buffer",
+                        e.getErrors().size(), updates.size(), e);
+                e.getErrors().forEach(error -> returnToBuffer(updates.get(error.getIndex())));
+            } catch (RuntimeException e) {
+                log.error("Failed to flush modelUpdateStatistics, updates are returned to buffer", e);
+                updates.forEach(this::returnToBuffer);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public long deleteAllByModelIds(String modelName, Collection<Long> modelIds) {
+        log.debug("Delete modelUpdateStatistics of {} models : {}", modelName, modelIds);
+        List<String> ids = modelIds.stream()
+                .map(modelId -> String.format(MODEL_STATISTIC_ID_PATTERN, modelId, modelName))
+                .toList();
+        ids.forEach(updateBuffer::remove);
+        return mongoOperations.remove(new Query(Criteria.where("id").in(ids)), ModelUpdateStatistics.class)
+                .getDeletedCount();
+    }
+
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true))
+            return;
+        try {
+            flushExecutor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushRequested.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            flushRequested.set(false);
+            log.warn("Flush of full modelUpdateStatistics buffer was rejected, it is left to the scheduled flush", e);
+        }
+    }
+
+    private List<ModelUpdateStatistics> drainBuffer() {
+        List<ModelUpdateStatistics> updates = new ArrayList<>(updateBuffer.size());
+        for (String id : updateBuffer.keySet()) {
+            ModelUpdateStatistics update = updateBuffer.remove(id);
+            if (update != null)
+                updates.add(update);
+        }
+        return updates;
+    }
+
+    private void returnToBuffer(ModelUpdateStatistics update) {
+        addToBuffer(update.getId(), update.getModelId(), update.getModelName(), update.getUpdateCount());
+    }
+
+    private void addToBuffer(String id, Long modelId, String modelName, long updateCount) {
+        updateBuffer.merge(id, new ModelUpdateStatistics(id, modelName, modelId, updateCount),
+                (buffered, added) -> {
+                    buffered.setUpdateCount(buffered.getUpdateCount() + added.getUpdateCount());
+                    return buffered;
+                });
     }
 }
@@ -1,5 +1,8 @@
 package com.example.blogservice.service.impl;
 
+import com.example.blogservice.cache.CacheRefreshRegistry;
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.dto.FileUploadDtoResponse;
 import com.example.blogservice.dto.LoadFile;
 import com.example.blogservice.dto.PostDtoRequest;
 import com.example.blogservice.dto.PostDtoResponse;
@@ -11,17 +14,24 @@ import com.example.blogservice.event.ModelUpdatedEvent;
 import com.example.blogservice.exception.NotUniqueResourceException;
 import com.example.blogservice.exception.NotValidCredentialsException;
 import com.example.blogservice.exception.ResourceNotFoundException;
+import com.example.blogservice.mapper.CommentMapper;
 import com.example.blogservice.mapper.PostMapper;
 import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
 import com.example.blogservice.model.Post;
 import com.example.blogservice.model.User;
+import com.example.blogservice.props.CommentSummaryProps;
+import com.example.blogservice.repository.CommentRepository;
 import com.example.blogservice.repository.PostRepository;
 import com.example.blogservice.security.user.AuthenticatedUser;
 import com.example.blogservice.service.FileService;
 import com.example.blogservice.service.PostService;
 import com.example.blogservice.service.UserService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -30,31 +40,50 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static com.example.blogservice.utils.ConstantUtil.CacheName.POST;
 import static com.example.blogservice.utils.ConstantUtil.Exception.NO_ENOUGH_PERMISSIONS;
+import static com.example.blogservice.utils.ConstantUtil.Metric.SERVICE_INVOCATIONS;
 
 @Service
+@Timed(SERVICE_INVOCATIONS)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Slf4j
 public class PostServiceImpl implements PostService {
 
+    public static final String FILE_DOWNLOAD_URL_PATTERN = "/posts/%s/file";
+
     private final PostRepository postRepository;
     private final PostMapper postMapper;
     private final UserService userService;
     private final SequenceGeneratorService sequenceGeneratorService;
     private final FileService fileService;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final CacheRefreshRegistry cacheRefreshRegistry;
+    private final CommentRepository commentRepository;
+    private final CommentMapper commentMapper;
+    private final CommentSummaryProps commentSummaryProps;
+
+    @PostConstruct
+    public void registerCacheRefreshLoader() {
+        cacheRefreshRegistry.register(POST, id -> postRepository.findById((Long) id)
+                .map(this::getPostDtoResponse)
+                .orElse(null));
+    }
 
     @Override
-    @Cacheable(value = "post", key = "#id")
+    @Cacheable(value = POST, key = "#id")
     public PostDtoResponse getById(Long id) {
         log.debug("Get post by id : {}", id);
         return postRepository.findById(id)
@@ -65,16 +94,46 @@ public class PostServiceImpl implements PostService {
                 });
     }
 
+    @Override
+    public PostDtoResponse getByIdWithFileContent(Long id) {
+        log.debug("Get post with content of file by id : {}", id);
+        return postRepository.findById(id)
+                .map(this::getPostDtoResponseWithFileContent)
+                .orElseThrow(() -> {
+                    log.error("Post wasn't found by id : {}", id);
+                    return new ResourceNotFoundException(Post.class, "id", id);
+                });
+    }
+
 
     @Override
     public Page<PostDtoResponse> findAll(Pageable pageable) {
         log.debug("Find all posts");
-        return postRepository.findAll(pageable != null ?
-                        pageable :
-                        PageRequest.of(1, 3, Sort.by("id")))
+        return findAllPosts(pageable)
                 .map((this::getPostDtoResponse));
     }
 
+    @Override
+    public Page<PostDtoResponse> findAllWithFileContent(Pageable pageable) {
+        log.debug("Find all posts with content of files");
+        return findAllPosts(pageable)
+                .map((this::getPostDtoResponseWithFileContent));
+    }
+
+    @Override
+    public CursorSlice<PostDtoResponse> findAllAfter(String after, int size, Sort sort) {
+        log.debug("Find {} posts after cursor : {}", size, after);
+        return postRepository.findAllAfterWithReferences(after, size, sort)
+                .map(this::getPostDtoResponse);
+    }
+
+    @Override
+    public CursorSlice<PostDtoResponse> findAllAfterWithFileContent(String after, int size, Sort sort) {
+        log.debug("Find {} posts with content of files after cursor : {}", size, after);
+        return postRepository.findAllAfterWithReferences(after, size, sort)
+                .map(this::getPostDtoResponseWithFileContent);
+    }
+
     @Override
     @Transactional
     public PostDtoResponse save(PostDtoRequest postDtoRequest, AuthenticatedUser authenticatedUser) {
@@ -91,27 +150,31 @@ public class PostServiceImpl implements PostService {
 
     @Override
     @Transactional
-    @CachePut(value = "post", key = "#postId")
+    @CachePut(value = POST, key = "#postId")
     public PostDtoResponse update(Long postId, PostDtoRequest postDtoRequest, AuthenticatedUser authenticatedUser) {
         log.debug("Check existing post by id : {} and update it by : {}", postId, postDtoRequest);
         UserDtoResponse userDtoResponse = userService.getById(postDtoRequest.getUserId());
         checkValidCredentials(userDtoResponse, authenticatedUser);
-        return postRepository.findById(postId)
-                .map(post -> getPostFromRequest(postId, postDtoRequest, userDtoResponse, post.getComments()))
-                .map(postRepository::save)
-                .map(post -> {
-                    publishUpdate(postId);
-                    return getPostDtoResponse(post);
-                })
+        Post currentPost = postRepository.findById(postId)
                 .orElseThrow(() -> {
                     log.error("Post wasn't find by id : {}", postId);
                     return new ResourceNotFoundException(Post.class, "id", postId);
                 });
+        Post post = getPostFromRequest(postId, postDtoRequest, userDtoResponse);
+        Post updatedPost = postRepository.updatePost(post)
+                .orElseThrow(() -> {
+                    log.error("Post wasn't find by id : {}", postId);
+                    return new ResourceNotFoundException(Post.class, "id", postId);
+                });
+        if (post.getFile() != null && currentPost.getFile() != null)
+            fileService.deleteFile(currentPost.getFile());
+        publishUpdate(postId);
+        return getPostDtoResponse(updatedPost);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "post", key = "#postId")
+    @CacheEvict(value = POST, key = "#postId")
     public void deleteById(Long postId, AuthenticatedUser authenticatedUser) {
         log.debug("Check existing post by id : {} and delete it", postId);
         Optional<Post> optionalPost = postRepository.findById(postId);
@@ -130,12 +193,17 @@ public class PostServiceImpl implements PostService {
     @Override
     public List<PostDtoResponse> findAllByUserId(Long userId) {
         log.debug("Find all posts by user id : {}", userId);
-        if (userService.existsById(userId)) {
-            return postRepository.findAllByUserId(userId).stream()
-                    .map(this::getPostDtoResponse)
-                    .collect(Collectors.toList());
-        }
-        throw new ResourceNotFoundException(User.class, "userId", userId);
+        return findAllPostsByUserId(userId).stream()
+                .map(this::getPostDtoResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<PostDtoResponse> findAllByUserIdWithFileContent(Long userId) {
+        log.debug("Find all posts with content of files by user id : {}", userId);
+        return findAllPostsByUserId(userId).stream()
+                .map(this::getPostDtoResponseWithFileContent)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -146,26 +214,25 @@ public class PostServiceImpl implements PostService {
 
     @Override
     @Transactional
-    @CacheEvict(value = "posts", key = "#postId")
     public void addCommentToPost(Long postId, Comment comment) {
         log.debug("Add comment : {} to post with id : {}", comment, postId);
-        postRepository.findById(postId)
-                .map(post -> {
-                    if (post.getComments() == null) {
-                        post.setComments(List.of(comment));
-                    } else {
-                        post.getComments().add(comment);
-                    }
-                    publishUpdate(postId);
-                    return postRepository.save(post);
-                })
-                .orElseThrow(() -> new ResourceNotFoundException(Post.class, "id", postId));
+        if (!postRepository.addCommentSummary(postId, commentMapper.mapToCommentSummary(comment),
+                commentSummaryProps.getSize()))
+            throw new ResourceNotFoundException(Post.class, "id", postId);
+        publishUpdate(postId);
+    }
+
+    @Override
+    @Transactional
+    public void updateCommentInPost(Long postId, Comment comment) {
+        log.debug("Update comment : {} in post with id : {}", comment, postId);
+        postRepository.updateCommentSummary(postId, commentMapper.mapToCommentSummary(comment));
     }
 
     @Override
     public boolean existsByPostIdAndComment(Long postId, Comment comment) {
         log.debug("Check existing post with id : {} and with comment : {}", postId, comment);
-        return postRepository.existsByIdAndCommentsContaining(postId, comment);
+        return postId.equals(comment.getPostId()) && postRepository.existsById(postId);
     }
 
     @Override
@@ -178,9 +245,10 @@ public class PostServiceImpl implements PostService {
                     checkValidCredentials(post.getUser(), authenticatedUser);
                     if (post.getFile() != null)
                         throw new NotUniqueResourceException(LoadFile.class, "post", postId);
-                    post.setFile(fileService.uploadFile(file));
+                    setFile(post, file);
+                    Post savedPost = postRepository.save(post);
                     publishUpdate(postId);
-                    return postRepository.save(post);
+                    return savedPost;
                 })
                 .map(this::getPostDtoResponse)
                 .orElseThrow(() -> new ResourceNotFoundException(Post.class, "id", postId));
@@ -196,10 +264,12 @@ public class PostServiceImpl implements PostService {
                     checkValidCredentials(post.getUser(), authenticatedUser);
                     if (post.getFile() == null)
                         throw new RuntimeException("File doesn't exist");
-                    fileService.deleteFile(post.getFile());
-                    post.setFile(fileService.uploadFile(file));
+                    ObjectId oldFile = post.getFile();
+                    setFile(post, file);
+                    fileService.deleteFile(oldFile);
+                    Post savedPost = postRepository.save(post);
                     publishUpdate(postId);
-                    return postRepository.save(post);
+                    return savedPost;
                 })
                 .map(this::getPostDtoResponse)
                 .orElseThrow(() -> new ResourceNotFoundException(Post.class, "id", postId));
@@ -215,60 +285,159 @@ public class PostServiceImpl implements PostService {
                         throw new ResourceNotFoundException(LoadFile.class, "postId", postId);
                     fileService.deleteFile(post.getFile());
                     post.setFile(null);
+                    post.setFileName(null);
+                    post.setFileType(null);
+                    Post savedPost = postRepository.save(post);
                     publishUpdate(postId);
-                    return postRepository.save(post);
+                    return savedPost;
                 })
                 .orElseThrow(() -> new ResourceNotFoundException(Post.class, "id", postId));
     }
 
 
     @Override
-    public LoadFile getFileFromPost(Long postId) {
+    public GridFsResource getFileFromPost(Long postId) {
         log.debug("Get file from post with id : {}", postId);
-        return postRepository.findById(postId)
-                .map(post -> {
-                    if (post.getFile() == null)
-                        throw new ResourceNotFoundException(LoadFile.class, "post", post);
-                    return post.getFile();
-                })
-                .map(fileService::downloadFile)
+        Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException(Post.class, "id", postId));
+        if (post.getFile() == null)
+            throw new ResourceNotFoundException(LoadFile.class, "postId", postId);
+        return fileService.getFileResource(post.getFile(), post.getFileName(), post.getFileType());
     }
 
     @Override
     @Transactional
-    public void deleteAllByUser(User user) {
-        log.debug("Delete all posts by user Id : {}", user);
-        postRepository.findAllByUserId(user.getId()).stream()
-                .peek(post -> applicationEventPublisher.publishEvent(ModelDeletedEvent.builder()
-                        .model(post)
-                        .modelType(ModelType.POST)
-                        .build()))
-                .forEach(postRepository::delete);
+    public FileUploadDtoResponse createFileUpload(Long postId, String fileName, String contentType, long length,
+                                                  AuthenticatedUser authenticatedUser) {
+        getPostOfUser(postId, authenticatedUser);
+        log.debug("Create upload of file with name : {}, contentType : {}, size : {} to post with id : {} by user : {}",
+                fileName, contentType, length, postId, authenticatedUser.getUsername());
+        return fileService.createUpload(postId, fileName, contentType, length);
+    }
+
+    @Override
+    public FileUploadDtoResponse getFileUpload(Long postId, ObjectId uploadId, AuthenticatedUser authenticatedUser) {
+        getPostOfUser(postId, authenticatedUser);
+        log.debug("Get upload with id : {} of file to post with id : {} by user : {}",
+                uploadId, postId, authenticatedUser.getUsername());
+        return fileService.getUpload(uploadId, postId);
+    }
+
+    @Override
+    @Transactional
+    public FileUploadDtoResponse uploadFilePart(Long postId, ObjectId uploadId, int partNumber, InputStream content,
+                                                String digest, AuthenticatedUser authenticatedUser) {
+        getPostOfUser(postId, authenticatedUser);
+        log.debug("Upload part : {} of upload with id : {} of file to post with id : {} by user : {}",
+                partNumber, uploadId, postId, authenticatedUser.getUsername());
+        return fileService.uploadPart(uploadId, postId, partNumber, content, digest);
+    }
+
+    @Override
+    @Transactional
+    public PostDtoResponse commitFileUpload(Long postId, ObjectId uploadId, AuthenticatedUser authenticatedUser) {
+        getPostOfUser(postId, authenticatedUser);
+        log.debug("Commit upload with id : {} of file to post with id : {} by user : {}",
+                uploadId, postId, authenticatedUser.getUsername());
+        LoadFile fileDescriptor = fileService.commitUpload(uploadId, postId);
+        ObjectId file = new ObjectId(fileDescriptor.getId());
+        Post post = postRepository.replaceFile(postId, file, fileDescriptor.getFileName(), fileDescriptor.getFileType())
+                .orElseThrow(() -> {
+                    fileService.deleteFile(file);
+                    return new ResourceNotFoundException(Post.class, "id", postId);
+                });
+        if (post.getFile() != null)
+            fileService.deleteFile(post.getFile());
+        post.setFile(file);
+        post.setFileName(fileDescriptor.getFileName());
+        post.setFileType(fileDescriptor.getFileType());
+        publishUpdate(postId);
+        return getPostDtoResponse(post);
+    }
+
+    @Override
+    @Transactional
+    public void abortFileUpload(Long postId, ObjectId uploadId, AuthenticatedUser authenticatedUser) {
+        getPostOfUser(postId, authenticatedUser);
+        log.debug("Abort upload with id : {} of file to post with id : {} by user : {}",
+                uploadId, postId, authenticatedUser.getUsername());
+        fileService.abortUpload(uploadId, postId);
     }
 
     @Override
     @Transactional
     public void deleteCommentFromPostByComment(Comment comment) {
         log.debug("Delete comment from post with comment id : {}", comment);
-        Optional<Post> optionalPost = postRepository.findPostByCommentsIsContaining(comment);
-        if (optionalPost.isPresent()) {
-            Post post = optionalPost.get();
-            List<Comment> collect = post.getComments().stream()
-                    .filter(comment1 -> !comment1.equals(comment))
-                    .collect(Collectors.toList());
-            post.setComments(collect);
-            postRepository.save(post);
+        Long postId = comment.getPostId();
+        if (postId != null) {
+            postRepository.removeCommentSummary(postId, comment.getId())
+                    .filter(post -> isLatestCommentReplaceable(post, comment.getId()))
+                    .ifPresent(post -> appendNextLatestComment(post, comment.getId()));
+            publishUpdate(postId);
         }
     }
 
+    private boolean isLatestCommentReplaceable(Post post, Long commentId) {
+        List<CommentSummary> latestComments = post.getLatestComments();
+        return latestComments != null &&
+                latestComments.stream().anyMatch(commentSummary -> commentId.equals(commentSummary.getId())) &&
+                post.getCommentCount() > latestComments.size();
+    }
+
+    private void appendNextLatestComment(Post post, Long commentId) {
+        Set<Long> excludedIds = post.getLatestComments().stream()
+                .map(CommentSummary::getId)
+                .collect(Collectors.toSet());
+        excludedIds.add(commentId);
+        commentRepository.findAllByPostIdAndIdNotIn(post.getId(), excludedIds,
+                        PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"))).stream()
+                .findFirst()
+                .map(commentMapper::mapToCommentSummary)
+                .ifPresent(commentSummary -> postRepository.appendCommentSummary(post.getId(), commentSummary,
+                        commentSummaryProps.getSize()));
+    }
+
+    private Page<Post> findAllPosts(Pageable pageable) {
+        return postRepository.findAllWithReferences(pageable != null ?
+                pageable :
+                PageRequest.of(1, 3, Sort.by("id")));
+    }
+
+    private List<Post> findAllPostsByUserId(Long userId) {
+        if (userService.existsById(userId)) {
+            return postRepository.findAllByUserIdWithReferences(userId);
+        }
+        throw new ResourceNotFoundException(User.class, "userId", userId);
+    }
+
     private PostDtoResponse getPostDtoResponse(Post post) {
         PostDtoResponse postDtoResponse = postMapper.mapToPostDtoResponse(post);
-        if (post.getFile() != null)
-            postDtoResponse.setFile(fileService.downloadFile(post.getFile()));
+        if (post.getFile() != null) {
+            LoadFile fileDescriptor = fileService.getFileDescriptor(post.getFile());
+            describeFile(post, fileDescriptor);
+            postDtoResponse.setFile(fileDescriptor);
+        }
+        return postDtoResponse;
+    }
+
+    private PostDtoResponse getPostDtoResponseWithFileContent(Post post) {
+        PostDtoResponse postDtoResponse = postMapper.mapToPostDtoResponse(post);
+        if (post.getFile() != null) {
+            LoadFile loadFile = fileService.downloadFile(post.getFile());
+            describeFile(post, loadFile);
+            postDtoResponse.setFile(loadFile);
+        }
         return postDtoResponse;
     }
 
+    private void describeFile(Post post, LoadFile loadFile) {
+        if (post.getFileName() != null)
+            loadFile.setFileName(post.getFileName());
+        if (post.getFileType() != null)
+            loadFile.setFileType(post.getFileType());
+        loadFile.setDownloadUrl(String.format(FILE_DOWNLOAD_URL_PATTERN, post.getId()));
+    }
+
     private void checkValidCredentials(UserDtoResponse userDtoResponse, AuthenticatedUser authenticatedUser) {
         if (authenticatedUser == null || !userDtoResponse.getUsername().equals(authenticatedUser.getUsername()) ||
                 authenticatedUser.getAuthorities().stream().noneMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"))) {
@@ -276,6 +445,13 @@ public class PostServiceImpl implements PostService {
         }
     }
 
+    private Post getPostOfUser(Long postId, AuthenticatedUser authenticatedUser) {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException(Post.class, "id", postId));
+        checkValidCredentials(post.getUser(), authenticatedUser);
+        return post;
+    }
+
     private void checkValidCredentials(User user, AuthenticatedUser authenticatedUser) {
         if (authenticatedUser == null || !user.getUsername().equals(authenticatedUser.getUsername()) ||
                 authenticatedUser.getAuthorities().stream().noneMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"))) {
@@ -301,17 +477,21 @@ public class PostServiceImpl implements PostService {
         Post post = postMapper.mapToPost(sequenceGeneratorService.generateSequence(Post.SEQUENCE_NAME),
                 postDtoRequest, userDtoResponse);
         if (postDtoRequest.getFile() != null)
-            post.setFile(fileService.uploadFile(postDtoRequest.getFile()));
+            setFile(post, postDtoRequest.getFile());
         return post;
     }
 
-    private Post getPostFromRequest(Long postId, PostDtoRequest postDtoRequest, UserDtoResponse userDtoResponse,
-                                    List<Comment> comments) {
-        Post post = postMapper.mapToPost(postId,
-                postDtoRequest, userDtoResponse, comments);
+    private Post getPostFromRequest(Long postId, PostDtoRequest postDtoRequest, UserDtoResponse userDtoResponse) {
+        Post post = postMapper.mapToPost(postId, postDtoRequest, userDtoResponse);
         if (postDtoRequest.getFile() != null)
-            post.setFile(fileService.uploadFile(postDtoRequest.getFile()));
+            setFile(post, postDtoRequest.getFile());
         return post;
     }
 
+    private void setFile(Post post, MultipartFile file) {
+        post.setFile(fileService.uploadFile(file));
+        post.setFileName(file.getOriginalFilename());
+        post.setFileType(file.getContentType());
+    }
+
 }
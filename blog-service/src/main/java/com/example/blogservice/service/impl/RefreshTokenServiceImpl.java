@@ -3,7 +3,6 @@ package com.example.blogservice.service.impl;
 import com.example.blogservice.dto.UserDto;
 import com.example.blogservice.exception.ResourceNotFoundException;
 import com.example.blogservice.exception.TokenNotActiveException;
-import com.example.blogservice.mapper.UserMapper;
 import com.example.blogservice.model.RefreshToken;
 import com.example.blogservice.repository.RefreshTokenRepository;
 import com.example.blogservice.service.RefreshTokenService;
@@ -23,7 +22,6 @@ import java.util.Base64;
 public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserMapper userMapper;
     private final SequenceGeneratorService sequenceGeneratorService;
 
     @Value("${jwt.secret}")
@@ -48,16 +46,10 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
 
 
     @Override
-    public void deactivateRefreshTokensByUserId(Long userUd) {
+    @Transactional
+    public long deactivateRefreshTokensByUserId(Long userUd) {
         log.debug("Deactivate old refresh token by user userUd : {}", userUd);
-        refreshTokenRepository.findRefreshTokensByUserId(userUd)
-                .stream()
-                .filter(RefreshToken::isActive)
-                .forEach(refreshToken -> {
-                    refreshToken.setActive(false);
-                    refreshToken.setRevoked(LocalDateTime.now());
-                    refreshTokenRepository.save(refreshToken);
-                });
+        return refreshTokenRepository.deactivateRefreshTokensByUserId(userUd, LocalDateTime.now());
     }
 
     @Transactional
@@ -75,7 +67,7 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
         String token = getRefreshToken(user, currentDate);
         RefreshToken refreshToken = RefreshToken.builder()
                 .token(Base64.getEncoder().encodeToString(token.getBytes()))
-                .user(userMapper.mapToUser(user))
+                .userId(user.getId())
                 .expires(currentDate.plusDays(7))
                 .created(currentDate)
                 .isActive(true)
@@ -99,7 +91,7 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
         String newToken = getRefreshToken(user, currentDate);
         RefreshToken refreshToken = RefreshToken.builder()
                 .token(Base64.getEncoder().encodeToString(newToken.getBytes()))
-                .user(userMapper.mapToUser(user))
+                .userId(user.getId())
                 .expires(currentDate.plusDays(7))
                 .created(currentDate)
                 .isActive(true)
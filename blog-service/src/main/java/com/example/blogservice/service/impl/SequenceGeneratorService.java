@@ -1,31 +1,102 @@
 package com.example.blogservice.service.impl;
 
 import com.example.blogservice.model.sequence.DatabaseSequence;
+import com.example.blogservice.props.SequenceProps;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import static com.example.blogservice.utils.ConstantUtil.Metric.SERVICE_INVOCATIONS;
 import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 
+/**
+ * Generates ids from the database_sequence collection.
+ * When block size of a sequence is greater than one, a whole block of ids is reserved with a single $inc
+ * and handed out from memory, so only one of every block-size calls goes to the database.
+ * Ids of a reserved block that are not handed out before shutdown are skipped.
+ * Ids of the current block are handed out without locking. Only the caller that finds the block exhausted
+ * takes the lock of its sequence to reserve the next one, so the database round trip never blocks
+ * callers of other sequences or callers that still find ids in the current block.
+ */
 @Service
+@Timed(SERVICE_INVOCATIONS)
 @RequiredArgsConstructor
 @Slf4j
 public class SequenceGeneratorService {
 
     private final MongoOperations mongoOperations;
+    private final SequenceProps sequenceProps;
+    private final Map<String, SequenceBlock> sequenceBlocks = new ConcurrentHashMap<>();
+    private final Map<String, Lock> allocationLocks = new ConcurrentHashMap<>();
 
-    @Transactional
     public Long generateSequence(String seqName) {
         log.debug("Get sequence counter for sequence :{}", seqName);
+        int blockSize = sequenceProps.getBlockSize(seqName);
+        if (blockSize <= 1)
+            return incrementSequence(seqName, 1);
+        while (true) {
+            SequenceBlock sequenceBlock = sequenceBlocks.get(seqName);
+            long id = sequenceBlock != null ? sequenceBlock.next() : SequenceBlock.EXHAUSTED;
+            if (id != SequenceBlock.EXHAUSTED)
+                return id;
+            replaceExhaustedBlock(seqName, blockSize);
+        }
+    }
+
+    private void replaceExhaustedBlock(String seqName, int blockSize) {
+        Lock allocationLock = allocationLocks.computeIfAbsent(seqName, name -> new ReentrantLock());
+        allocationLock.lock();
+        try {
+            SequenceBlock currentBlock = sequenceBlocks.get(seqName);
+            if (currentBlock == null || !currentBlock.hasNext())
+                sequenceBlocks.put(seqName, allocateBlock(seqName, blockSize));
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    private SequenceBlock allocateBlock(String seqName, int blockSize) {
+        long last = incrementSequence(seqName, blockSize);
+        log.debug("Allocate block of {} ids up to {} for sequence :{}", blockSize, last, seqName);
+        return new SequenceBlock(last - blockSize + 1, last);
+    }
+
+    private long incrementSequence(String seqName, int increment) {
         DatabaseSequence counter = mongoOperations.findAndModify(new Query(where("id").is(seqName)),
-                new Update().inc("seq", 1L), options().returnNew(true).upsert(true), DatabaseSequence.class);
-        return !Objects.isNull(counter) ? counter.getSeq() : 1L;
+                new Update().inc("seq", (long) increment), options().returnNew(true).upsert(true), DatabaseSequence.class);
+        return !Objects.isNull(counter) ? counter.getSeq() : increment;
+    }
+
+    private static class SequenceBlock {
+        private static final long EXHAUSTED = -1L;
+
+        private final AtomicLong next;
+        private final long last;
+
+        private SequenceBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        private boolean hasNext() {
+            return next.get() <= last;
+        }
+
+        private long next() {
+            long id = next.getAndIncrement();
+            return id <= last ? id : EXHAUSTED;
+        }
     }
 }
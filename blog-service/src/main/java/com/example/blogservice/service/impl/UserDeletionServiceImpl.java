@@ -0,0 +1,265 @@
+package com.example.blogservice.service.impl;
+
+import com.example.blogservice.dto.UserDeletionDtoResponse;
+import com.example.blogservice.exception.ResourceNotFoundException;
+import com.example.blogservice.mapper.CommentMapper;
+import com.example.blogservice.model.*;
+import com.example.blogservice.props.CommentSummaryProps;
+import com.example.blogservice.props.UserDeletionProps;
+import com.example.blogservice.repository.CommentRepository;
+import com.example.blogservice.repository.PostRepository;
+import com.example.blogservice.repository.RefreshTokenRepository;
+import com.example.blogservice.repository.UserDeletionRepository;
+import com.example.blogservice.service.FileService;
+import com.example.blogservice.service.ModelUpdateStatisticsService;
+import com.example.blogservice.service.UserDeletionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.blogservice.utils.ConstantUtil.CacheName.COMMENT;
+import static com.example.blogservice.utils.ConstantUtil.CacheName.POST;
+
+/**
+ * A deleted user is replaced by a tombstone at once, while its posts with their comments and files,
+ * its comments on other posts, its statistics and refresh tokens are removed in the background
+ * in batches of ids, each removed with one deleteMany.
+ * Children are removed before their parents, so a removal stopped at any point is resumed
+ * by finding the remaining posts and comments of the user again.
+ * Files are released after their posts, so a stopped removal may leave a file behind but never releases it twice.
+ * Removals run on their own small pool of userDeletionExecutor, so a long removal doesn't hold up other
+ * async tasks, and a user is queued at most once, so resumes don't fill the queue while its removal waits.
+ * A rejected removal stays pending and is resumed later.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserDeletionServiceImpl implements UserDeletionService {
+
+    private final UserDeletionRepository userDeletionRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final FileService fileService;
+    private final ModelUpdateStatisticsService modelUpdateStatisticsService;
+    private final CommentMapper commentMapper;
+    private final CommentSummaryProps commentSummaryProps;
+    private final UserDeletionProps userDeletionProps;
+    private final CacheManager cacheManager;
+    @Qualifier("userDeletionExecutor")
+    private final Executor deletionExecutor;
+    private final Set<Long> queuedDeletions = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void startUserDeletion(User user) {
+        log.debug("Start deletion of user with id : {}", user.getId());
+        LocalDateTime currentDate = LocalDateTime.now();
+        userDeletionRepository.insert(UserDeletion.builder()
+                .userId(user.getId())
+                .username(user.getUsername())
+                .status(UserDeletionStatus.PENDING)
+                .created(currentDate)
+                .updated(currentDate)
+                .leaseExpires(currentDate)
+                .build());
+    }
+
+    @Override
+    public void deleteUserContent(Long userId) {
+        if (!queuedDeletions.add(userId)) {
+            log.debug("Deletion of user with id : {} is already queued", userId);
+            return;
+        }
+        try {
+            deletionExecutor.execute(() -> {
+                try {
+                    runUserDeletion(userId);
+                } finally {
+                    queuedDeletions.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queuedDeletions.remove(userId);
+            log.warn("Deletion of user with id : {} was rejected and will be resumed", userId, e);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "#{@userDeletionProps.resumeInterval.toMillis()}")
+    public void resumeUserDeletions() {
+        userDeletionRepository.findIdsByStatusNotAndLeaseExpiresBefore(UserDeletionStatus.DONE, LocalDateTime.now())
+                .forEach(userDeletion -> {
+                    log.info("Resume deletion of user with id : {}", userDeletion.getUserId());
+                    deleteUserContent(userDeletion.getUserId());
+                });
+    }
+
+    private void runUserDeletion(Long userId) {
+        LocalDateTime currentDate = LocalDateTime.now();
+        if (userDeletionRepository.acquireUserDeletion(userId, currentDate, currentDate.plus(userDeletionProps.getLease()))
+                .isEmpty()) {
+            log.debug("Deletion of user with id : {} is done or is run by another instance", userId);
+            return;
+        }
+        log.info("Delete posts, comments, files and statistics of user with id : {}", userId);
+        try {
+            deletePosts(userId);
+            deleteComments(userId);
+            addProgress(UserDeletion.builder()
+                    .userId(userId)
+                    .deletedStatistics(modelUpdateStatisticsService.deleteAllByModelIds(User.class.getName(),
+                            List.of(userId)))
+                    .deletedRefreshTokens(refreshTokenRepository.deleteRefreshTokensByUserId(userId))
+                    .build());
+            currentDate = LocalDateTime.now();
+            userDeletionRepository.finishUserDeletion(userId, currentDate,
+                    currentDate.plus(userDeletionProps.getRetention()));
+            log.info("Deletion of user with id : {} is done", userId);
+        } catch (RuntimeException e) {
+            log.error("Deletion of user with id : {} is stopped and will be resumed after its lease expires",
+                    userId, e);
+        }
+    }
+
+    @Override
+    public UserDeletionDtoResponse getUserDeletion(Long userId) {
+        log.debug("Get deletion of user with id : {}", userId);
+        return userDeletionRepository.findById(userId)
+                .map(this::mapToUserDeletionDtoResponse)
+                .orElseThrow(() -> {
+                    log.error("Deletion of user with id : {} wasn't found", userId);
+                    return new ResourceNotFoundException(UserDeletion.class, "userId", userId);
+                });
+    }
+
+    private void deletePosts(Long userId) {
+        List<Post> posts;
+        while (!(posts = postRepository.findIdsAndFilesByUserId(userId, getBatch())).isEmpty()) {
+            List<Long> postIds = getIds(posts, Post::getId);
+            deleteCommentsOfPosts(userId, postIds);
+            long deletedStatistics = modelUpdateStatisticsService.deleteAllByModelIds(Post.class.getName(), postIds);
+            postRepository.deleteAllById(postIds);
+            evict(POST, postIds);
+            List<ObjectId> files = posts.stream()
+                    .map(Post::getFile)
+                    .filter(Objects::nonNull)
+                    .toList();
+            files.forEach(fileService::deleteFile);
+            addProgress(UserDeletion.builder()
+                    .userId(userId)
+                    .deletedPosts(postIds.size())
+                    .deletedFiles(files.size())
+                    .deletedStatistics(deletedStatistics)
+                    .build());
+        }
+    }
+
+    private void deleteCommentsOfPosts(Long userId, List<Long> postIds) {
+        List<Comment> comments;
+        while (!(comments = commentRepository.findIdsByPostIdIn(postIds, getBatch())).isEmpty()) {
+            List<Long> commentIds = getIds(comments, Comment::getId);
+            long deletedStatistics = modelUpdateStatisticsService.deleteAllByModelIds(Comment.class.getName(),
+                    commentIds);
+            commentRepository.deleteAllById(commentIds);
+            evict(COMMENT, commentIds);
+            addProgress(UserDeletion.builder()
+                    .userId(userId)
+                    .deletedComments(commentIds.size())
+                    .deletedStatistics(deletedStatistics)
+                    .build());
+        }
+    }
+
+    private void deleteComments(Long userId) {
+        List<Comment> comments;
+        while (!(comments = commentRepository.findIdsAndPostIdsByUserId(userId, getBatch())).isEmpty())
+            deleteCommentsOfOtherPosts(userId, comments);
+    }
+
+    private void deleteCommentsOfOtherPosts(Long userId, List<Comment> comments) {
+        List<Long> commentIds = getIds(comments, Comment::getId);
+        Set<Long> postIds = comments.stream()
+                .map(Comment::getPostId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        postIds.forEach(postId -> replaceCommentSummaries(postId, userId));
+        long deletedStatistics = modelUpdateStatisticsService.deleteAllByModelIds(Comment.class.getName(), commentIds);
+        commentRepository.deleteAllById(commentIds);
+        evict(COMMENT, commentIds);
+        evict(POST, postIds);
+        addProgress(UserDeletion.builder()
+                .userId(userId)
+                .deletedComments(commentIds.size())
+                .deletedStatistics(deletedStatistics)
+                .build());
+    }
+
+    private void replaceCommentSummaries(Long postId, Long userId) {
+        List<CommentSummary> latestComments = commentRepository.findAllByPostIdAndUserIdNot(postId, userId,
+                        PageRequest.of(0, commentSummaryProps.getSize(), Sort.by(Sort.Direction.DESC, "id"))).stream()
+                .map(commentMapper::mapToCommentSummary)
+                .collect(Collectors.toList());
+        postRepository.replaceCommentSummaries(postId, latestComments,
+                commentRepository.countByPostIdAndUserIdNot(postId, userId));
+    }
+
+    private void addProgress(UserDeletion progress) {
+        LocalDateTime currentDate = LocalDateTime.now();
+        userDeletionRepository.addUserDeletionProgress(progress, currentDate,
+                currentDate.plus(userDeletionProps.getLease()));
+        log.debug("Deleted {} posts, {} comments, {} files of user with id : {}",
+                progress.getDeletedPosts(), progress.getDeletedComments(), progress.getDeletedFiles(),
+                progress.getUserId());
+    }
+
+    private Pageable getBatch() {
+        return PageRequest.of(0, userDeletionProps.getBatchSize());
+    }
+
+    private <T> List<Long> getIds(List<T> models, Function<T, Long> getId) {
+        return models.stream()
+                .map(getId)
+                .toList();
+    }
+
+    private void evict(String cacheName, Collection<Long> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null)
+            keys.forEach(cache::evict);
+    }
+
+    private UserDeletionDtoResponse mapToUserDeletionDtoResponse(UserDeletion userDeletion) {
+        return UserDeletionDtoResponse.builder()
+                .userId(userDeletion.getUserId())
+                .username(userDeletion.getUsername())
+                .status(userDeletion.getStatus())
+                .deletedPosts(userDeletion.getDeletedPosts())
+                .deletedComments(userDeletion.getDeletedComments())
+                .deletedFiles(userDeletion.getDeletedFiles())
+                .deletedStatistics(userDeletion.getDeletedStatistics())
+                .deletedRefreshTokens(userDeletion.getDeletedRefreshTokens())
+                .created(userDeletion.getCreated())
+                .updated(userDeletion.getUpdated())
+                .finished(userDeletion.getFinished())
+                .build();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.blogservice.service.impl;
 
 
+import com.example.blogservice.cache.CacheRefreshRegistry;
+import com.example.blogservice.dto.CursorSlice;
 import com.example.blogservice.dto.UserDto;
 import com.example.blogservice.dto.UserDtoRequest;
 import com.example.blogservice.dto.UserDtoResponse;
@@ -10,14 +12,18 @@ import com.example.blogservice.event.ModelType;
 import com.example.blogservice.event.ModelUpdatedEvent;
 import com.example.blogservice.exception.NotUniqueResourceException;
 import com.example.blogservice.exception.NotValidCredentialsException;
+import com.example.blogservice.exception.PasswordHashingUnavailableException;
 import com.example.blogservice.exception.NotValidTokenException;
 import com.example.blogservice.exception.ResourceNotFoundException;
 import com.example.blogservice.mapper.UserMapper;
 import com.example.blogservice.model.Role;
 import com.example.blogservice.model.User;
+import com.example.blogservice.repository.PostRepository;
 import com.example.blogservice.repository.UserRepository;
 import com.example.blogservice.security.user.AuthenticatedUser;
 import com.example.blogservice.service.UserService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -39,23 +45,37 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Optional;
 
+import static com.example.blogservice.utils.ConstantUtil.CacheName.USER;
 import static com.example.blogservice.utils.ConstantUtil.Exception.NOT_VALID_TOKEN;
+import static com.example.blogservice.utils.ConstantUtil.Metric.SERVICE_INVOCATIONS;
 
 @Service
+@Timed(SERVICE_INVOCATIONS)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
 
     private final UserRepository userRepository;
+    private final PostRepository postRepository;
     private final UserMapper userMapper;
     private final SequenceGeneratorService sequenceGeneratorService;
     private final PasswordEncoder passwordEncoder;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final CacheRefreshRegistry cacheRefreshRegistry;
+    private volatile String userNotFoundPassword;
+
+    @PostConstruct
+    public void registerCacheRefreshLoader() {
+        cacheRefreshRegistry.register(USER, id -> userRepository.findById((Long) id)
+                .map(userMapper::mapToUserDtoResponse)
+                .orElse(null));
+    }
 
 
     @Override
-    @Cacheable(value = "user", key = "#id")
+    @Cacheable(value = USER, key = "#id")
     public UserDtoResponse getById(Long id) {
         log.debug("Get user by id : {}", id);
         return userRepository.findById(id)
@@ -87,6 +107,13 @@ public class UserServiceImpl implements UserService {
                 .map((userMapper::mapToUserDtoResponse));
     }
 
+    @Override
+    public CursorSlice<UserDtoResponse> findAllAfter(String after, int size, Sort sort) {
+        log.debug("Find {} users after cursor : {}", size, after);
+        return userRepository.findAllAfter(after, size, sort)
+                .map(userMapper::mapToUserDtoResponse);
+    }
+
     @Override
     @Transactional
     public UserDtoResponse save(UserDtoRequest userDtoRequest, String password) {
@@ -103,19 +130,19 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
-    @CachePut(value = "user", key = "#userId")
+    @CachePut(value = USER, key = "#userId")
     public UserDtoResponse update(Long userId, UserDtoRequest userDtoRequest, AuthenticatedUser authenticatedUser) {
         log.info("Check existing user by userId : {} and update it by :{}", userId, userDtoRequest);
         checkValidCredentials(userId, authenticatedUser);
         return userRepository.findById(userId)
                 .map(user -> {
                     checkUniqueUsernameAndEmailForUpdate(user, userDtoRequest);
-                    return userMapper.mapToUser(userId, userDtoRequest, user.getPassword(), user.getRole());
-                })
-                .map(userRepository::save)
-                .map(user -> {
+                    User updatedUser = userRepository.save(userMapper.mapToUser(userId, userDtoRequest,
+                            user.getPassword(), user.getRole()));
+                    if (!user.getUsername().equals(updatedUser.getUsername()))
+                        postRepository.updateCommentSummariesUsername(userId, updatedUser.getUsername());
                     publishUpdate(userId);
-                    return userMapper.mapToUserDtoResponse(user);
+                    return userMapper.mapToUserDtoResponse(updatedUser);
                 })
                 .orElseThrow(() -> {
                     log.error("User with id = {} wasn't found", userId);
@@ -126,7 +153,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
-    @CacheEvict(value = "user", key = "#userId")
+    @CacheEvict(value = USER, key = "#userId")
     public void deleteById(Long userId, AuthenticatedUser authenticatedUser) {
         checkValidCredentials(userId, authenticatedUser);
         log.debug("Check existing user by userId : {} and delete id", userId);
@@ -159,7 +186,48 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @CachePut(value = "user", key = "#id")
+    public UserDto getUserByUsernameAndPassword(String username, String password) {
+        log.debug("Check password of user with username : {}", username);
+        UserDto user = userRepository.findUserByUsername(username)
+                .map(userMapper::mapToUserDto)
+                .orElse(null);
+        if (user == null) {
+            mitigateAgainstTimingAttack(password);
+            log.error("There is no user with username : {}", username);
+            throw new NotValidCredentialsException("Username or password isn't valid");
+        }
+        if (password == null || !passwordEncoder.matches(password, user.getPassword())) {
+            log.error("Password of user with username : {} doesn't match", username);
+            throw new NotValidCredentialsException("Username or password isn't valid");
+        }
+        if (passwordEncoder.upgradeEncoding(user.getPassword()))
+            rehashPassword(user, password);
+        return user;
+    }
+
+    /**
+     * Hashes the password of an unknown user against a dummy hash,
+     * so the response time doesn't reveal whether the username exists.
+     */
+    private void mitigateAgainstTimingAttack(String password) {
+        if (password == null)
+            return;
+        if (userNotFoundPassword == null)
+            userNotFoundPassword = passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
+        passwordEncoder.matches(password, userNotFoundPassword);
+    }
+
+    private void rehashPassword(UserDto user, String password) {
+        try {
+            if (userRepository.replacePassword(user.getId(), user.getPassword(), passwordEncoder.encode(password)))
+                log.debug("Rehash password of user with id : {}", user.getId());
+        } catch (PasswordHashingUnavailableException e) {
+            log.warn("Password of user with id : {} isn't rehashed : {}", user.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    @CachePut(value = USER, key = "#id")
     public UserDtoResponse changePasswordByUserId(Long id, String password, AuthenticatedUser authenticatedUser) {
         log.debug("Changing password by user : {}", id);
         checkValidCredentials(id, authenticatedUser);
@@ -1,6 +1,17 @@
 package com.example.blogservice.utils;
 
 public class ConstantUtil {
+    public static class CacheName {
+        public static final String POST = "post";
+        public static final String USER = "user";
+        public static final String COMMENT = "comment";
+        public static final String USER_STATE = "user-state";
+    }
+
+    public static class Metric {
+        public static final String SERVICE_INVOCATIONS = "blog.service.invocations";
+    }
+
     public static class Exception {
         public final static String NO_FOUND_PATTERN = "%s wasn't found by %s=%s";
         public final static String NO_FOUNDED_FROM_RESOURCE_PATTERN = "%s wasn't found by %s=%s from %s with %s=%s";
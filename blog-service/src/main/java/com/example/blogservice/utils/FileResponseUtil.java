@@ -0,0 +1,131 @@
+package com.example.blogservice.utils;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import lombok.SneakyThrows;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.http.HttpHeaders.*;
+import static org.springframework.http.HttpStatus.PARTIAL_CONTENT;
+import static org.springframework.http.HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
+
+/**
+ * Builds download responses for GridFS files without buffering their content.
+ * The body is copied from the GridFS stream to the servlet output by the message converters,
+ * a single byte range is answered with 206 over a bounded stream, and conditional requests are answered by
+ * {@link WebRequest#checkNotModified(String, long)}, which has already written 304 or 412 and the validators
+ * when it returns true, so no response entity is built for them.
+ */
+public class FileResponseUtil {
+
+    public static final String BYTES_RANGE_UNIT = "bytes";
+    private static final String GRID_FS_CONTENT_TYPE_FIELD = "_contentType";
+
+    private FileResponseUtil() {
+    }
+
+    public static ResponseEntity<?> getFileResponse(GridFsResource resource, WebRequest webRequest) {
+        GridFSFile file = resource.getGridFSFile();
+        String eTag = "\"" + file.getObjectId().toHexString() + "\"";
+        long lastModified = file.getUploadDate().getTime();
+        if (webRequest.checkNotModified(eTag, lastModified))
+            return null;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(getContentType(file));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(file.getFilename(), StandardCharsets.UTF_8)
+                .build());
+        headers.setETag(eTag);
+        headers.setLastModified(lastModified);
+        headers.set(ACCEPT_RANGES, BYTES_RANGE_UNIT);
+
+        String range = webRequest.getHeader(RANGE);
+        if (range == null || !isIfRangeMatched(webRequest.getHeader(IF_RANGE), eTag, lastModified))
+            return getFullContentResponse(resource, headers);
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return getFullContentResponse(resource, headers);
+        }
+        if (httpRanges.size() != 1)
+            return getFullContentResponse(resource, headers);
+        long length = file.getLength();
+        HttpRange httpRange = httpRanges.get(0);
+        long start;
+        long end;
+        try {
+            start = httpRange.getRangeStart(length);
+            end = httpRange.getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            start = length;
+            end = length;
+        }
+        if (start >= length) {
+            headers.set(CONTENT_RANGE, BYTES_RANGE_UNIT + " */" + length);
+            return ResponseEntity.status(REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .headers(headers)
+                    .build();
+        }
+        return getPartialContentResponse(resource, headers, start, end);
+    }
+
+    @SneakyThrows
+    private static ResponseEntity<InputStreamResource> getPartialContentResponse(GridFsResource resource, HttpHeaders headers,
+                                                                                long start, long end) {
+        long rangeLength = end - start + 1;
+        headers.set(CONTENT_RANGE, String.format("%s %d-%d/%d", BYTES_RANGE_UNIT, start, end, resource.contentLength()));
+        headers.setContentLength(rangeLength);
+        InputStream inputStream = resource.getInputStream();
+        IOUtils.skipFully(inputStream, start);
+        return ResponseEntity.status(PARTIAL_CONTENT)
+                .headers(headers)
+                .body(new InputStreamResource(new BoundedInputStream(inputStream, rangeLength)));
+    }
+
+    @SneakyThrows
+    private static ResponseEntity<InputStreamResource> getFullContentResponse(GridFsResource resource, HttpHeaders headers) {
+        headers.setContentLength(resource.contentLength());
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new InputStreamResource(resource.getInputStream()));
+    }
+
+    private static boolean isIfRangeMatched(String ifRange, String eTag, long lastModified) {
+        if (ifRange == null)
+            return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+            return ifRange.equals(eTag);
+        try {
+            return ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond() ==
+                    lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static MediaType getContentType(GridFSFile file) {
+        return Optional.ofNullable(file.getMetadata())
+                .map(metadata -> metadata.get(GRID_FS_CONTENT_TYPE_FIELD))
+                .map(Object::toString)
+                .map(MediaType::parseMediaType)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.blogservice.utils;
+
+import com.example.blogservice.exception.NotValidCursorException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * Restricts the sort of a slice to the properties an endpoint allows.
+ * The cursor of a slice holds the values of its sort keys and the next slice seeks by them,
+ * so sorting by any other property would disclose its values, such as password hashes or emails.
+ */
+public class SortUtil {
+
+    private SortUtil() {
+    }
+
+    public static Sort checkSortable(Sort sort, Set<String> sortableProperties) {
+        sort.forEach(order -> {
+            if (!sortableProperties.contains(order.getProperty()))
+                throw new NotValidCursorException("Sort by " + order.getProperty() + " isn't supported, " +
+                        "slices can be sorted by " + sortableProperties);
+        });
+        return sort;
+    }
+}
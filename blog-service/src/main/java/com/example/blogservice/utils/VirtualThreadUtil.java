@@ -0,0 +1,102 @@
+package com.example.blogservice.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads through reflection, so the service is still compiled for Java 17
+ * and uses virtual threads only when it runs on Java 21 or later.
+ */
+public class VirtualThreadUtil {
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method NAME = findMethod(findClass("java.lang.Thread$Builder"), "name", String.class, long.class);
+    private static final Method FACTORY = findMethod(findClass("java.lang.Thread$Builder"), "factory");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class, "newThreadPerTaskExecutor",
+            ThreadFactory.class);
+    private static final boolean SUPPORTED = isAvailable();
+
+    private VirtualThreadUtil() {
+    }
+
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * Returns a factory of virtual threads named with the prefix and a counter.
+     */
+    public static ThreadFactory newThreadFactory(String namePrefix) {
+        if (!SUPPORTED)
+            throw new IllegalStateException("Virtual threads require Java 21 or later, the service runs on Java " +
+                    Runtime.version().feature());
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Virtual threads can't be created", e);
+        }
+    }
+
+    /**
+     * Returns an executor which starts a new virtual thread for every task.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, newThreadFactory(namePrefix));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Executor of virtual threads can't be created", e);
+        }
+    }
+
+    /**
+     * Returns an executor which runs at most the limit of tasks of the executor at once. Every task is submitted
+     * at once and waits for a permit in its own thread, a virtual thread waiting on the semaphore unmounts
+     * from its carrier, while waiting in the monitor of SimpleAsyncTaskExecutor's concurrency throttle pins it.
+     */
+    public static Executor limitConcurrency(Executor executor, int concurrencyLimit) {
+        Semaphore permits = new Semaphore(concurrencyLimit);
+        return task -> executor.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private static boolean isAvailable() {
+        if (OF_VIRTUAL == null || NAME == null || FACTORY == null || NEW_THREAD_PER_TASK_EXECUTOR == null)
+            return false;
+        try {
+            OF_VIRTUAL.invoke(null);
+            return true;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // virtual threads of Java 19 and 20 are a preview feature, unavailable without --enable-preview
+            return false;
+        }
+    }
+
+    private static Class<?> findClass(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        if (type == null)
+            return null;
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
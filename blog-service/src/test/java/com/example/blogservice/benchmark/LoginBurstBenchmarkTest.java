@@ -0,0 +1,149 @@
+package com.example.blogservice.benchmark;
+
+import com.example.blogservice.initializer.DatabaseContainerInitializer;
+import com.example.blogservice.model.Role;
+import com.example.blogservice.model.User;
+import com.example.blogservice.repository.UserRepository;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load scenario for logins: measures the latency of reads alone and then again while benchmark.logins
+ * concurrent logins (512 by default) hash passwords, and checks that reads stay fast while the logins
+ * either succeed or are rejected with 503. Runs only with -Dbenchmark.load=true, it asserts a wall-clock
+ * p99 limit which depends on the machine. Results are written to the log.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "password.hashing.queue-capacity=16")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark.load", matches = "true")
+@Slf4j
+class LoginBurstBenchmarkTest extends DatabaseContainerInitializer {
+
+    private static final int LOGINS = Integer.getInteger("benchmark.logins", 512);
+    private static final int LOGIN_CLIENTS = 64;
+    private static final int READS = 500;
+    private static final long READ_P99_LIMIT_MS = Long.getLong("benchmark.read-p99-limit-ms", 500);
+    private static final String PASSWORD = "password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DelegatingPasswordEncoder passwordEncoder;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() {
+        userRepository.save(User.builder()
+                .id(1L)
+                .username("reader")
+                .email("reader@mail.ru")
+                .password(passwordEncoder.encode(PASSWORD))
+                .dateOfBirth(LocalDate.now().minusYears(20))
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void readLatencyDuringLoginBurst() throws Exception {
+        List<Long> idleReads = readUsers(READS);
+
+        ExecutorService loginClients = Executors.newFixedThreadPool(LOGIN_CLIENTS);
+        AtomicInteger succeededLogins = new AtomicInteger();
+        AtomicInteger rejectedLogins = new AtomicInteger();
+        AtomicBoolean unexpectedStatus = new AtomicBoolean();
+        List<Future<?>> logins = new ArrayList<>();
+        for (int i = 0; i < LOGINS; i++)
+            logins.add(loginClients.submit(() -> {
+                int status = login();
+                if (status == 200)
+                    succeededLogins.incrementAndGet();
+                else if (status == 503)
+                    rejectedLogins.incrementAndGet();
+                else
+                    unexpectedStatus.set(true);
+            }));
+        List<Long> burstReads = readUsers(READS);
+        for (Future<?> login : logins)
+            login.get();
+        loginClients.shutdown();
+
+        long idleP99 = percentile(idleReads, 99);
+        long burstP99 = percentile(burstReads, 99);
+        log.info("{} logins by {} clients: {} succeeded, {} rejected with 503; " +
+                        "read latency p50/p99 idle {}/{} ms, during logins {}/{} ms",
+                LOGINS, LOGIN_CLIENTS, succeededLogins.get(), rejectedLogins.get(),
+                percentile(idleReads, 50), idleP99, percentile(burstReads, 50), burstP99);
+        assertTrue(!unexpectedStatus.get());
+        assertEquals(LOGINS, succeededLogins.get() + rejectedLogins.get());
+        assertTrue(succeededLogins.get() > 0);
+        assertTrue(burstP99 < READ_P99_LIMIT_MS);
+    }
+
+    @SneakyThrows
+    private List<Long> readUsers(int reads) {
+        List<Long> latencies = new ArrayList<>(reads);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users?page=0&size=10"))
+                .GET()
+                .build();
+        for (int i = 0; i < reads; i++) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            assertEquals(200, response.statusCode());
+        }
+        return latencies;
+    }
+
+    @SneakyThrows
+    private int login() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port +
+                        "/users/authenticate?username=reader&password=" + PASSWORD))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static long percentile(List<Long> latencies, int percentile) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+}
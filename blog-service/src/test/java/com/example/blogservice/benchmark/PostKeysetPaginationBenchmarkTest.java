@@ -0,0 +1,178 @@
+package com.example.blogservice.benchmark;
+
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.initializer.DatabaseContainerInitializer;
+import com.example.blogservice.model.Post;
+import com.example.blogservice.model.Role;
+import com.example.blogservice.model.User;
+import com.example.blogservice.repository.PostRepository;
+import com.example.blogservice.repository.UserRepository;
+import com.mongodb.DBRef;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the first and a deep slice read by keyset pagination hold the same posts as the pages
+ * read with skip/limit, without a count, on a collection of 1000 posts.
+ * With -Dbenchmark.load=true the collection holds benchmark.posts posts (1M by default) and the time
+ * of the pages and the slices is compared. Results are written to the log.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostKeysetPaginationBenchmarkTest extends DatabaseContainerInitializer {
+
+    private static final boolean LOAD_BENCHMARK = Boolean.getBoolean("benchmark.load");
+    private static final int POSTS = LOAD_BENCHMARK ? Integer.getInteger("benchmark.posts", 1_000_000) : 1000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final AtomicInteger countQueries = new AtomicInteger();
+
+    @TestConfiguration
+    static class CountQueriesConfig {
+        @Bean
+        public MongoClientSettingsBuilderCustomizer countQueriesCustomizer() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (event.getCommandName().equals("count") || event.getCommandName().equals("aggregate"))
+                        countQueries.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    public void setUp() {
+        userRepository.save(User.builder()
+                .id(1L)
+                .username("author")
+                .email("author@mail.ru")
+                .password("password")
+                .dateOfBirth(LocalDate.now().minusYears(20))
+                .role(Role.ROLE_USER)
+                .build());
+        DBRef author = new DBRef("user", 1L);
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        for (long postId = 1; postId <= POSTS; postId++) {
+            batch.add(new Document("_id", postId)
+                    .append("title", "Post " + postId)
+                    .append("content", "Content of post " + postId)
+                    .append("user", author)
+                    .append("latestComments", List.of())
+                    .append("commentCount", 0L)
+                    .append("_class", Post.class.getName()));
+            if (batch.size() == BATCH_SIZE) {
+                mongoTemplate.getCollection("post").insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+            mongoTemplate.getCollection("post").insertMany(batch);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findFirstAndDeepSlice() {
+        Sort sort = Sort.by("id");
+        int deepPage = POSTS / PAGE_SIZE - 1;
+        long deepPostId = (long) deepPage * PAGE_SIZE;
+
+        Page<Post> firstPage = postRepository.findAllWithReferences(PageRequest.of(0, PAGE_SIZE, sort));
+        Page<Post> lastPage = postRepository.findAllWithReferences(PageRequest.of(deepPage, PAGE_SIZE, sort));
+        countQueries.set(0);
+        CursorSlice<Post> firstSlice = postRepository.findAllAfterWithReferences(null, PAGE_SIZE, sort);
+        CursorSlice<Post> lastSlice = postRepository.findAllAfterWithReferences(getCursor(deepPostId), PAGE_SIZE, sort);
+        int sliceCountQueries = countQueries.getAndSet(0);
+
+        assertEquals(firstPage.getContent(), firstSlice.getContent());
+        assertEquals(lastPage.getContent(), lastSlice.getContent());
+        assertTrue(firstSlice.hasNext());
+        assertFalse(lastSlice.hasNext());
+        assertEquals(0, sliceCountQueries);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.load", matches = "true")
+    void findFirstAndDeepPage() {
+        Sort sort = Sort.by("id");
+        int deepPage = POSTS / PAGE_SIZE - 1;
+        long deepPostId = (long) deepPage * PAGE_SIZE;
+
+        countQueries.set(0);
+        long start = System.nanoTime();
+        Page<Post> firstPage = postRepository.findAllWithReferences(PageRequest.of(0, PAGE_SIZE, sort));
+        long firstPageTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        Page<Post> lastPage = postRepository.findAllWithReferences(PageRequest.of(deepPage, PAGE_SIZE, sort));
+        long deepPageTime = System.nanoTime() - start;
+        int pageCountQueries = countQueries.getAndSet(0);
+
+        start = System.nanoTime();
+        CursorSlice<Post> firstSlice = postRepository.findAllAfterWithReferences(null, PAGE_SIZE, sort);
+        long firstSliceTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        CursorSlice<Post> lastSlice = postRepository.findAllAfterWithReferences(getCursor(deepPostId), PAGE_SIZE, sort);
+        long deepSliceTime = System.nanoTime() - start;
+        int sliceCountQueries = countQueries.getAndSet(0);
+
+        log.info("{} posts, {} per page: skip/limit first page {} ms, deep page {} ms, {} counts; " +
+                        "keyset first slice {} ms, deep slice {} ms, {} counts",
+                POSTS, PAGE_SIZE,
+                TimeUnit.NANOSECONDS.toMillis(firstPageTime), TimeUnit.NANOSECONDS.toMillis(deepPageTime), pageCountQueries,
+                TimeUnit.NANOSECONDS.toMillis(firstSliceTime), TimeUnit.NANOSECONDS.toMillis(deepSliceTime), sliceCountQueries);
+    }
+
+    private static String getCursor(long postId) {
+        String cursor = new Document("_id", postId).toJson(JsonWriterSettings.builder()
+                .outputMode(JsonMode.EXTENDED)
+                .build());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.blogservice.benchmark;
+
+import com.example.blogservice.changeunit.IndexActiveRefreshTokensByUserId;
+import com.example.blogservice.changeunit.MigrateRefreshTokensToUserId;
+import com.example.blogservice.dto.UserDto;
+import com.example.blogservice.initializer.DatabaseContainerInitializer;
+import com.example.blogservice.model.RefreshToken;
+import com.example.blogservice.model.Role;
+import com.example.blogservice.model.User;
+import com.example.blogservice.repository.RefreshTokenRepository;
+import com.example.blogservice.repository.UserRepository;
+import com.example.blogservice.security.service.JWTService;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.blogservice.security.filter.JwtAuthenticationTokenFilter.TOKEN_PREFIX;
+import static com.example.blogservice.security.service.impl.JWTServiceImpl.REFRESH_TOKEN;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that lookups of refresh tokens by token and of active tokens by user id are answered from an index
+ * on a collection of 10000 refresh tokens.
+ * With -Dbenchmark.load=true the collection holds benchmark.refresh-tokens stored refresh tokens (10M by default),
+ * benchmark.refresh-tokens / 100000 of them revoked tokens of the logged in user, and the latency of logins
+ * and token refreshes is measured. Results are written to the log.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RefreshTokenIndexBenchmarkTest extends DatabaseContainerInitializer {
+
+    private static final boolean LOAD_BENCHMARK = Boolean.getBoolean("benchmark.load");
+    private static final int REFRESH_TOKENS = LOAD_BENCHMARK ?
+            Integer.getInteger("benchmark.refresh-tokens", 10_000_000) :
+            10_000;
+    private static final int USERS = 100_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int OPERATIONS = 1000;
+
+    @Autowired
+    private JWTService jwtService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private UserDto userDto;
+
+    @BeforeAll
+    public void setUp() {
+        new MigrateRefreshTokensToUserId(mongoTemplate).beforeExecution();
+        IndexActiveRefreshTokensByUserId indexActiveRefreshTokensByUserId = new IndexActiveRefreshTokensByUserId(mongoTemplate);
+        indexActiveRefreshTokensByUserId.beforeExecution();
+        indexActiveRefreshTokensByUserId.changeSet();
+        User user = userRepository.save(User.builder()
+                .id(1L)
+                .username("author")
+                .email("author@mail.ru")
+                .password("password")
+                .dateOfBirth(LocalDate.now().minusYears(20))
+                .role(Role.ROLE_USER)
+                .build());
+        userDto = UserDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .build();
+        Date created = Date.from(Instant.now());
+        Date expires = Date.from(Instant.now().plus(7, ChronoUnit.DAYS));
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        for (long refreshTokenId = 1; refreshTokenId <= REFRESH_TOKENS; refreshTokenId++) {
+            batch.add(new Document("_id", refreshTokenId)
+                    .append("token", "token-" + refreshTokenId)
+                    .append("expires", expires)
+                    .append("created", created)
+                    .append("revoked", created)
+                    .append("isActive", false)
+                    .append("userId", refreshTokenId % USERS + 1)
+                    .append("_class", RefreshToken.class.getName()));
+            if (batch.size() == BATCH_SIZE) {
+                mongoTemplate.getCollection("refresh_token").insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+            mongoTemplate.getCollection("refresh_token").insertMany(batch);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findRefreshTokensByIndex() {
+        String token = "token-" + ThreadLocalRandom.current().nextInt(1, REFRESH_TOKENS + 1);
+        assertTrue(getWinningPlan(new Document("token", token)).contains("IXSCAN"));
+        assertTrue(getWinningPlan(new Document("userId", 1L).append("isActive", true)).contains("IXSCAN"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.load", matches = "true")
+    void loginAndRefresh() {
+        List<Long> logins = new ArrayList<>(OPERATIONS);
+        List<Long> refreshes = new ArrayList<>(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i++) {
+            long start = System.nanoTime();
+            Map<String, String> tokens = jwtService.createAccessAndRefreshTokens(userDto);
+            logins.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            start = System.nanoTime();
+            jwtService.createTokensByRefreshTokenHeader(TOKEN_PREFIX + tokens.get(REFRESH_TOKEN));
+            refreshes.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+
+        log.info("{} stored refresh tokens: login p50/p99 {}/{} µs, refresh p50/p99 {}/{} µs",
+                REFRESH_TOKENS, percentile(logins, 50), percentile(logins, 99),
+                percentile(refreshes, 50), percentile(refreshes, 99));
+    }
+
+    private String getWinningPlan(Document filter) {
+        return mongoTemplate.getCollection("refresh_token")
+                .find(filter)
+                .explain()
+                .get("queryPlanner", Document.class)
+                .get("winningPlan", Document.class)
+                .toJson();
+    }
+
+    private static long percentile(List<Long> latencies, int percentile) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+}
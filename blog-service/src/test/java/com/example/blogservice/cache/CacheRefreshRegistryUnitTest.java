@@ -0,0 +1,92 @@
+package com.example.blogservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CacheRefreshRegistryUnitTest {
+    private static final String CACHE_NAME = "post";
+    private static final Duration REFRESH_AFTER_WRITE = Duration.ofMinutes(10);
+
+    private CacheRefreshRegistry cacheRefreshRegistry;
+    private Cache<Object, Object> cache;
+    private AtomicLong time;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        time = new AtomicLong();
+        loads = new AtomicInteger();
+        cache = Caffeine.newBuilder()
+                .ticker(time::get)
+                .expireAfterWrite(Duration.ofHours(6))
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        cacheRefreshRegistry = new CacheRefreshRegistry(new SyncTaskExecutor());
+        cacheRefreshRegistry.track(CACHE_NAME, cache, REFRESH_AFTER_WRITE);
+        cacheRefreshRegistry.register(CACHE_NAME, key -> {
+            loads.incrementAndGet();
+            return (Long) key == 1L ? "refreshed" : null;
+        });
+    }
+
+    @Test
+    void refreshReadEntryAfterRefreshInterval() {
+        cache.put(1L, "cached");
+        advance(REFRESH_AFTER_WRITE);
+        cache.getIfPresent(1L);
+        advance(Duration.ofSeconds(1));
+
+        cacheRefreshRegistry.refresh();
+
+        assertEquals("refreshed", cache.getIfPresent(1L));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void refreshSkipsFreshEntry() {
+        cache.put(1L, "cached");
+        advance(REFRESH_AFTER_WRITE.minusSeconds(1));
+        cache.getIfPresent(1L);
+
+        cacheRefreshRegistry.refresh();
+
+        assertEquals("cached", cache.getIfPresent(1L));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void refreshSkipsEntryNotReadSinceWrite() {
+        cache.put(1L, "cached");
+        advance(REFRESH_AFTER_WRITE);
+
+        cacheRefreshRegistry.refresh();
+
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void refreshEvictsEntryOfMissingModel() {
+        cache.put(2L, "cached");
+        advance(REFRESH_AFTER_WRITE);
+        cache.getIfPresent(2L);
+        advance(Duration.ofSeconds(1));
+
+        cacheRefreshRegistry.refresh();
+
+        assertNull(cache.getIfPresent(2L));
+    }
+
+    private void advance(Duration duration) {
+        time.addAndGet(duration.toNanos());
+    }
+}
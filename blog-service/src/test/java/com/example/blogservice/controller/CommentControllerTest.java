@@ -1,8 +1,10 @@
 package com.example.blogservice.controller;
 
+import com.example.blogservice.config.JwtConfig;
 import com.example.blogservice.config.SecurityConfig;
 import com.example.blogservice.dto.CommentDtoRequest;
 import com.example.blogservice.dto.CommentDtoResponse;
+import com.example.blogservice.dto.CursorSlice;
 import com.example.blogservice.dto.UserDtoResponse;
 import com.example.blogservice.exception.ResourceNotFoundException;
 import com.example.blogservice.model.Comment;
@@ -42,7 +44,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = CommentController.class)
-@Import(value = {SecurityConfig.class, JwtAuthenticationProvider.class})
+@Import(value = {SecurityConfig.class, JwtConfig.class, JwtAuthenticationProvider.class})
 class CommentControllerTest {
 
     @Autowired
@@ -162,6 +164,23 @@ class CommentControllerTest {
         verify(commentService).findAllCommentsByPost(postId, pageable);
     }
 
+    @Test
+    @SneakyThrows
+    void getCommentsByPostIdAfter() {
+        Sort sort = Sort.by("id");
+        CursorSlice<CommentDtoResponse> expected = new CursorSlice<>(List.of(commentDtoResponse), 1, sort, "eyJfaWQiOjF9");
+        when(commentService.findAllCommentsByPostAfter(postId, null, 1, sort)).thenReturn(expected);
+
+        String actual = mockMvc.perform(get("/posts/{postId}/comments/scroll", postId)
+                        .param("sort", "id,asc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(expected), actual);
+        verify(commentService).findAllCommentsByPostAfter(postId, null, 1, sort);
+    }
+
     @Test
     @SneakyThrows
     void getCommentsByPostIdFailId() {
@@ -0,0 +1,165 @@
+package com.example.blogservice.controller;
+
+import com.example.blogservice.initializer.DatabaseContainerInitializer;
+import com.example.blogservice.mapper.CommentMapper;
+import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
+import com.example.blogservice.model.Post;
+import com.example.blogservice.model.Role;
+import com.example.blogservice.model.User;
+import com.example.blogservice.props.CommentSummaryProps;
+import com.example.blogservice.repository.CommentRepository;
+import com.example.blogservice.repository.PostRepository;
+import com.example.blogservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static com.example.blogservice.monitoring.QueryBudgetFilter.QUERY_COUNT_HEADER;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Asserts the number of Mongo commands run by the read endpoints with empty caches,
+ * so a reference resolved one by one for every element of a page fails the build instead of reaching production.
+ */
+@SpringBootTest(properties = "query.budget.header-enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ControllerQueryCountIntegrationTest extends DatabaseContainerInitializer {
+
+    private static final int USERS = 5;
+    private static final int POSTS = 20;
+    private static final int COMMENTS_PER_POST = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private CommentSummaryProps commentSummaryProps;
+
+    @BeforeEach
+    public void setUp() {
+        List<User> users = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++)
+            users.add(userRepository.save(User.builder()
+                    .id(userId)
+                    .username("user" + userId)
+                    .email("user" + userId + "@mail.ru")
+                    .password("password")
+                    .dateOfBirth(LocalDate.now().minusYears(20))
+                    .role(Role.ROLE_USER)
+                    .build()));
+        long commentId = 1;
+        for (long postId = 1; postId <= POSTS; postId++) {
+            List<CommentSummary> latestComments = new ArrayList<>();
+            for (int i = 0; i < COMMENTS_PER_POST; i++, commentId++)
+                latestComments.add(commentMapper.mapToCommentSummary(commentRepository.save(Comment.builder()
+                        .id(commentId)
+                        .text("Comment " + commentId)
+                        .user(users.get((int) (commentId % USERS)))
+                        .postId(postId)
+                        .build())));
+            Collections.reverse(latestComments);
+            postRepository.save(Post.builder()
+                    .id(postId)
+                    .title("Post " + postId)
+                    .content("Content of post " + postId)
+                    .user(users.get((int) (postId % USERS)))
+                    .latestComments(new ArrayList<>(latestComments.subList(0, commentSummaryProps.getSize())))
+                    .commentCount(COMMENTS_PER_POST)
+                    .build());
+        }
+        cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        postRepository.deleteAll();
+        commentRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getPostById() throws Exception {
+        assertQueryCount("/posts/1", 2);
+    }
+
+    @Test
+    void findAllPosts() throws Exception {
+        assertQueryCount("/posts?page=0&size=20", 3);
+    }
+
+    @Test
+    void findPostsAfter() throws Exception {
+        assertQueryCount("/posts/scroll?size=20", 2);
+    }
+
+    @Test
+    void findAllPostsByUserId() throws Exception {
+        assertQueryCount("/posts/byUser/1", 3);
+    }
+
+    @Test
+    void getCommentByPostIdAndCommentId() throws Exception {
+        assertQueryCount("/posts/1/comments/1", 2);
+    }
+
+    @Test
+    void getCommentsByPostId() throws Exception {
+        assertQueryCount("/posts/1/comments?page=0&size=10", 4);
+    }
+
+    @Test
+    void findCommentsByPostIdAfter() throws Exception {
+        assertQueryCount("/posts/1/comments/scroll?size=10", 3);
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        assertQueryCount("/users/1", 1);
+    }
+
+    @Test
+    void getAllUsers() throws Exception {
+        assertQueryCount("/users?page=0&size=5", 2);
+    }
+
+    private void assertQueryCount(String url, int expected) throws Exception {
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QUERY_COUNT_HEADER, String.valueOf(expected)));
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.blogservice.controller;
 
+import com.example.blogservice.config.JwtConfig;
 import com.example.blogservice.config.SecurityConfig;
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.dto.FileUploadDtoResponse;
 import com.example.blogservice.dto.PostDtoRequest;
 import com.example.blogservice.dto.PostDtoResponse;
 import com.example.blogservice.dto.UserDtoResponse;
+import com.example.blogservice.exception.NotValidCursorException;
+import com.example.blogservice.exception.NotValidFileUploadException;
 import com.example.blogservice.exception.ResourceNotFoundException;
 import com.example.blogservice.model.Post;
 import com.example.blogservice.model.Role;
@@ -13,8 +18,12 @@ import com.example.blogservice.security.user.AuthenticatedUser;
 import com.example.blogservice.service.PostService;
 import com.example.blogservice.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.gridfs.model.GridFSFile;
 import jakarta.validation.ConstraintViolationException;
 import lombok.SneakyThrows;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,30 +34,36 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 import static com.example.blogservice.utils.TestUtil.*;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
-import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = PostController.class)
-@Import(value = {SecurityConfig.class, JwtAuthenticationProvider.class})
+@Import(value = {SecurityConfig.class, JwtConfig.class, JwtAuthenticationProvider.class})
 class PostControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -70,6 +85,8 @@ class PostControllerTest {
     Long postId;
     private org.springframework.security.core.userdetails.User userDetails;
     private String somePassword;
+    private ObjectId fileId;
+    private byte[] fileContent;
 
     @BeforeEach
     public void setUp() {
@@ -81,6 +98,8 @@ class PostControllerTest {
                 .dateOfBirth(LocalDate.now().minusYears(12))
                 .build();
         somePassword = "somePassword";
+        fileId = new ObjectId();
+        fileContent = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
         authenticatedUser = new AuthenticatedUser("someUser", "laskdlkd", "ROLE_ADMIN");
         Collection<SimpleGrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority((Role.ROLE_ADMIN.name())));
@@ -155,6 +174,50 @@ class PostControllerTest {
         verify(postService).findAll(pageable);
     }
 
+    @Test
+    @SneakyThrows
+    void findPostsAfter() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        CursorSlice<PostDtoResponse> expected = new CursorSlice<>(List.of(postDtoResponse), 1, sort, "eyJfaWQiOjF9");
+        when(postService.findAllAfter("eyJfaWQiOjJ9", 1, sort)).thenReturn(expected);
+
+        String actual = mockMvc.perform(get("/posts/scroll")
+                        .param("after", "eyJfaWQiOjJ9")
+                        .param("sort", "id,desc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['nextCursor']", is("eyJfaWQiOjF9")))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(expected), actual);
+        verify(postService).findAllAfter("eyJfaWQiOjJ9", 1, sort);
+        verify(postService, never()).findAll(any());
+    }
+
+    @Test
+    @SneakyThrows
+    void findPostsAfterFailSize() {
+        mockMvc.perform(get("/posts/scroll")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
+
+        verify(postService, never()).findAllAfter(any(), anyInt(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void findPostsAfterFailCursor() {
+        String expectedMessage = "Cursor wrong is malformed";
+        when(postService.findAllAfter("wrong", 20, Sort.unsorted()))
+                .thenThrow(new NotValidCursorException(expectedMessage));
+
+        mockMvc.perform(get("/posts/scroll")
+                        .param("after", "wrong"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['message']", is(expectedMessage)));
+    }
+
     @Test
     @SneakyThrows
     void getPostById() {
@@ -169,6 +232,21 @@ class PostControllerTest {
         verify(postService).getById(1L);
     }
 
+    @Test
+    @SneakyThrows
+    void getPostByIdWithFileContent() {
+        when(postService.getByIdWithFileContent(1L)).thenReturn(postDtoResponse);
+
+        String actual = mockMvc.perform(get("/posts/{postId}", postId)
+                        .param("inlineFile", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(postDtoResponse), actual);
+        verify(postService).getByIdWithFileContent(1L);
+        verify(postService, never()).getById(1L);
+    }
+
     @Test
     @SneakyThrows
     void getPostByIdFailNoPost() {
@@ -342,4 +420,211 @@ class PostControllerTest {
         verify(postService).deleteById(postId, authenticatedUser);
     }
 
+    @Test
+    @SneakyThrows
+    void getFileFromPost() {
+        when(postService.getFileFromPost(postId)).thenReturn(getFileResource());
+
+        mockMvc.perform(get("/posts/{postId}/file", postId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ETAG, "\"" + fileId.toHexString() + "\""))
+                .andExpect(header().string(ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(CONTENT_LENGTH, fileContent.length))
+                .andExpect(content().bytes(fileContent));
+
+        verify(postService).getFileFromPost(postId);
+    }
+
+    @Test
+    @SneakyThrows
+    void getFileFromPostWithRange() {
+        when(postService.getFileFromPost(postId)).thenReturn(getFileResource());
+
+        mockMvc.perform(get("/posts/{postId}/file", postId)
+                        .header(RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(CONTENT_RANGE, "bytes 2-5/" + fileContent.length))
+                .andExpect(content().bytes(new byte[]{2, 3, 4, 5}));
+    }
+
+    @Test
+    @SneakyThrows
+    void getFileFromPostWithChangedIfRange() {
+        when(postService.getFileFromPost(postId)).thenReturn(getFileResource());
+
+        mockMvc.perform(get("/posts/{postId}/file", postId)
+                        .header(RANGE, "bytes=2-5")
+                        .header(IF_RANGE, "\"" + new ObjectId().toHexString() + "\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(fileContent));
+    }
+
+    @Test
+    @SneakyThrows
+    void getFileFromPostWithNotSatisfiableRange() {
+        when(postService.getFileFromPost(postId)).thenReturn(getFileResource());
+
+        mockMvc.perform(get("/posts/{postId}/file", postId)
+                        .header(RANGE, "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(CONTENT_RANGE, "bytes */" + fileContent.length));
+    }
+
+    @Test
+    @SneakyThrows
+    void getFileFromPostNotModified() {
+        when(postService.getFileFromPost(postId)).thenReturn(getFileResource());
+
+        mockMvc.perform(get("/posts/{postId}/file", postId)
+                        .header(IF_NONE_MATCH, "\"" + fileId.toHexString() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(ETAG, "\"" + fileId.toHexString() + "\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @SneakyThrows
+    void getFileFromPostFailModifiedSince() {
+        when(postService.getFileFromPost(postId)).thenReturn(getFileResource());
+
+        mockMvc.perform(get("/posts/{postId}/file", postId)
+                        .header(IF_UNMODIFIED_SINCE, "Thu, 01 Jan 1970 00:00:00 GMT"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @SneakyThrows
+    void createFileUpload() {
+        String token = getJwtToken();
+        authenticatedUser = new AuthenticatedUser(SUBJECT, token.substring(TOKEN_PREFIX.length()), "ROLE_ADMIN");
+        FileUploadDtoResponse expected = getFileUploadDtoResponse(List.of());
+        when(userService.loadUserByUsername(SUBJECT)).thenReturn(userDetails);
+        when(postService.createFileUpload(postId, "file.txt", "text/plain", 10L, authenticatedUser)).thenReturn(expected);
+
+        String actual = mockMvc.perform(post("/posts/{postId}/file/uploads", postId)
+                        .param("fileName", "file.txt")
+                        .param("contentType", "text/plain")
+                        .param("length", "10")
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(expected), actual);
+        verify(postService).createFileUpload(postId, "file.txt", "text/plain", 10L, authenticatedUser);
+    }
+
+    @Test
+    @SneakyThrows
+    void getFileUpload() {
+        String token = getJwtToken();
+        authenticatedUser = new AuthenticatedUser(SUBJECT, token.substring(TOKEN_PREFIX.length()), "ROLE_ADMIN");
+        FileUploadDtoResponse expected = getFileUploadDtoResponse(List.of(0));
+        when(userService.loadUserByUsername(SUBJECT)).thenReturn(userDetails);
+        when(postService.getFileUpload(postId, fileId, authenticatedUser)).thenReturn(expected);
+
+        String actual = mockMvc.perform(get("/posts/{postId}/file/uploads/{uploadId}", postId, fileId)
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(expected), actual);
+        verify(postService).getFileUpload(postId, fileId, authenticatedUser);
+    }
+
+    @Test
+    @SneakyThrows
+    void uploadFilePart() {
+        String token = getJwtToken();
+        authenticatedUser = new AuthenticatedUser(SUBJECT, token.substring(TOKEN_PREFIX.length()), "ROLE_ADMIN");
+        FileUploadDtoResponse expected = getFileUploadDtoResponse(List.of(0));
+        String digest = "sha-256=" + Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(fileContent));
+        when(userService.loadUserByUsername(SUBJECT)).thenReturn(userDetails);
+        when(postService.uploadFilePart(eq(postId), eq(fileId), eq(0), any(InputStream.class), eq(digest), eq(authenticatedUser)))
+                .thenAnswer(invocation -> {
+                    assertArrayEquals(fileContent, invocation.getArgument(3, InputStream.class).readAllBytes());
+                    return expected;
+                });
+
+        String actual = mockMvc.perform(put("/posts/{postId}/file/uploads/{uploadId}/parts/{partNumber}", postId, fileId, 0)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(fileContent)
+                        .header("Digest", digest)
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(expected), actual);
+        verify(postService).uploadFilePart(eq(postId), eq(fileId), eq(0), any(InputStream.class), eq(digest),
+                eq(authenticatedUser));
+    }
+
+    @Test
+    @SneakyThrows
+    void uploadFilePartFailChecksum() {
+        String token = getJwtToken();
+        authenticatedUser = new AuthenticatedUser(SUBJECT, token.substring(TOKEN_PREFIX.length()), "ROLE_ADMIN");
+        when(userService.loadUserByUsername(SUBJECT)).thenReturn(userDetails);
+        when(postService.uploadFilePart(eq(postId), eq(fileId), eq(0), any(InputStream.class), eq("sha-256=AAAA"),
+                eq(authenticatedUser)))
+                .thenThrow(new NotValidFileUploadException("Checksum of part 0 doesn't match its content"));
+
+        mockMvc.perform(put("/posts/{postId}/file/uploads/{uploadId}/parts/{partNumber}", postId, fileId, 0)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(fileContent)
+                        .header("Digest", "sha-256=AAAA")
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['message']", is("Checksum of part 0 doesn't match its content")));
+    }
+
+    @Test
+    @SneakyThrows
+    void commitFileUpload() {
+        String token = getJwtToken();
+        authenticatedUser = new AuthenticatedUser(SUBJECT, token.substring(TOKEN_PREFIX.length()), "ROLE_ADMIN");
+        when(userService.loadUserByUsername(SUBJECT)).thenReturn(userDetails);
+        when(postService.commitFileUpload(postId, fileId, authenticatedUser)).thenReturn(postDtoResponse);
+
+        String actual = mockMvc.perform(post("/posts/{postId}/file/uploads/{uploadId}/commit", postId, fileId)
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(postDtoResponse), actual);
+        verify(postService).commitFileUpload(postId, fileId, authenticatedUser);
+    }
+
+    @Test
+    @SneakyThrows
+    void abortFileUpload() {
+        String token = getJwtToken();
+        authenticatedUser = new AuthenticatedUser(SUBJECT, token.substring(TOKEN_PREFIX.length()), "ROLE_ADMIN");
+        when(userService.loadUserByUsername(SUBJECT)).thenReturn(userDetails);
+
+        mockMvc.perform(delete("/posts/{postId}/file/uploads/{uploadId}", postId, fileId)
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isOk());
+
+        verify(postService).abortFileUpload(postId, fileId, authenticatedUser);
+    }
+
+    private FileUploadDtoResponse getFileUploadDtoResponse(List<Integer> parts) {
+        return FileUploadDtoResponse.builder()
+                .id(fileId.toHexString())
+                .fileName("file.txt")
+                .contentType("text/plain")
+                .length(fileContent.length)
+                .partSize(255 * 1024 * 32)
+                .parts(parts)
+                .expires(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    private GridFsResource getFileResource() {
+        GridFSFile gridFSFile = new GridFSFile(new BsonObjectId(fileId), "file.txt", fileContent.length, 255,
+                new Date(), new Document("_contentType", "text/plain"));
+        return new GridFsResource(gridFSFile, new ByteArrayInputStream(fileContent));
+    }
+
 }
\ No newline at end of file
@@ -1,14 +1,23 @@
 package com.example.blogservice.controller;
 
+import com.example.blogservice.config.JwtConfig;
 import com.example.blogservice.config.SecurityConfig;
+import com.example.blogservice.dto.CursorSlice;
+import com.example.blogservice.dto.UserDeletionDtoResponse;
+import com.example.blogservice.dto.UserDto;
 import com.example.blogservice.dto.UserDtoRequest;
 import com.example.blogservice.dto.UserDtoResponse;
+import com.example.blogservice.exception.NotValidCredentialsException;
+import com.example.blogservice.exception.NotValidCursorException;
+import com.example.blogservice.exception.PasswordHashingUnavailableException;
 import com.example.blogservice.exception.ResourceNotFoundException;
 import com.example.blogservice.model.Role;
 import com.example.blogservice.model.User;
+import com.example.blogservice.model.UserDeletionStatus;
 import com.example.blogservice.security.provider.JwtAuthenticationProvider;
 import com.example.blogservice.security.service.JWTService;
 import com.example.blogservice.security.user.AuthenticatedUser;
+import com.example.blogservice.service.UserDeletionService;
 import com.example.blogservice.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.ConstraintViolationException;
@@ -34,20 +43,24 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import static com.example.blogservice.utils.TestUtil.*;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
-@Import(value = {SecurityConfig.class, JwtAuthenticationProvider.class})
+@Import(value = {SecurityConfig.class, JwtConfig.class, JwtAuthenticationProvider.class})
 class UserControllerTest {
 
     @Autowired
@@ -60,6 +73,8 @@ class UserControllerTest {
     private UserService userService;
     @MockBean
     private JWTService jwtService;
+    @MockBean
+    private UserDeletionService userDeletionService;
 
     private UserDtoResponse userDtoResponse;
     private UserDtoRequest userDtoRequest;
@@ -97,6 +112,61 @@ class UserControllerTest {
     }
 
 
+    @SneakyThrows
+    @Test
+    void authenticate() {
+        UserDto userDto = UserDto.builder()
+                .id(userId)
+                .username(SUBJECT)
+                .password("encodedPassword")
+                .role(Role.ROLE_USER)
+                .build();
+        Map<String, String> expected = Map.of("access_token", "access", "refresh_token", "refresh");
+        when(userService.getUserByUsernameAndPassword(SUBJECT, somePassword)).thenReturn(userDto);
+        when(jwtService.createAccessAndRefreshTokens(userDto)).thenReturn(expected);
+
+        mockMvc.perform(post("/users/authenticate")
+                        .param("username", SUBJECT)
+                        .param("password", somePassword))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['access_token']", is("access")))
+                .andExpect(jsonPath("$['refresh_token']", is("refresh")));
+
+        verify(userService).getUserByUsernameAndPassword(SUBJECT, somePassword);
+        verify(jwtService).createAccessAndRefreshTokens(userDto);
+    }
+
+    @SneakyThrows
+    @Test
+    void authenticateFailPassword() {
+        when(userService.getUserByUsernameAndPassword(SUBJECT, somePassword))
+                .thenThrow(new NotValidCredentialsException("Username or password isn't valid"));
+
+        mockMvc.perform(post("/users/authenticate")
+                        .param("username", SUBJECT)
+                        .param("password", somePassword))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$['message']", is("Username or password isn't valid")));
+
+        verify(jwtService, never()).createAccessAndRefreshTokens(any());
+    }
+
+    @SneakyThrows
+    @Test
+    void authenticateFailPasswordHashingUnavailable() {
+        when(userService.getUserByUsernameAndPassword(SUBJECT, somePassword))
+                .thenThrow(new PasswordHashingUnavailableException("Too many password checks at the moment, try again later"));
+
+        mockMvc.perform(post("/users/authenticate")
+                        .param("username", SUBJECT)
+                        .param("password", somePassword))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$['message']", is("Too many password checks at the moment, try again later")));
+
+        verify(jwtService, never()).createAccessAndRefreshTokens(any());
+    }
+
     @SneakyThrows
     @Test
     void getAllUsers() {
@@ -116,6 +186,36 @@ class UserControllerTest {
         verify(userService).findAll(pageable);
     }
 
+    @Test
+    @SneakyThrows
+    void getUsersAfter() {
+        Sort sort = Sort.by("username");
+        CursorSlice<UserDtoResponse> expected = new CursorSlice<>(List.of(userDtoResponse), 3, sort, null);
+        when(userService.findAllAfter(null, 3, sort)).thenReturn(expected);
+
+        String actual = mockMvc.perform(get("/users/scroll")
+                        .param("sort", "username")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(expected), actual);
+        verify(userService).findAllAfter(null, 3, sort);
+        verify(userService, never()).findAll(any());
+    }
+
+    @Test
+    @SneakyThrows
+    void getUsersAfterFailSortByPassword() {
+        mockMvc.perform(get("/users/scroll")
+                        .param("sort", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof NotValidCursorException))
+                .andExpect(jsonPath("$['message']", containsString("Sort by password isn't supported")));
+
+        verify(userService, never()).findAllAfter(any(), anyInt(), any());
+    }
+
     @Test
     @SneakyThrows
     void deleteByIdFailIdConstraintWithStaticMock() {
@@ -158,6 +258,28 @@ class UserControllerTest {
         verify(userService).getById(1L);
     }
 
+    @SneakyThrows
+    @Test
+    void getUserDeletion() {
+        UserDeletionDtoResponse expected = UserDeletionDtoResponse.builder()
+                .userId(userId)
+                .username("myachin")
+                .status(UserDeletionStatus.RUNNING)
+                .deletedPosts(1000)
+                .deletedComments(25000)
+                .deletedFiles(10)
+                .build();
+        when(userDeletionService.getUserDeletion(userId)).thenReturn(expected);
+
+        String actual = mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/deletion", userId)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(expected), actual);
+        verify(userDeletionService).getUserDeletion(userId);
+    }
+
     @SneakyThrows
     @Test
     void getUserByIdFailNoUser() {
@@ -0,0 +1,165 @@
+package com.example.blogservice.event;
+
+import com.example.blogservice.event.listener.CacheCoherenceListener;
+import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.Post;
+import com.example.blogservice.model.User;
+import com.example.blogservice.repository.CommentRepository;
+import com.example.blogservice.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.blogservice.utils.ConstantUtil.CacheName.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class CacheCoherenceListenerUnitTest {
+    @InjectMocks
+    private CacheCoherenceListener cacheCoherenceListener;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private Cache postCache;
+    @Mock
+    private Cache commentCache;
+    @Mock
+    private Cache userCache;
+    @Mock
+    private Cache userStateCache;
+
+    User user;
+    Comment comment;
+    Post post;
+
+    @BeforeEach
+    public void setUp() {
+        user = User.builder()
+                .id(1L)
+                .username("Myachin")
+                .build();
+        comment = Comment.builder()
+                .id(2L)
+                .text("Some text")
+                .user(user)
+                .postId(3L)
+                .build();
+        post = Post.builder()
+                .id(3L)
+                .title("Title")
+                .user(user)
+                .build();
+        when(cacheManager.getCache(POST)).thenReturn(postCache);
+        when(cacheManager.getCache(COMMENT)).thenReturn(commentCache);
+        when(cacheManager.getCache(USER)).thenReturn(userCache);
+        when(cacheManager.getCache(USER_STATE)).thenReturn(userStateCache);
+    }
+
+    @Test
+    void handleUpdateActionForPost() {
+        cacheCoherenceListener.handleUpdateAction(ModelUpdatedEvent.builder()
+                .modelId(post.getId())
+                .modelName(Post.class.getName())
+                .build());
+
+        verify(postCache).evict(post.getId());
+        verifyNoInteractions(commentCache, userCache, userStateCache, postRepository, commentRepository);
+    }
+
+    @Test
+    void handleUpdateActionForComment() {
+        when(commentRepository.findById(comment.getId())).thenReturn(Optional.of(comment));
+
+        cacheCoherenceListener.handleUpdateAction(ModelUpdatedEvent.builder()
+                .modelId(comment.getId())
+                .modelName(Comment.class.getName())
+                .build());
+
+        verify(commentCache).evict(comment.getId());
+        verify(commentRepository).findById(comment.getId());
+        verify(postCache).evict(post.getId());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void handleUpdateActionForUser() {
+        Post commentedPost = Post.builder().id(4L).build();
+        Comment commentOfOtherPost = Comment.builder()
+                .id(5L)
+                .postId(commentedPost.getId())
+                .build();
+        when(postRepository.findIdsByUserId(user.getId())).thenReturn(List.of(Post.builder().id(post.getId()).build()));
+        when(commentRepository.findIdsAndPostIdsByUserId(user.getId())).thenReturn(List.of(commentOfOtherPost));
+
+        cacheCoherenceListener.handleUpdateAction(ModelUpdatedEvent.builder()
+                .modelId(user.getId())
+                .modelName(User.class.getName())
+                .build());
+
+        verify(userCache).evict(user.getId());
+        verify(userStateCache).evict(user.getId());
+        verify(postCache).evict(post.getId());
+        verify(commentCache).evict(commentOfOtherPost.getId());
+        verify(postCache).evict(commentedPost.getId());
+    }
+
+    @Test
+    void handleDeleteActionForUser() {
+        cacheCoherenceListener.handleDeleteAction(ModelDeletedEvent.builder()
+                .model(user)
+                .modelType(ModelType.USER)
+                .build());
+
+        verify(userCache).evict(user.getId());
+        verify(userStateCache).evict(user.getId());
+        verifyNoInteractions(postCache, commentCache, postRepository, commentRepository);
+    }
+
+    @Test
+    void handleDeleteActionForComment() {
+        cacheCoherenceListener.handleDeleteAction(ModelDeletedEvent.builder()
+                .model(comment)
+                .modelType(ModelType.COMMENT)
+                .build());
+
+        verify(commentCache).evict(comment.getId());
+        verify(postCache).evict(post.getId());
+    }
+
+    @Test
+    void handleDeleteActionForPost() {
+        when(commentRepository.findIdsByPostId(post.getId())).thenReturn(List.of(Comment.builder().id(comment.getId()).build()));
+
+        cacheCoherenceListener.handleDeleteAction(ModelDeletedEvent.builder()
+                .model(post)
+                .modelType(ModelType.POST)
+                .build());
+
+        verify(postCache).evict(post.getId());
+        verify(commentCache).evict(comment.getId());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void handleCreateAction() {
+        cacheCoherenceListener.handleCreateAction(ModelCreatedEvent.builder()
+                .modelId(comment.getId())
+                .modelName(Comment.class.getName())
+                .build());
+
+        verify(commentCache).evict(comment.getId());
+        verifyNoInteractions(postCache, userCache);
+    }
+}
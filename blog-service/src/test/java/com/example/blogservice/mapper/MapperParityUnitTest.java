@@ -0,0 +1,183 @@
+package com.example.blogservice.mapper;
+
+import com.example.blogservice.dto.*;
+import com.example.blogservice.mapper.impl.CommentMapperImpl;
+import com.example.blogservice.mapper.impl.PostMapperImpl;
+import com.example.blogservice.mapper.impl.UserMapperImpl;
+import com.example.blogservice.model.*;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.MappingException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapperParityUnitTest {
+
+    private final ModelMapperReference reference = new ModelMapperReference();
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final CommentMapper commentMapper = new CommentMapperImpl(userMapper);
+    private final PostMapper postMapper = new PostMapperImpl(userMapper, commentMapper);
+
+    User user;
+    UserDtoResponse userDtoResponse;
+    UserDtoRequest userDtoRequest;
+    UserDto userDto;
+    Comment comment;
+    CommentDtoRequest commentDtoRequest;
+    PostDtoRequest postDtoRequest;
+
+    @BeforeEach
+    public void setUp() {
+        user = User.builder()
+                .id(1L)
+                .username("Kolya")
+                .password("password")
+                .email("kolya@mail.ru")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .role(Role.ROLE_USER)
+                .build();
+        userDtoResponse = UserDtoResponse.builder()
+                .id(1L)
+                .username("Kolya")
+                .email("kolya@mail.ru")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .build();
+        userDtoRequest = UserDtoRequest.builder()
+                .username("Kolya")
+                .email("kolya@mail.ru")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .build();
+        userDto = UserDto.builder()
+                .id(1L)
+                .username("Kolya")
+                .password("password")
+                .role(Role.ROLE_ADMIN)
+                .build();
+        comment = Comment.builder()
+                .id(2L)
+                .text("Some text")
+                .user(user)
+                .postId(3L)
+                .build();
+        commentDtoRequest = CommentDtoRequest.builder()
+                .text("Some text")
+                .userId(1L)
+                .build();
+        postDtoRequest = PostDtoRequest.builder()
+                .userId(1L)
+                .title("Title")
+                .content("Content")
+                .build();
+    }
+
+    @Test
+    void mapUsers() {
+        assertEquals(reference.mapToUserDtoResponse(user), userMapper.mapToUserDtoResponse(user));
+        assertEquals(reference.mapToUser(1L, userDtoRequest, "password", Role.ROLE_USER),
+                userMapper.mapToUser(1L, userDtoRequest, "password", Role.ROLE_USER));
+        assertEquals(reference.mapToUser(userDtoResponse), userMapper.mapToUser(userDtoResponse));
+        assertEquals(reference.mapToUser(userDto), userMapper.mapToUser(userDto));
+        assertEquals(reference.mapToUserDto(user), userMapper.mapToUserDto(user));
+    }
+
+    @Test
+    void mapUsersWithNullFields() {
+        User emptyUser = new User();
+        UserDtoRequest emptyUserDtoRequest = new UserDtoRequest();
+
+        assertEquals(reference.mapToUserDtoResponse(emptyUser), userMapper.mapToUserDtoResponse(emptyUser));
+        assertEquals(reference.mapToUser(null, emptyUserDtoRequest, null, null),
+                userMapper.mapToUser(null, emptyUserDtoRequest, null, null));
+        assertEquals(reference.mapToUser(new UserDtoResponse()), userMapper.mapToUser(new UserDtoResponse()));
+        assertEquals(reference.mapToUser(new UserDto()), userMapper.mapToUser(new UserDto()));
+        assertEquals(reference.mapToUserDto(emptyUser), userMapper.mapToUserDto(emptyUser));
+    }
+
+    @Test
+    void mapComments() {
+        assertEquals(reference.mapToCommentDtoResponse(comment), commentMapper.mapToCommentDtoResponse(comment));
+        assertNull(commentMapper.mapToCommentDtoResponse((Comment) null));
+        assertEquals(reference.mapToComment(2L, user, commentDtoRequest),
+                commentMapper.mapToComment(2L, user, commentDtoRequest));
+        assertEquals(reference.mapToComment(2L, reference.mapToUser(userDtoResponse), commentDtoRequest),
+                commentMapper.mapToComment(2L, userDtoResponse, commentDtoRequest));
+    }
+
+    @Test
+    void mapPostsFromRequest() {
+        assertEquals(reference.mapToPost(3L, postDtoRequest, userDtoResponse, new ArrayList<>(), 0),
+                postMapper.mapToPost(3L, postDtoRequest, userDtoResponse));
+        List<CommentSummary> latestComments = getLatestComments(5);
+        assertEquals(reference.mapToPost(3L, postDtoRequest, userDtoResponse, latestComments, 12),
+                postMapper.mapToPost(3L, postDtoRequest, userDtoResponse, latestComments, 12));
+    }
+
+    @Test
+    void mapPostsFromRequestWithFile() {
+        postDtoRequest.setFile(new MockMultipartFile("file", "file.txt", "text/plain", new byte[]{1, 2, 3}));
+
+        Post post = postMapper.mapToPost(3L, postDtoRequest, userDtoResponse);
+
+        assertEquals(reference.mapToPost(3L, postDtoRequest, userDtoResponse, new ArrayList<>(), 0), post);
+        assertNull(post.getFile());
+        assertNull(post.getFileName());
+    }
+
+    @Test
+    void mapPostsToResponse() {
+        for (int comments : new int[]{0, 1, 10, 100}) {
+            Post post = getPost(comments);
+
+            assertEquals(reference.mapToPostDtoResponse(post), postMapper.mapToPostDtoResponse(post));
+        }
+        Post post = getPost(0);
+        post.setLatestComments(null);
+
+        PostDtoResponse postDtoResponse = postMapper.mapToPostDtoResponse(post);
+
+        assertEquals(reference.mapToPostDtoResponse(post), postDtoResponse);
+        assertEquals(List.of(), postDtoResponse.getComments());
+    }
+
+    @Test
+    void mapPostsWithFileToResponse() {
+        Post post = getPost(1);
+        post.setFile(new ObjectId());
+
+        PostDtoResponse postDtoResponse = postMapper.mapToPostDtoResponse(post);
+
+        assertThrows(MappingException.class, () -> reference.mapToPostDtoResponse(post));
+        assertNull(postDtoResponse.getFile());
+        post.setFile(null);
+        assertEquals(reference.mapToPostDtoResponse(post), postDtoResponse);
+    }
+
+    private Post getPost(int comments) {
+        return Post.builder()
+                .id(3L)
+                .title("Title")
+                .content("Content")
+                .user(user)
+                .latestComments(getLatestComments(comments))
+                .commentCount(comments)
+                .build();
+    }
+
+    private static List<CommentSummary> getLatestComments(int comments) {
+        return new ArrayList<>(LongStream.rangeClosed(1, comments)
+                .mapToObj(commentId -> CommentSummary.builder()
+                        .id(commentId)
+                        .text("Comment " + commentId)
+                        .userId(commentId % 3 + 1)
+                        .username("user" + (commentId % 3 + 1))
+                        .build())
+                .toList());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.blogservice.mapper;
+
+import com.example.blogservice.dto.*;
+import com.example.blogservice.model.*;
+import org.modelmapper.ModelMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The mappings as they were done by ModelMapper before the mappers were written by hand.
+ * Kept as the reference the mappers are compared against in tests.
+ */
+public class ModelMapperReference {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    public UserDtoResponse mapToUserDtoResponse(User user) {
+        return modelMapper.map(user, UserDtoResponse.class);
+    }
+
+    public User mapToUser(Long userId, UserDtoRequest userDtoRequest, String password, Role role) {
+        User user = modelMapper.map(userDtoRequest, User.class);
+        user.setId(userId);
+        user.setPassword(password);
+        user.setRole(role);
+        return user;
+    }
+
+    public User mapToUser(UserDtoResponse userDtoResponse) {
+        return modelMapper.map(userDtoResponse, User.class);
+    }
+
+    public User mapToUser(UserDto userDto) {
+        return modelMapper.map(userDto, User.class);
+    }
+
+    public UserDto mapToUserDto(User user) {
+        return modelMapper.map(user, UserDto.class);
+    }
+
+    public CommentDtoResponse mapToCommentDtoResponse(Comment comment) {
+        if (comment != null) {
+            CommentDtoResponse commentDtoResponse = modelMapper.map(comment, CommentDtoResponse.class);
+            commentDtoResponse.setUserDtoResponse(mapToUserDtoResponse(comment.getUser()));
+            return commentDtoResponse;
+        }
+        return null;
+    }
+
+    public CommentDtoResponse mapToCommentDtoResponse(CommentSummary commentSummary) {
+        return CommentDtoResponse.builder()
+                .id(commentSummary.getId())
+                .text(commentSummary.getText())
+                .userDtoResponse(UserDtoResponse.builder()
+                        .id(commentSummary.getUserId())
+                        .username(commentSummary.getUsername())
+                        .build())
+                .build();
+    }
+
+    public Comment mapToComment(Long commentId, User user, CommentDtoRequest commentDtoRequest) {
+        Comment comment = modelMapper.map(commentDtoRequest, Comment.class);
+        comment.setUser(user);
+        comment.setId(commentId);
+        return comment;
+    }
+
+    public Post mapToPost(Long postId, PostDtoRequest postDtoRequest, UserDtoResponse userDtoResponse,
+                          List<CommentSummary> latestComments, long commentCount) {
+        Post post = modelMapper.map(postDtoRequest, Post.class);
+        // the name and type of the file are matched to the multipart file, they are set only when it is stored
+        post.setFileName(null);
+        post.setFileType(null);
+        post.setUser(mapToUser(userDtoResponse));
+        post.setId(postId);
+        post.setLatestComments(latestComments);
+        post.setCommentCount(commentCount);
+        return post;
+    }
+
+    public PostDtoResponse mapToPostDtoResponse(Post post) {
+        PostDtoResponse postDtoResponse = modelMapper.map(post, PostDtoResponse.class);
+        postDtoResponse.setUserDtoResponse(mapToUserDtoResponse(post.getUser()));
+        postDtoResponse.setComments(post.getLatestComments() == null || post.getLatestComments().isEmpty() ?
+                new ArrayList<>() :
+                post.getLatestComments().stream()
+                        .map(this::mapToCommentDtoResponse)
+                        .collect(Collectors.toList()));
+        postDtoResponse.setCommentCount(post.getCommentCount());
+        return postDtoResponse;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.blogservice.monitoring;
+
+import com.example.blogservice.props.QueryBudgetProps;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static com.example.blogservice.monitoring.QueryBudgetFilter.QUERY_COUNT_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryBudgetFilterUnitTest {
+
+    private final QueryBudgetTracker queryBudgetTracker = new QueryBudgetTracker(Duration.ofMillis(200));
+    private final QueryBudgetProps queryBudgetProps = new QueryBudgetProps();
+    private final QueryBudgetFilter queryBudgetFilter = new QueryBudgetFilter(queryBudgetTracker, queryBudgetProps);
+
+    @Test
+    void doFilterWithQueryCountHeader() throws Exception {
+        queryBudgetProps.setHeaderEnabled(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain filterChain = (request, filteredResponse) -> {
+            runCommands(3);
+            filteredResponse.getWriter().write("body");
+            filteredResponse.flushBuffer();
+            runCommands(1);
+        };
+
+        queryBudgetFilter.doFilter(new MockHttpServletRequest("GET", "/posts"), response, filterChain);
+
+        assertEquals("3", response.getHeader(QUERY_COUNT_HEADER));
+        assertTrue(queryBudgetTracker.getCurrentBudget().isEmpty());
+    }
+
+    @Test
+    void doFilterWithQueryCountHeaderNotCommitted() throws Exception {
+        queryBudgetProps.setHeaderEnabled(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        queryBudgetFilter.doFilter(new MockHttpServletRequest("DELETE", "/posts/1"), response,
+                (request, filteredResponse) -> runCommands(2));
+
+        assertEquals("2", response.getHeader(QUERY_COUNT_HEADER));
+    }
+
+    @Test
+    void doFilterWithoutQueryCountHeader() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        queryBudgetFilter.doFilter(new MockHttpServletRequest("GET", "/posts"), response,
+                (request, filteredResponse) -> runCommands(queryBudgetProps.getMaxCommands() + 1));
+
+        assertNull(response.getHeader(QUERY_COUNT_HEADER));
+        assertTrue(queryBudgetTracker.getCurrentBudget().isEmpty());
+    }
+
+    private void runCommands(int commands) {
+        QueryBudget budget = queryBudgetTracker.getCurrentBudget().orElseThrow();
+        for (int i = 0; i < commands; i++)
+            budget.addCommand("find post {_id: ?}");
+    }
+}
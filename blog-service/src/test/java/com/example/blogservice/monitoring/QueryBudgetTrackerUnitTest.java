@@ -0,0 +1,113 @@
+package com.example.blogservice.monitoring;
+
+import com.mongodb.RequestContext;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class QueryBudgetTrackerUnitTest {
+
+    private final QueryBudgetTracker queryBudgetTracker = new QueryBudgetTracker(Duration.ofMillis(200));
+    private final RequestContext requestContext = mock(RequestContext.class);
+    private final ConnectionDescription connectionDescription =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    @AfterEach
+    public void tearDown() {
+        queryBudgetTracker.stop();
+    }
+
+    @Test
+    void getShape() {
+        BsonDocument command = new BsonDocument("find", new BsonString("post"))
+                .append("filter", new BsonDocument("_id", new BsonDocument("$in",
+                        new BsonArray(List.of(new BsonInt64(1), new BsonInt64(2)))))
+                        .append("$or", new BsonArray(List.of(new BsonDocument("title", new BsonString("title")),
+                                new BsonDocument("content", new BsonString("content"))))))
+                .append("limit", new BsonInt32(1));
+
+        String actual = QueryBudgetTracker.getShape("find", command);
+
+        assertEquals("find post {_id: {$in: ?}, $or: [{title: ?}, {content: ?}]}", actual);
+    }
+
+    @Test
+    void getShapeOfUpdate() {
+        BsonDocument command = new BsonDocument("update", new BsonString("post"))
+                .append("updates", new BsonArray(List.of(new BsonDocument("q", new BsonDocument("_id", new BsonInt64(1)))
+                        .append("u", new BsonDocument("$inc", new BsonDocument("commentCount", new BsonInt32(1)))))));
+
+        String actual = QueryBudgetTracker.getShape("update", command);
+
+        assertEquals("update post {_id: ?}", actual);
+    }
+
+    @Test
+    void countCommandsOfStartedBudget() {
+        BsonDocument find = new BsonDocument("find", new BsonString("post"))
+                .append("filter", new BsonDocument("_id", new BsonInt64(1)));
+        queryBudgetTracker.commandStarted(startedEvent(1, "find", find));
+        QueryBudget budget = queryBudgetTracker.start();
+
+        queryBudgetTracker.commandStarted(startedEvent(2, "find", find));
+        queryBudgetTracker.commandSucceeded(succeededEvent(2, new BsonDocument()));
+        queryBudgetTracker.commandStarted(startedEvent(3, "find", find));
+        queryBudgetTracker.commandSucceeded(succeededEvent(3, new BsonDocument()));
+        queryBudgetTracker.stop();
+        queryBudgetTracker.commandStarted(startedEvent(4, "find", find));
+
+        assertEquals(2, budget.getCommandCount());
+        assertEquals(Map.of("find post {_id: ?}", 2), budget.getCommandShapes());
+        assertEquals(0, budget.getGridFsBytes());
+        assertTrue(queryBudgetTracker.getCurrentBudget().isEmpty());
+    }
+
+    @Test
+    void countGridFsBytes() {
+        QueryBudget budget = queryBudgetTracker.start();
+        BsonDocument chunk = new BsonDocument("n", new BsonInt32(0)).append("data", new BsonBinary(new byte[10]));
+
+        queryBudgetTracker.commandStarted(startedEvent(1, "insert", new BsonDocument("insert", new BsonString("fs.chunks"))
+                .append("documents", new BsonArray(List.of(chunk)))));
+        queryBudgetTracker.commandSucceeded(succeededEvent(1, new BsonDocument("n", new BsonInt32(1))));
+        queryBudgetTracker.commandStarted(startedEvent(2, "find", new BsonDocument("find", new BsonString("fs.chunks"))
+                .append("filter", new BsonDocument("files_id", new BsonInt64(1)))));
+        queryBudgetTracker.commandSucceeded(succeededEvent(2, new BsonDocument("cursor",
+                new BsonDocument("firstBatch", new BsonArray(List.of(chunk, chunk))))));
+        queryBudgetTracker.commandStarted(startedEvent(3, "getMore", new BsonDocument("getMore", new BsonInt64(7))
+                .append("collection", new BsonString("fs.chunks"))));
+        queryBudgetTracker.commandSucceeded(succeededEvent(3, new BsonDocument("cursor",
+                new BsonDocument("nextBatch", new BsonArray(List.of(chunk))))));
+
+        assertEquals(3, budget.getCommandCount());
+        assertEquals(40, budget.getGridFsBytes());
+        assertTrue(budget.getGridFsRequestIds().isEmpty());
+    }
+
+    private CommandStartedEvent startedEvent(int requestId, String commandName, BsonDocument command) {
+        return new CommandStartedEvent(requestContext, requestId, connectionDescription, "db", commandName, command);
+    }
+
+    private CommandSucceededEvent succeededEvent(int requestId, BsonDocument response) {
+        return new CommandSucceededEvent(requestContext, requestId, connectionDescription, "find", response, 1000);
+    }
+}
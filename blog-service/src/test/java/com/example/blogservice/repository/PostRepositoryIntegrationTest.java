@@ -0,0 +1,139 @@
+package com.example.blogservice.repository;
+
+import com.example.blogservice.dto.PostDtoResponse;
+import com.example.blogservice.initializer.DatabaseContainerInitializer;
+import com.example.blogservice.mapper.CommentMapper;
+import com.example.blogservice.mapper.PostMapper;
+import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
+import com.example.blogservice.model.Post;
+import com.example.blogservice.model.Role;
+import com.example.blogservice.model.User;
+import com.example.blogservice.props.CommentSummaryProps;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a page of posts with batched resolution of references is the same as with references
+ * resolved one by one, and that it takes at most three queries.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PostRepositoryIntegrationTest extends DatabaseContainerInitializer {
+
+    private static final int USERS = 20;
+    private static final int POSTS = 50;
+    private static final int COMMENTS_PER_POST = 10;
+    private static final AtomicInteger queryCount = new AtomicInteger();
+
+    @TestConfiguration
+    static class QueryCountConfig {
+        @Bean
+        public MongoClientSettingsBuilderCustomizer queryCountCustomizer() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (event.getCommandName().equals("find"))
+                        queryCount.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private CommentSummaryProps commentSummaryProps;
+
+    private final Pageable pageable = PageRequest.of(0, 20, Sort.by("id"));
+
+    @BeforeEach
+    public void setUp() {
+        List<User> users = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++)
+            users.add(userRepository.save(User.builder()
+                    .id(userId)
+                    .username("user" + userId)
+                    .email("user" + userId + "@mail.ru")
+                    .password("password")
+                    .dateOfBirth(LocalDate.now().minusYears(20))
+                    .role(Role.ROLE_USER)
+                    .build()));
+        long commentId = 1;
+        for (long postId = 1; postId <= POSTS; postId++) {
+            List<CommentSummary> latestComments = new ArrayList<>();
+            for (int i = 0; i < COMMENTS_PER_POST; i++, commentId++)
+                latestComments.add(commentMapper.mapToCommentSummary(commentRepository.save(Comment.builder()
+                        .id(commentId)
+                        .text("Comment " + commentId)
+                        .user(users.get((int) (commentId % USERS)))
+                        .postId(postId)
+                        .build())));
+            Collections.reverse(latestComments);
+            postRepository.save(Post.builder()
+                    .id(postId)
+                    .title("Post " + postId)
+                    .content("Content of post " + postId)
+                    .user(users.get((int) (postId % USERS)))
+                    .latestComments(new ArrayList<>(latestComments.subList(0, commentSummaryProps.getSize())))
+                    .commentCount(COMMENTS_PER_POST)
+                    .build());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        postRepository.deleteAll();
+        commentRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findAllWithReferences() {
+        List<PostDtoResponse> expected = postRepository.findAll(pageable)
+                .map(postMapper::mapToPostDtoResponse)
+                .getContent();
+
+        queryCount.set(0);
+        List<PostDtoResponse> actual = postRepository.findAllWithReferences(pageable)
+                .map(postMapper::mapToPostDtoResponse)
+                .getContent();
+
+        assertEquals(expected, actual);
+        assertTrue(queryCount.get() <= 3);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.blogservice.security;
+
+import com.example.blogservice.exception.PasswordHashingUnavailableException;
+import com.example.blogservice.security.encoder.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderUnitTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private CountDownLatch hashingStarted;
+    private CountDownLatch releaseHashing;
+    private BoundedPasswordEncoder boundedPasswordEncoder;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+        hashingStarted = new CountDownLatch(1);
+        releaseHashing = new CountDownLatch(0);
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), executor,
+                Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseHashing.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches() {
+        String encodedPassword = boundedPasswordEncoder.encode("password");
+
+        assertEquals("{hashed}password", encodedPassword);
+        assertTrue(boundedPasswordEncoder.matches("password", encodedPassword));
+        assertFalse(boundedPasswordEncoder.matches("other", encodedPassword));
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void matchesFailWhenQueueIsFull() throws Exception {
+        releaseHashing = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(
+                () -> boundedPasswordEncoder.matches("password", "{hashed}password"));
+        assertTrue(hashingStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(
+                () -> boundedPasswordEncoder.matches("password", "{hashed}password"));
+        while (executor.getThreadPoolExecutor().getQueue().isEmpty())
+            Thread.onSpinWait();
+
+        assertThrows(PasswordHashingUnavailableException.class,
+                () -> boundedPasswordEncoder.matches("password", "{hashed}password"));
+        assertEquals(1, meterRegistry.get("password.hashing.queue.size").gauge().value());
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        releaseHashing.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matchesFailOnTimeout() {
+        releaseHashing = new CountDownLatch(1);
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), executor,
+                Duration.ofMillis(50), meterRegistry);
+
+        assertThrows(PasswordHashingUnavailableException.class,
+                () -> boundedPasswordEncoder.matches("password", "{hashed}password"));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+    }
+
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{hashed}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            hashingStarted.countDown();
+            try {
+                releaseHashing.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.blogservice.security;
+
+import com.example.blogservice.security.encoder.CostAwareBCryptPasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostAwareBCryptPasswordEncoderUnitTest {
+
+    private static final String PASSWORD = "password";
+
+    @Test
+    void upgradeEncodingWithSameCost() {
+        CostAwareBCryptPasswordEncoder passwordEncoder = new CostAwareBCryptPasswordEncoder(4);
+
+        assertFalse(passwordEncoder.upgradeEncoding(passwordEncoder.encode(PASSWORD)));
+    }
+
+    @Test
+    void upgradeEncodingWithHigherCost() {
+        String encodedPassword = new CostAwareBCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(new CostAwareBCryptPasswordEncoder(5).upgradeEncoding(encodedPassword));
+    }
+
+    @Test
+    void upgradeEncodingWithLowerCost() {
+        String encodedPassword = new CostAwareBCryptPasswordEncoder(5).encode(PASSWORD);
+        CostAwareBCryptPasswordEncoder passwordEncoder = new CostAwareBCryptPasswordEncoder(4);
+
+        assertTrue(passwordEncoder.upgradeEncoding(encodedPassword));
+        assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+    }
+
+    @Test
+    void upgradeEncodingNotBCrypt() {
+        CostAwareBCryptPasswordEncoder passwordEncoder = new CostAwareBCryptPasswordEncoder(4);
+
+        assertFalse(passwordEncoder.upgradeEncoding(null));
+        assertFalse(passwordEncoder.upgradeEncoding(PASSWORD));
+    }
+
+    @Test
+    void delegatingMatchesLegacyPassword() {
+        CostAwareBCryptPasswordEncoder bCryptPasswordEncoder = new CostAwareBCryptPasswordEncoder(4);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", bCryptPasswordEncoder));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+        String legacyPassword = bCryptPasswordEncoder.encode(PASSWORD);
+
+        assertTrue(passwordEncoder.matches(PASSWORD, legacyPassword));
+        assertTrue(passwordEncoder.upgradeEncoding(legacyPassword));
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        assertTrue(encodedPassword.startsWith("{bcrypt}"));
+        assertFalse(passwordEncoder.upgradeEncoding(encodedPassword));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.blogservice.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.blogservice.props.VerifiedTokenCacheProps;
+import com.example.blogservice.security.provider.JwtAuthenticationProvider;
+import com.example.blogservice.security.service.UserStateService;
+import com.example.blogservice.security.token.JwtAuthenticationToken;
+import com.example.blogservice.security.token.VerifiedTokenCache;
+import com.example.blogservice.security.user.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Date;
+
+import static com.example.blogservice.security.filter.JwtAuthenticationTokenFilter.TOKEN_PREFIX;
+import static com.example.blogservice.utils.TestUtil.SUBJECT;
+import static com.example.blogservice.utils.TestUtil.getJwtToken;
+import static java.lang.System.currentTimeMillis;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class JwtAuthenticationProviderUnitTest {
+
+    private final Algorithm algorithm = Algorithm.HMAC256("secret".getBytes());
+
+    private JwtAuthenticationProvider jwtAuthenticationProvider;
+    @Mock
+    private ObjectProvider<UserStateService> userStateServiceProvider;
+    @Mock
+    private UserStateService userStateService;
+    @Mock
+    private ObjectProvider<VerifiedTokenCache> verifiedTokenCacheProvider;
+
+    String token;
+
+    @BeforeEach
+    public void setUp() {
+        jwtAuthenticationProvider = new JwtAuthenticationProvider(JWT.require(algorithm).build(), userStateServiceProvider,
+                verifiedTokenCacheProvider);
+        token = getJwtToken().substring(TOKEN_PREFIX.length());
+    }
+
+    @Test
+    void authenticateByClaims() {
+        Authentication actual = jwtAuthenticationProvider.authenticate(new JwtAuthenticationToken(token));
+
+        AuthenticatedUser principal = (AuthenticatedUser) actual.getPrincipal();
+        assertEquals(new AuthenticatedUser(SUBJECT, token, "ROLE_ADMIN"), principal);
+        assertEquals(1L, principal.getUserId());
+        assertTrue(actual.isAuthenticated());
+    }
+
+    @Test
+    void authenticateFailSignature() {
+        String otherToken = JWT.create()
+                .withSubject(SUBJECT)
+                .withExpiresAt(new Date(currentTimeMillis() + 1000 * 60))
+                .withClaim("userId", 1L)
+                .withClaim("roles", "ROLE_ADMIN")
+                .sign(Algorithm.HMAC256("other secret".getBytes()));
+
+        assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> jwtAuthenticationProvider.authenticate(new JwtAuthenticationToken(otherToken)));
+    }
+
+    @Test
+    void authenticateFromVerifiedTokenCache() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        when(verifiedTokenCacheProvider.getIfAvailable())
+                .thenReturn(new VerifiedTokenCache(new VerifiedTokenCacheProps(), meterRegistry));
+
+        Authentication first = jwtAuthenticationProvider.authenticate(new JwtAuthenticationToken(token));
+        Authentication second = jwtAuthenticationProvider.authenticate(new JwtAuthenticationToken(token));
+
+        assertEquals(first.getPrincipal(), second.getPrincipal());
+        assertEquals(1L, ((AuthenticatedUser) second.getPrincipal()).getUserId());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", VerifiedTokenCache.CACHE_NAME, "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", VerifiedTokenCache.CACHE_NAME, "result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void authenticateFailSignatureWithVerifiedTokenCache() {
+        when(verifiedTokenCacheProvider.getIfAvailable())
+                .thenReturn(new VerifiedTokenCache(new VerifiedTokenCacheProps(), new SimpleMeterRegistry()));
+        String otherToken = token.substring(0, token.lastIndexOf('.') + 1) + "c2lnbmF0dXJl";
+
+        assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> jwtAuthenticationProvider.authenticate(new JwtAuthenticationToken(otherToken)));
+        assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> jwtAuthenticationProvider.authenticate(new JwtAuthenticationToken(otherToken)));
+    }
+
+    @Test
+    void authenticateWithUserState() {
+        when(userStateServiceProvider.getIfAvailable()).thenReturn(userStateService);
+        when(userStateService.isActual(any(AuthenticatedUser.class))).thenReturn(true);
+
+        Authentication actual = jwtAuthenticationProvider.authenticate(new JwtAuthenticationToken(token));
+
+        assertEquals(new AuthenticatedUser(SUBJECT, token, "ROLE_ADMIN"), actual.getPrincipal());
+        verify(userStateService).isActual(new AuthenticatedUser(SUBJECT, token, "ROLE_ADMIN"));
+    }
+
+    @Test
+    void authenticateFailUserState() {
+        when(userStateServiceProvider.getIfAvailable()).thenReturn(userStateService);
+        when(userStateService.isActual(any(AuthenticatedUser.class))).thenReturn(false);
+
+        AuthenticationCredentialsNotFoundException actual = assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> jwtAuthenticationProvider.authenticate(new JwtAuthenticationToken(token)));
+
+        assertTrue(actual.getMessage().contains("User of token has been changed or deleted"));
+    }
+}
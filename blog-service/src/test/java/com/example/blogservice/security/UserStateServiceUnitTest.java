@@ -0,0 +1,79 @@
+package com.example.blogservice.security;
+
+import com.example.blogservice.model.Role;
+import com.example.blogservice.model.User;
+import com.example.blogservice.repository.UserRepository;
+import com.example.blogservice.security.service.impl.UserStateServiceImpl;
+import com.example.blogservice.security.user.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static com.example.blogservice.utils.ConstantUtil.CacheName.USER_STATE;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class UserStateServiceUnitTest {
+    @InjectMocks
+    private UserStateServiceImpl userStateService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private CacheManager cacheManager;
+
+    User user;
+    AuthenticatedUser authenticatedUser;
+
+    @BeforeEach
+    public void setUp() {
+        user = User.builder()
+                .id(1L)
+                .username("Myachin")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build();
+        authenticatedUser = new AuthenticatedUser("Myachin", "token", Role.ROLE_USER.name(), 1L);
+        when(cacheManager.getCache(USER_STATE)).thenReturn(new ConcurrentMapCache(USER_STATE));
+    }
+
+    @Test
+    void isActualReadsUserOnce() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertTrue(userStateService.isActual(authenticatedUser));
+        assertTrue(userStateService.isActual(authenticatedUser));
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void isActualFailRole() {
+        user.setRole(Role.ROLE_ADMIN);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertFalse(userStateService.isActual(authenticatedUser));
+    }
+
+    @Test
+    void isActualFailDeletedUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertFalse(userStateService.isActual(authenticatedUser));
+    }
+
+    @Test
+    void isActualFailNoUserId() {
+        assertFalse(userStateService.isActual(new AuthenticatedUser("Myachin", "token", Role.ROLE_USER.name())));
+
+        verifyNoInteractions(userRepository);
+    }
+}
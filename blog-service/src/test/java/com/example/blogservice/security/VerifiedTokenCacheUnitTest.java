@@ -0,0 +1,66 @@
+package com.example.blogservice.security;
+
+import com.example.blogservice.props.VerifiedTokenCacheProps;
+import com.example.blogservice.security.token.VerifiedToken;
+import com.example.blogservice.security.token.VerifiedTokenCache;
+import com.example.blogservice.security.user.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VerifiedTokenCacheUnitTest {
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private AtomicInteger verifications;
+
+    AuthenticatedUser authenticatedUser;
+
+    @BeforeEach
+    public void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(new VerifiedTokenCacheProps(), new SimpleMeterRegistry());
+        verifications = new AtomicInteger();
+        authenticatedUser = new AuthenticatedUser("Myachin", "token", "ROLE_USER", 1L);
+    }
+
+    @Test
+    void getVerifiesTokenOnce() {
+        Function<String, VerifiedToken> verifier = getVerifier(Instant.now().plusSeconds(60));
+
+        assertEquals(authenticatedUser, verifiedTokenCache.get("token", verifier));
+        assertEquals(authenticatedUser, verifiedTokenCache.get("token", verifier));
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void getExpiresWithToken() {
+        Function<String, VerifiedToken> verifier = getVerifier(Instant.now().minusSeconds(1));
+
+        verifiedTokenCache.get("token", verifier);
+        verifiedTokenCache.get("token", verifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void getDoesNotCacheTokenWithoutExpiry() {
+        Function<String, VerifiedToken> verifier = getVerifier(null);
+
+        verifiedTokenCache.get("token", verifier);
+        verifiedTokenCache.get("token", verifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    private Function<String, VerifiedToken> getVerifier(Instant expiresAt) {
+        return token -> {
+            verifications.incrementAndGet();
+            return new VerifiedToken(authenticatedUser, expiresAt);
+        };
+    }
+}
@@ -9,6 +9,7 @@ import com.example.blogservice.exception.NotValidCredentialsException;
 import com.example.blogservice.exception.ResourceNotFoundException;
 import com.example.blogservice.initializer.DatabaseContainerInitializer;
 import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
 import com.example.blogservice.model.Post;
 import com.example.blogservice.model.Role;
 import com.example.blogservice.model.User;
@@ -102,6 +103,7 @@ public class CommentServiceIntegrationTest extends DatabaseContainerInitializer
                 .id(1L)
                 .user(user)
                 .text("someText")
+                .postId(1L)
                 .build();
         commentDtoRequest = CommentDtoRequest.builder()
                 .userId(1L)
@@ -117,7 +119,13 @@ public class CommentServiceIntegrationTest extends DatabaseContainerInitializer
                 .content("someContent")
                 .title("Yayaya")
                 .user(user)
-                .comments(List.of(comment))
+                .latestComments(List.of(CommentSummary.builder()
+                        .id(1L)
+                        .text("someText")
+                        .userId(1L)
+                        .username("Myachin")
+                        .build()))
+                .commentCount(1)
                 .build();
         postDtoResponse = PostDtoResponse.builder()
                 .id(1L)
@@ -201,7 +209,8 @@ public class CommentServiceIntegrationTest extends DatabaseContainerInitializer
     void findCommentByPostIdAndFailCommentId() {
         String expectedMessage = "Comment wasn't found by id=10 from Post with id=1";
         userRepository.save(user);
-        post.setComments(List.of());
+        post.setLatestComments(List.of());
+        post.setCommentCount(0);
         postRepository.save(post);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
@@ -215,7 +224,8 @@ public class CommentServiceIntegrationTest extends DatabaseContainerInitializer
     void save() {
         CommentDtoResponse expected = commentDtoResponse;
         userRepository.save(user);
-        post.setComments(List.of());
+        post.setLatestComments(List.of());
+        post.setCommentCount(0);
         postRepository.save(post);
         when(sequenceGeneratorService.generateSequence(Comment.SEQUENCE_NAME)).thenReturn(1L);
 
@@ -296,7 +306,8 @@ public class CommentServiceIntegrationTest extends DatabaseContainerInitializer
     void updateFailCommentId() {
         String expectedMessage = "Comment wasn't found by id=10";
         userRepository.save(user);
-        post.setComments(List.of());
+        post.setLatestComments(List.of());
+        post.setCommentCount(0);
         postRepository.save(post);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
@@ -315,7 +326,8 @@ public class CommentServiceIntegrationTest extends DatabaseContainerInitializer
         commentService.delete(comment.getId(), post.getId(), authenticatedUser);
 
         assertFalse(commentRepository.existsById(comment.getId()));
-        assertFalse(postRepository.findById(post.getId()).get().getComments().contains(comment));
+        assertTrue(postRepository.findById(post.getId()).get().getLatestComments().stream()
+                .noneMatch(commentSummary -> commentSummary.getId().equals(comment.getId())));
     }
 
     @Test
@@ -323,7 +335,8 @@ public class CommentServiceIntegrationTest extends DatabaseContainerInitializer
     void deleteFailCommentId() {
         String expectedMessage = "Comment wasn't found by id=10";
         userRepository.save(user);
-        post.setComments(List.of());
+        post.setLatestComments(List.of());
+        post.setCommentCount(0);
         postRepository.save(post);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
@@ -347,19 +360,6 @@ public class CommentServiceIntegrationTest extends DatabaseContainerInitializer
         assertTrue(exception.getMessage().contains(expectedMessage));
     }
 
-    @Test
-    @Order(15)
-    void deleteAllByUser() {
-        userRepository.save(user);
-        postRepository.save(post);
-        commentRepository.save(comment);
-
-        commentService.deleteAllByUser(user);
-
-        assertFalse(commentRepository.existsById(comment.getId()));
-        assertFalse(postRepository.findById(post.getId()).get().getComments().contains(comment));
-    }
-
     @Test
     @Order(16)
     void deleteAllByPost() {
@@ -28,10 +28,8 @@ import org.springframework.data.domain.*;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -89,6 +87,7 @@ class CommentServiceUnitTest {
                 .id(1L)
                 .user(user)
                 .text("someText")
+                .postId(1L)
                 .build();
         commentDtoRequest = modelMapper.map(comment, CommentDtoRequest.class);
         commentDtoRequest.setUserId(1L);
@@ -99,7 +98,6 @@ class CommentServiceUnitTest {
                 .content("someContent")
                 .title("Yayaya")
                 .user(user)
-                .comments(List.of(comment))
                 .build();
 
         postDtoRequest = modelMapper.map(post, PostDtoRequest.class);
@@ -136,50 +134,89 @@ class CommentServiceUnitTest {
 
     @Test
     void findAllCommentsByPost() {
-        List<Long> idsList = postDtoResponse.getComments().stream()
-                .map(comment -> commentDtoResponse.getId())
-                .collect(Collectors.toList());
         Pageable pageable = PageRequest.of(0, 3, Sort.by("id"));
         List<Comment> commentsList = List.of(comment);
         Page<Comment> commentPage = new PageImpl<>(commentsList, pageable, 1);
         Page<CommentDtoResponse> expected = new PageImpl<>(List.of(commentDtoResponse), pageable, 1);
-        when(postService.getById(post.getId())).thenReturn(postDtoResponse);
-        when(commentRepository.findAllByIdIn(idsList, pageable)).thenReturn(commentPage);
+        when(postService.existsById(post.getId())).thenReturn(true);
+        when(commentRepository.findAllByPostIdWithReferences(post.getId(), pageable)).thenReturn(commentPage);
         when(commentMapper.mapToCommentDtoResponse(comment)).thenReturn(commentDtoResponse);
 
 
         Page<CommentDtoResponse> actual = commentService.findAllCommentsByPost(post.getId(), pageable);
 
         assertEquals(expected, actual);
-        verify(postService).getById(post.getId());
-        verify(commentRepository).findAllByIdIn(idsList, pageable);
+        verify(postService).existsById(post.getId());
+        verify(commentRepository).findAllByPostIdWithReferences(post.getId(), pageable);
         verify(commentMapper).mapToCommentDtoResponse(comment);
     }
 
+    @Test
+    void findAllCommentsByPostFail() {
+        String expectedMessage = "Post wasn't found by id=1";
+        Pageable pageable = PageRequest.of(0, 3, Sort.by("id"));
+        when(postService.existsById(post.getId())).thenReturn(false);
+
+        ResourceNotFoundException actual = assertThrows(ResourceNotFoundException.class,
+                () -> commentService.findAllCommentsByPost(post.getId(), pageable));
+
+        assertTrue(actual.getMessage().contains(expectedMessage));
+        verify(commentRepository, never()).findAllByPostIdWithReferences(post.getId(), pageable);
+    }
+
+    @Test
+    void findAllCommentsByPostAfter() {
+        Sort sort = Sort.by("id");
+        CursorSlice<Comment> slice = new CursorSlice<>(List.of(comment), 3, sort, null);
+        CursorSlice<CommentDtoResponse> expected = new CursorSlice<>(List.of(commentDtoResponse), 3, sort, null);
+        when(postService.existsById(post.getId())).thenReturn(true);
+        when(commentRepository.findAllByPostIdAfter(post.getId(), "cursor", 3, sort)).thenReturn(slice);
+        when(commentMapper.mapToCommentDtoResponse(comment)).thenReturn(commentDtoResponse);
+
+        CursorSlice<CommentDtoResponse> actual = commentService.findAllCommentsByPostAfter(post.getId(), "cursor", 3, sort);
+
+        assertEquals(expected, actual);
+        assertFalse(actual.hasNext());
+        verify(commentRepository).findAllByPostIdAfter(post.getId(), "cursor", 3, sort);
+    }
+
+    @Test
+    void findAllCommentsByPostAfterFail() {
+        String expectedMessage = "Post wasn't found by id=1";
+        Sort sort = Sort.by("id");
+        when(postService.existsById(post.getId())).thenReturn(false);
+
+        ResourceNotFoundException actual = assertThrows(ResourceNotFoundException.class,
+                () -> commentService.findAllCommentsByPostAfter(post.getId(), null, 3, sort));
+
+        assertTrue(actual.getMessage().contains(expectedMessage));
+        verify(commentRepository, never()).findAllByPostIdAfter(post.getId(), null, 3, sort);
+    }
+
     @Test
     void findCommentByPostIdAndCommentId() {
         CommentDtoResponse expected = commentDtoResponse;
-        when(postService.getById(post.getId())).thenReturn(postDtoResponse);
+        when(commentRepository.findByIdAndPostId(comment.getId(), post.getId())).thenReturn(Optional.of(comment));
+        when(commentMapper.mapToCommentDtoResponse(comment)).thenReturn(commentDtoResponse);
 
         CommentDtoResponse actual = commentService.findCommentByPostIdAndCommentId(post.getId(), comment.getId());
 
         assertEquals(expected, actual);
-        verify(postService).getById(post.getId());
+        verify(commentRepository).findByIdAndPostId(comment.getId(), post.getId());
     }
 
     @Test
     void findCommentByPostIdAndCommentIdFail() {
         String expectedMessage = "Comment wasn't found by id=1 from Post with id=1";
-        CommentDtoResponse expected = commentDtoResponse;
-        postDtoResponse.setComments(new ArrayList<>());
-        when(postService.getById(post.getId())).thenReturn(postDtoResponse);
+        when(commentRepository.findByIdAndPostId(comment.getId(), post.getId())).thenReturn(Optional.empty());
 
         ResourceNotFoundException message = assertThrows(ResourceNotFoundException.class,
                 () -> commentService.findCommentByPostIdAndCommentId(post.getId(), comment.getId()));
 
 
         assertTrue(message.getMessage().contains(expectedMessage));
-        verify(postService).getById(post.getId());
+        verify(commentRepository).findByIdAndPostId(comment.getId(), post.getId());
+        verify(commentMapper, never()).mapToCommentDtoResponse(comment);
     }
 
     @Test
@@ -203,7 +240,7 @@ class CommentServiceUnitTest {
         verify(commentMapper).mapToCommentDtoResponse(comment);
         verify(applicationEventPublisher).publishEvent(modelCreatedEvent);
         verify(postService).addCommentToPost(post.getId(), comment);
-
+        assertEquals(post.getId(), comment.getPostId());
     }
 
     @Test
@@ -252,7 +289,6 @@ class CommentServiceUnitTest {
         when(commentRepository.findById(comment.getId())).thenReturn(Optional.ofNullable(comment));
         when(commentMapper.mapToComment(comment.getId(), comment.getUser(), commentDtoRequest)).thenReturn(comment);
         when(commentRepository.save(comment)).thenReturn(comment);
-        when(postService.getById(post.getId())).thenReturn(postDtoResponse);
         when(commentMapper.mapToCommentDtoResponse(comment)).thenReturn(commentDtoResponse);
 
         CommentDtoResponse actual = commentService.update(comment.getId(), post.getId(), commentDtoRequest, authenticatedUser);
@@ -262,8 +298,8 @@ class CommentServiceUnitTest {
         verify(commentMapper).mapToComment(comment.getId(), comment.getUser(), commentDtoRequest);
         verify(commentRepository).save(comment);
         verify(commentMapper).mapToCommentDtoResponse(comment);
+        verify(postService).updateCommentInPost(post.getId(), comment);
         verify(applicationEventPublisher).publishEvent(modelUpdatedEvent);
-        verify(postService).getById(post.getId());
     }
 
     @Test
@@ -282,7 +318,7 @@ class CommentServiceUnitTest {
         verify(commentRepository, never()).save(comment);
         verify(commentMapper, never()).mapToCommentDtoResponse(comment);
         verify(applicationEventPublisher, never()).publishEvent(modelUpdatedEvent);
-        verify(postService, never()).getById(post.getId());
+        verify(postService, never()).updateCommentInPost(post.getId(), comment);
     }
 
     @Test
@@ -290,7 +326,6 @@ class CommentServiceUnitTest {
         String expectedMessage = "User has no enough permissions";
         authenticatedUser = new AuthenticatedUser("sadasdas", "DFsfsfs", "ROLE_USER");
         when(commentRepository.findById(comment.getId())).thenReturn(Optional.ofNullable(comment));
-        when(postService.getById(post.getId())).thenReturn(postDtoResponse);
 
         NotValidCredentialsException exception = assertThrows(NotValidCredentialsException.class,
                 () -> commentService.update(comment.getId(), post.getId(), commentDtoRequest, authenticatedUser));
@@ -301,15 +336,14 @@ class CommentServiceUnitTest {
         verify(commentRepository, never()).save(comment);
         verify(commentMapper, never()).mapToCommentDtoResponse(comment);
         verify(applicationEventPublisher, never()).publishEvent(modelUpdatedEvent);
-        verify(postService).getById(post.getId());
+        verify(postService, never()).updateCommentInPost(post.getId(), comment);
     }
 
     @Test
     void updateFailByPostIdAndCommentId() {
         String expectedMessage = "Comment wasn't found by id=1 from Post with id=1";
-        postDtoResponse.setComments(List.of());
+        comment.setPostId(2L);
         when(commentRepository.findById(comment.getId())).thenReturn(Optional.ofNullable(comment));
-        when(postService.getById(post.getId())).thenReturn(postDtoResponse);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
                 () -> commentService.update(comment.getId(), post.getId(), commentDtoRequest, authenticatedUser));
@@ -320,18 +354,16 @@ class CommentServiceUnitTest {
         verify(commentRepository, never()).save(comment);
         verify(commentMapper, never()).mapToCommentDtoResponse(comment);
         verify(applicationEventPublisher, never()).publishEvent(modelUpdatedEvent);
-        verify(postService).getById(post.getId());
+        verify(postService, never()).updateCommentInPost(post.getId(), comment);
     }
 
     @Test
     void delete() {
         when(commentRepository.findById(1L)).thenReturn(Optional.ofNullable(comment));
-        when(postService.getById(1L)).thenReturn(postDtoResponse);
 
         commentService.delete(comment.getId(), post.getId(), authenticatedUser);
 
         verify(commentRepository).findById(1L);
-        verify(postService).getById(1L);
         verify(applicationEventPublisher).publishEvent(modelDeletedEvent);
         verify(commentRepository).delete(comment);
     }
@@ -346,7 +378,6 @@ class CommentServiceUnitTest {
 
         assertTrue(exception.getMessage().contains(expectedMessage));
         verify(commentRepository).findById(1L);
-        verify(postService, never()).getById(1L);
         verify(applicationEventPublisher, never()).publishEvent(modelDeletedEvent);
         verify(commentRepository, never()).delete(comment);
     }
@@ -363,28 +394,14 @@ class CommentServiceUnitTest {
 
         assertTrue(exception.getMessage().contains(expectedMessage));
         verify(commentRepository).findById(1L);
-        verify(postService, never()).getById(1L);
         verify(applicationEventPublisher, never()).publishEvent(modelDeletedEvent);
         verify(commentRepository, never()).delete(comment);
     }
 
-    @Test
-    void deleteAllByUser() {
-        when(commentRepository.findAllByUserId(user.getId())).thenReturn(List.of(comment));
-
-        commentService.deleteAllByUser(user);
-
-        verify(commentRepository).findAllByUserId(user.getId());
-        verify(applicationEventPublisher).publishEvent(modelDeletedEvent);
-        verify(commentRepository).delete(comment);
-    }
-
     @Test
     void deleteAllByPost() {
-        post.setComments(List.of(comment));
-
         commentService.deleteAllByPost(post);
 
-        verify(commentRepository).deleteAll(List.of(comment));
+        verify(commentRepository).deleteAllByPostId(post.getId());
     }
-}
\ No newline at end of file
+}
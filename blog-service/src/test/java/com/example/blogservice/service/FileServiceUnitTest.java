@@ -0,0 +1,209 @@
+package com.example.blogservice.service;
+
+import com.example.blogservice.dto.LoadFile;
+import com.example.blogservice.model.FileUpload;
+import com.example.blogservice.model.FileUploadPart;
+import com.example.blogservice.props.FileUploadProps;
+import com.example.blogservice.service.impl.FileServiceImpl;
+import com.mongodb.DBObject;
+import com.mongodb.client.MongoCollection;
+import org.apache.commons.io.IOUtils;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class FileServiceUnitTest {
+
+    @InjectMocks
+    private FileServiceImpl fileService;
+    @Mock
+    private GridFsTemplate gridFsTemplate;
+    @Mock
+    private GridFsOperations gridFsOperations;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Spy
+    private FileUploadProps fileUploadProps = new FileUploadProps();
+    @Mock
+    private MongoCollection<Document> chunks;
+
+    private MockMultipartFile file;
+    private InputStream content;
+    private byte[] partChecksum;
+    private String checksum;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = spy(new MockMultipartFile("file", "photo.png", "image/png", new byte[]{1, 2, 3}));
+        content = new ByteArrayInputStream(new byte[]{1, 2, 3});
+        partChecksum = MessageDigest.getInstance("SHA-256").digest(file.getBytes());
+        checksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(partChecksum));
+    }
+
+    @Test
+    void uploadFileAlreadyStored() throws Exception {
+        ObjectId storedFile = new ObjectId();
+        ObjectId copy = new ObjectId();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(file.getInputStream()).thenReturn(content);
+        storeReading(copy);
+        when(mongoTemplate.findAndModify(query.capture(), any(Update.class), eq(Document.class), eq("fs.files")))
+                .thenReturn(new Document("_id", storedFile));
+
+        ObjectId actual = fileService.uploadFile(file);
+
+        assertEquals(storedFile, actual);
+        assertEquals(checksum, query.getValue().getQueryObject().get("metadata.partsSha256"));
+        assertEquals(255L * 1024 * 32, query.getValue().getQueryObject().get("metadata.partSize"));
+        verify(file).getInputStream();
+        verify(gridFsTemplate).delete(new Query(Criteria.where("_id").is(copy)));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), anyString());
+    }
+
+    @Test
+    void uploadFileNotStored() throws Exception {
+        ObjectId storedFile = new ObjectId();
+        ArgumentCaptor<Object> metadata = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(file.getInputStream()).thenReturn(content);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Document.class), eq("fs.files")))
+                .thenReturn(null);
+        storeReading(storedFile);
+
+        ObjectId actual = fileService.uploadFile(file);
+
+        assertEquals(storedFile, actual);
+        verify(gridFsTemplate).store(any(InputStream.class), eq("photo.png"), eq("image/png"), metadata.capture());
+        DBObject data = (DBObject) metadata.getValue();
+        assertEquals(1, data.get("references"));
+        assertEquals(3L, data.get("filesize"));
+        assertEquals(255L * 1024 * 32, data.get("partSize"));
+        verify(mongoTemplate).updateFirst(eq(new Query(Criteria.where("_id").is(storedFile))), update.capture(),
+                eq("fs.files"));
+        assertEquals(checksum, update.getValue().getUpdateObject().get("$set", Document.class)
+                .get("metadata.partsSha256"));
+        verify(file).getInputStream();
+        verify(gridFsTemplate, never()).delete(any());
+    }
+
+    @Test
+    void uploadFileOfSeveralParts() throws Exception {
+        fileUploadProps.setChunkSize(DataSize.ofBytes(2));
+        fileUploadProps.setChunksPerPart(1);
+        when(file.getInputStream()).thenReturn(content);
+        storeReading(new ObjectId());
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        messageDigest.update(MessageDigest.getInstance("SHA-256").digest(new byte[]{1, 2}));
+        messageDigest.update(MessageDigest.getInstance("SHA-256").digest(new byte[]{3}));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findAndModify(query.capture(), any(Update.class), eq(Document.class), eq("fs.files")))
+                .thenReturn(new Document("_id", new ObjectId()));
+
+        fileService.uploadFile(file);
+
+        assertEquals(HexFormat.of().formatHex(messageDigest.digest()),
+                query.getValue().getQueryObject().get("metadata.partsSha256"));
+    }
+
+    @Test
+    void commitUploadAlreadyStored() {
+        ObjectId uploadId = new ObjectId();
+        ObjectId storedFile = new ObjectId();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findOne(any(Query.class), eq(FileUpload.class))).thenReturn(getFileUpload(uploadId));
+        when(mongoTemplate.getCollection("fs.chunks")).thenReturn(chunks);
+        when(chunks.countDocuments(any(Bson.class))).thenReturn(1L);
+        when(mongoTemplate.findAndModify(query.capture(), any(Update.class), eq(Document.class), eq("fs.files")))
+                .thenReturn(new Document("_id", storedFile));
+
+        LoadFile actual = fileService.commitUpload(uploadId, 1L);
+
+        assertEquals(storedFile.toHexString(), actual.getId());
+        assertEquals("avatar.jpg", actual.getFileName());
+        assertEquals("image/jpeg", actual.getFileType());
+        assertEquals(checksum, query.getValue().getQueryObject().get("metadata.partsSha256"));
+        assertEquals(255L * 1024 * 32, query.getValue().getQueryObject().get("metadata.partSize"));
+        verify(chunks, never()).find(any(Bson.class));
+        verify(chunks).deleteMany(any(Bson.class));
+    }
+
+    @Test
+    void deleteFileStillReferenced() {
+        ObjectId fileId = new ObjectId();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq("fs.files")))
+                .thenReturn(new Document("_id", fileId).append("metadata", new Document("references", 1)));
+
+        fileService.deleteFile(fileId);
+
+        verify(gridFsTemplate, never()).delete(any());
+    }
+
+    @Test
+    void deleteFileLastReference() {
+        ObjectId fileId = new ObjectId();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq("fs.files")))
+                .thenReturn(new Document("_id", fileId).append("metadata", new Document("references", 0)));
+
+        fileService.deleteFile(fileId);
+
+        verify(gridFsTemplate).delete(any(Query.class));
+    }
+
+    private FileUpload getFileUpload(ObjectId uploadId) {
+        return FileUpload.builder()
+                .id(uploadId)
+                .postId(1L)
+                .fileName("avatar.jpg")
+                .contentType("image/jpeg")
+                .length(3)
+                .chunkSize(255 * 1024)
+                .chunksPerPart(32)
+                .parts(new HashMap<>(Map.of(0, FileUploadPart.builder()
+                        .length(3)
+                        .checksum(Base64.getEncoder().encodeToString(partChecksum))
+                        .build())))
+                .build();
+    }
+
+    private void storeReading(ObjectId storedFile) {
+        when(gridFsTemplate.store(any(InputStream.class), eq("photo.png"), eq("image/png"), any(Object.class)))
+                .thenAnswer(invocation -> {
+                    IOUtils.consume(invocation.getArgument(0, InputStream.class));
+                    return storedFile;
+                });
+    }
+}
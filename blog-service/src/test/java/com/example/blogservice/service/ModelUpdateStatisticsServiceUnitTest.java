@@ -0,0 +1,170 @@
+package com.example.blogservice.service;
+
+import com.example.blogservice.model.ModelUpdateStatistics;
+import com.example.blogservice.props.ModelUpdateStatisticsProps;
+import com.example.blogservice.service.impl.ModelUpdateStatisticsServiceImpl;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class ModelUpdateStatisticsServiceUnitTest {
+    @InjectMocks
+    private ModelUpdateStatisticsServiceImpl modelUpdateStatisticsService;
+    @Mock
+    private MongoOperations mongoOperations;
+    @Mock
+    private BulkOperations bulkOperations;
+    @Spy
+    private ModelUpdateStatisticsProps modelUpdateStatisticsProps = new ModelUpdateStatisticsProps();
+    @Spy
+    private Executor flushExecutor = new SyncTaskExecutor();
+
+    ModelUpdateStatistics postStatistics;
+    ModelUpdateStatistics commentStatistics;
+
+    @BeforeEach
+    public void setUp() {
+        postStatistics = ModelUpdateStatistics.builder()
+                .id("1-Post")
+                .modelId(1L)
+                .modelName("Post")
+                .build();
+        commentStatistics = ModelUpdateStatistics.builder()
+                .id("1-Comment")
+                .modelId(1L)
+                .modelName("Comment")
+                .build();
+        when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ModelUpdateStatistics.class))
+                .thenReturn(bulkOperations);
+    }
+
+    @Test
+    void updateIsBufferedUntilFlush() {
+        modelUpdateStatisticsService.update(postStatistics);
+        modelUpdateStatisticsService.update(postStatistics);
+
+        verifyNoInteractions(mongoOperations);
+    }
+
+    @Test
+    void flushCoalescesUpdates() {
+        modelUpdateStatisticsService.update(postStatistics);
+        modelUpdateStatisticsService.update(postStatistics);
+        modelUpdateStatisticsService.update(postStatistics);
+        modelUpdateStatisticsService.update(commentStatistics);
+
+        modelUpdateStatisticsService.flush();
+
+        verify(mongoOperations).bulkOps(BulkOperations.BulkMode.UNORDERED, ModelUpdateStatistics.class);
+        verify(bulkOperations).upsert(new Query(Criteria.where("id").is("1-Post")),
+                new Update().inc("updateCount", 3L).setOnInsert("modelId", 1L).setOnInsert("modelName", "Post"));
+        verify(bulkOperations).upsert(new Query(Criteria.where("id").is("1-Comment")),
+                new Update().inc("updateCount", 1L).setOnInsert("modelId", 1L).setOnInsert("modelName", "Comment"));
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void saveOnlyInsertsMissingStatistics() {
+        modelUpdateStatisticsService.save(postStatistics);
+
+        verify(mongoOperations).upsert(new Query(Criteria.where("id").is("1-Post")),
+                new Update().setOnInsert("modelId", 1L).setOnInsert("modelName", "Post")
+                        .setOnInsert("updateCount", 0L),
+                ModelUpdateStatistics.class);
+        verifyNoMoreInteractions(mongoOperations);
+    }
+
+    @Test
+    void flushEmptyBuffer() {
+        modelUpdateStatisticsService.flush();
+
+        verifyNoInteractions(mongoOperations);
+    }
+
+    @Test
+    void updateFlushesFullBuffer() {
+        modelUpdateStatisticsProps.setMaxBufferSize(2);
+
+        modelUpdateStatisticsService.update(postStatistics);
+        verifyNoInteractions(mongoOperations);
+        modelUpdateStatisticsService.update(commentStatistics);
+
+        verify(flushExecutor).execute(any(Runnable.class));
+        verify(bulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void updateLeavesFlushOfFullBufferToExecutor() {
+        modelUpdateStatisticsProps.setMaxBufferSize(1);
+        doNothing().when(flushExecutor).execute(any(Runnable.class));
+
+        modelUpdateStatisticsService.update(postStatistics);
+        modelUpdateStatisticsService.update(commentStatistics);
+
+        verify(flushExecutor).execute(any(Runnable.class));
+        verifyNoInteractions(mongoOperations);
+    }
+
+    @Test
+    void failedFlushReturnsUpdatesToBuffer() {
+        modelUpdateStatisticsService.update(postStatistics);
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("Mongo is unavailable"));
+        modelUpdateStatisticsService.flush();
+        reset(bulkOperations);
+
+        modelUpdateStatisticsService.update(postStatistics);
+        modelUpdateStatisticsService.flush();
+
+        verify(bulkOperations).upsert(new Query(Criteria.where("id").is("1-Post")),
+                new Update().inc("updateCount", 2L).setOnInsert("modelId", 1L).setOnInsert("modelName", "Post"));
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void partiallyFailedFlushReturnsOnlyFailedUpdatesToBuffer() {
+        modelUpdateStatisticsService.update(postStatistics);
+        modelUpdateStatisticsService.update(commentStatistics);
+        BulkWriteError bulkWriteError = new BulkWriteError(11000, "Duplicate key", new BsonDocument(), 0);
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("Bulk write failed",
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(bulkWriteError), null,
+                        new ServerAddress())));
+        modelUpdateStatisticsService.flush();
+        ArgumentCaptor<Query> flushedQueries = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations, times(2)).upsert(flushedQueries.capture(), any(Update.class));
+        Query failedQuery = flushedQueries.getAllValues().get(0);
+        reset(bulkOperations);
+
+        modelUpdateStatisticsService.flush();
+
+        ArgumentCaptor<Query> retriedQueries = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations).upsert(retriedQueries.capture(), any(Update.class));
+        assertEquals(List.of(failedQuery), retriedQueries.getAllValues());
+        verify(bulkOperations).execute();
+    }
+}
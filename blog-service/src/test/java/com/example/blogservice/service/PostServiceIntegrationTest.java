@@ -7,6 +7,7 @@ import com.example.blogservice.event.ModelUpdatedEvent;
 import com.example.blogservice.exception.NotValidCredentialsException;
 import com.example.blogservice.exception.ResourceNotFoundException;
 import com.example.blogservice.initializer.DatabaseContainerInitializer;
+import com.example.blogservice.mapper.CommentMapper;
 import com.example.blogservice.model.Comment;
 import com.example.blogservice.model.Post;
 import com.example.blogservice.model.Role;
@@ -53,8 +54,10 @@ public class PostServiceIntegrationTest extends DatabaseContainerInitializer {
     @Autowired
     private CommentRepository commentRepository;
 
+    private ModelMapper modelMapper = new ModelMapper();
+
     @Autowired
-    private ModelMapper modelMapper;
+    private CommentMapper commentMapper;
 
     User user;
     UserDtoResponse userDtoResponse;
@@ -88,6 +91,7 @@ public class PostServiceIntegrationTest extends DatabaseContainerInitializer {
                 .id(1L)
                 .user(user)
                 .text("someText")
+                .postId(1L)
                 .build();
         commentDtoRequest = modelMapper.map(comment, CommentDtoRequest.class);
         commentDtoRequest.setUserId(1L);
@@ -97,7 +101,7 @@ public class PostServiceIntegrationTest extends DatabaseContainerInitializer {
                 .title("Yayaya")
                 .content("someContent")
                 .user(user)
-                .comments(new ArrayList<>())
+                .latestComments(new ArrayList<>())
                 .build();
         postDtoRequest = modelMapper.map(post, PostDtoRequest.class);
         postDtoRequest.setUserId(1L);
@@ -280,7 +284,7 @@ public class PostServiceIntegrationTest extends DatabaseContainerInitializer {
         List<PostDtoResponse> actual = postService.findAllByUserId(user.getId());
 
         assertEquals(expected, actual);
-        verify(postRepository).findAllByUserId(user.getId());
+        verify(postRepository).findAllByUserIdWithReferences(user.getId());
 
     }
 
@@ -294,7 +298,7 @@ public class PostServiceIntegrationTest extends DatabaseContainerInitializer {
                 () -> postService.findAllByUserId(100L));
 
         assertTrue(actual.getMessage().contains(expectedMessage));
-        verify(postRepository, never()).findAllByUserId(100L);
+        verify(postRepository, never()).findAllByUserIdWithReferences(100L);
     }
 
     @Test
@@ -327,7 +331,9 @@ public class PostServiceIntegrationTest extends DatabaseContainerInitializer {
 
         postService.addCommentToPost(post.getId(), comment);
 
-        assertTrue(postRepository.findById(post.getId()).get().getComments().contains(comment));
+        Post actual = postRepository.findById(post.getId()).get();
+        assertEquals(1, actual.getCommentCount());
+        assertEquals(List.of(commentMapper.mapToCommentSummary(comment)), actual.getLatestComments());
     }
 
     @Test
@@ -335,37 +341,26 @@ public class PostServiceIntegrationTest extends DatabaseContainerInitializer {
     void existsByPostIdAndComment() {
         userRepository.save(user);
         commentRepository.save(comment);
-        post.setComments(List.of(comment));
         postRepository.save(post);
+        postService.addCommentToPost(post.getId(), comment);
 
         boolean actual = postService.existsByPostIdAndComment(post.getId(), comment);
 
         assertTrue(actual);
     }
 
-    @Test
-    @Order(18)
-    void deleteAllByUser() {
-        userRepository.save(user);
-        commentRepository.save(comment);
-        post.setComments(List.of(comment));
-        postRepository.save(post);
-
-        postService.deleteAllByUser(user);
-        assertFalse(commentRepository.existsById(comment.getId()));
-        assertFalse(postRepository.existsById(post.getId()));
-    }
-
     @Test
     @Order(19)
     void deleteCommentFromPostByComment() {
         userRepository.save(user);
         commentRepository.save(comment);
-        post.setComments(List.of(comment));
         postRepository.save(post);
+        postService.addCommentToPost(post.getId(), comment);
 
         postService.deleteCommentFromPostByComment(comment);
 
-        assertFalse(postRepository.existsByIdAndCommentsContaining(post.getId(), comment));
+        Post actual = postRepository.findById(post.getId()).get();
+        assertEquals(0, actual.getCommentCount());
+        assertTrue(actual.getLatestComments().isEmpty());
     }
 }
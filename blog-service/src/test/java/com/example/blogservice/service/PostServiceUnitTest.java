@@ -6,31 +6,43 @@ import com.example.blogservice.event.ModelDeletedEvent;
 import com.example.blogservice.event.ModelType;
 import com.example.blogservice.event.ModelUpdatedEvent;
 import com.example.blogservice.exception.NotValidCredentialsException;
+import com.example.blogservice.exception.NotValidFileUploadException;
 import com.example.blogservice.exception.ResourceNotFoundException;
+import com.example.blogservice.mapper.CommentMapper;
 import com.example.blogservice.mapper.PostMapper;
 import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.CommentSummary;
 import com.example.blogservice.model.Post;
 import com.example.blogservice.model.Role;
 import com.example.blogservice.model.User;
+import com.example.blogservice.props.CommentSummaryProps;
+import com.example.blogservice.repository.CommentRepository;
 import com.example.blogservice.repository.PostRepository;
 import com.example.blogservice.security.user.AuthenticatedUser;
 import com.example.blogservice.service.impl.PostServiceImpl;
 import com.example.blogservice.service.impl.SequenceGeneratorService;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -56,6 +68,15 @@ class PostServiceUnitTest {
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
 
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private CommentMapper commentMapper;
+
+    @Spy
+    private CommentSummaryProps commentSummaryProps = new CommentSummaryProps();
+
     @InjectMocks
     private PostServiceImpl postService;
 
@@ -65,6 +86,7 @@ class PostServiceUnitTest {
     UserDtoResponse userDtoResponse;
     AuthenticatedUser authenticatedUser;
     Comment comment;
+    CommentSummary commentSummary;
     CommentDtoResponse commentDtoResponse;
     CommentDtoRequest commentDtoRequest;
     Post post;
@@ -92,6 +114,13 @@ class PostServiceUnitTest {
                 .id(1L)
                 .user(user)
                 .text("someText")
+                .postId(1L)
+                .build();
+        commentSummary = CommentSummary.builder()
+                .id(1L)
+                .text("someText")
+                .userId(1L)
+                .username("Myachin")
                 .build();
         commentDtoRequest = modelMapper.map(comment, CommentDtoRequest.class);
         commentDtoRequest.setUserId(1L);
@@ -101,7 +130,7 @@ class PostServiceUnitTest {
                 .content("someContent")
                 .title("Yayaya")
                 .user(user)
-                .comments(new ArrayList<>())
+                .latestComments(new ArrayList<>())
                 .build();
         postDtoRequest = modelMapper.map(post, PostDtoRequest.class);
         postDtoRequest.setUserId(1L);
@@ -125,6 +154,7 @@ class PostServiceUnitTest {
     public void tearDown() {
         user = null;
         comment = null;
+        commentSummary = null;
         commentDtoRequest = null;
         commentDtoResponse = null;
         post = null;
@@ -148,6 +178,86 @@ class PostServiceUnitTest {
         verify(postMapper).mapToPostDtoResponse(post);
     }
 
+    @Test
+    void getByIdWithFileDescriptor() {
+        ObjectId fileId = new ObjectId();
+        post.setFile(fileId);
+        LoadFile fileDescriptor = LoadFile.builder()
+                .id(fileId.toHexString())
+                .fileName("photo.png")
+                .fileType("image/png")
+                .fileSize("10")
+                .build();
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postMapper.mapToPostDtoResponse(post)).thenReturn(postDtoResponse);
+        when(fileService.getFileDescriptor(fileId)).thenReturn(fileDescriptor);
+
+        PostDtoResponse actual = postService.getById(1L);
+
+        assertEquals("/posts/1/file", actual.getFile().getDownloadUrl());
+        assertNull(actual.getFile().getFile());
+        verify(fileService).getFileDescriptor(fileId);
+        verify(fileService, never()).downloadFile(fileId);
+    }
+
+    @Test
+    void getByIdWithFileDescriptorOfPost() {
+        ObjectId fileId = new ObjectId();
+        post.setFile(fileId);
+        post.setFileName("avatar.jpg");
+        post.setFileType("image/jpeg");
+        LoadFile fileDescriptor = LoadFile.builder()
+                .id(fileId.toHexString())
+                .fileName("photo.png")
+                .fileType("image/png")
+                .fileSize("10")
+                .build();
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postMapper.mapToPostDtoResponse(post)).thenReturn(postDtoResponse);
+        when(fileService.getFileDescriptor(fileId)).thenReturn(fileDescriptor);
+
+        PostDtoResponse actual = postService.getById(1L);
+
+        assertEquals(fileId.toHexString(), actual.getFile().getId());
+        assertEquals("avatar.jpg", actual.getFile().getFileName());
+        assertEquals("image/jpeg", actual.getFile().getFileType());
+    }
+
+    @Test
+    void getFileFromPost() {
+        ObjectId fileId = new ObjectId();
+        post.setFile(fileId);
+        post.setFileName("avatar.jpg");
+        post.setFileType("image/jpeg");
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+
+        postService.getFileFromPost(1L);
+
+        verify(fileService).getFileResource(fileId, "avatar.jpg", "image/jpeg");
+    }
+
+    @Test
+    void getByIdWithFileContent() {
+        ObjectId fileId = new ObjectId();
+        post.setFile(fileId);
+        LoadFile loadFile = LoadFile.builder()
+                .id(fileId.toHexString())
+                .fileName("photo.png")
+                .fileType("image/png")
+                .fileSize("3")
+                .file(new byte[]{1, 2, 3})
+                .build();
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postMapper.mapToPostDtoResponse(post)).thenReturn(postDtoResponse);
+        when(fileService.downloadFile(fileId)).thenReturn(loadFile);
+
+        PostDtoResponse actual = postService.getByIdWithFileContent(1L);
+
+        assertArrayEquals(new byte[]{1, 2, 3}, actual.getFile().getFile());
+        verify(fileService).downloadFile(fileId);
+        verify(fileService, never()).getFileDescriptor(fileId);
+    }
+
     @Test
     void getByIdFail() {
         String expectedMessage = "Post wasn't found by id=1";
@@ -169,16 +279,31 @@ class PostServiceUnitTest {
         Page<Post> page = new PageImpl<>(posts, pageable, 1);
         Page<PostDtoResponse> expected = new PageImpl<>(List.of(postDtoResponse), pageable, 1);
 
-        when(postRepository.findAll(pageable)).thenReturn(page);
+        when(postRepository.findAllWithReferences(pageable)).thenReturn(page);
         when(postMapper.mapToPostDtoResponse(post)).thenReturn(postDtoResponse);
 
         Page<PostDtoResponse> actual = postService.findAll(pageable);
 
         assertEquals(expected.getContent(), actual.getContent());
-        verify(postRepository).findAll(pageable);
+        verify(postRepository).findAllWithReferences(pageable);
         verify(postMapper).mapToPostDtoResponse(post);
     }
 
+    @Test
+    void findAllAfter() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        CursorSlice<Post> slice = new CursorSlice<>(List.of(post), 1, sort, "nextCursor");
+        CursorSlice<PostDtoResponse> expected = new CursorSlice<>(List.of(postDtoResponse), 1, sort, "nextCursor");
+        when(postRepository.findAllAfterWithReferences("cursor", 1, sort)).thenReturn(slice);
+        when(postMapper.mapToPostDtoResponse(post)).thenReturn(postDtoResponse);
+
+        CursorSlice<PostDtoResponse> actual = postService.findAllAfter("cursor", 1, sort);
+
+        assertEquals(expected, actual);
+        verify(postRepository).findAllAfterWithReferences("cursor", 1, sort);
+        verify(postRepository, never()).count();
+    }
+
     @Test
     void save() {
         PostDtoResponse expected = postDtoResponse;
@@ -219,8 +344,8 @@ class PostServiceUnitTest {
     void update() {
         PostDtoResponse expect = postDtoResponse;
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(postMapper.mapToPost(1L, postDtoRequest, userDtoResponse, post.getComments())).thenReturn(post);
-        when(postRepository.save(post)).thenReturn(post);
+        when(postMapper.mapToPost(1L, postDtoRequest, userDtoResponse)).thenReturn(post);
+        when(postRepository.updatePost(post)).thenReturn(Optional.of(post));
         when(postMapper.mapToPostDtoResponse(post)).thenReturn(postDtoResponse);
         when(userService.getById(1L)).thenReturn(userDtoResponse);
 
@@ -228,9 +353,10 @@ class PostServiceUnitTest {
 
         assertEquals(expect, actual);
         verify(postRepository).findById(1L);
-        verify(postMapper).mapToPost(1L, postDtoRequest, userDtoResponse, post.getComments());
+        verify(postMapper).mapToPost(1L, postDtoRequest, userDtoResponse);
         verify(postMapper).mapToPostDtoResponse(post);
-        verify(postRepository).save(post);
+        verify(postRepository).updatePost(post);
+        verify(postRepository, never()).save(any(Post.class));
         verify(userService).getById(1L);
         verify(applicationEventPublisher).publishEvent(modelUpdatedEvent);
     }
@@ -247,9 +373,9 @@ class PostServiceUnitTest {
         assertTrue(exception.getMessage().contains(expectedMessage));
 
         verify(postRepository).findById(1L);
-        verify(postMapper, never()).mapToPost(1L, postDtoRequest, userDtoResponse, post.getComments());
+        verify(postMapper, never()).mapToPost(1L, postDtoRequest, userDtoResponse);
         verify(postMapper, never()).mapToPostDtoResponse(post);
-        verify(postRepository, never()).save(post);
+        verify(postRepository, never()).updatePost(post);
         verify(userService).getById(1L);
         verify(applicationEventPublisher, never()).publishEvent(modelUpdatedEvent);
     }
@@ -266,9 +392,9 @@ class PostServiceUnitTest {
         assertTrue(exception.getMessage().contains(expectedMessage));
 
         verify(postRepository, never()).findById(1L);
-        verify(postMapper, never()).mapToPost(1L, postDtoRequest, userDtoResponse, post.getComments());
+        verify(postMapper, never()).mapToPost(1L, postDtoRequest, userDtoResponse);
         verify(postMapper, never()).mapToPostDtoResponse(post);
-        verify(postRepository, never()).save(post);
+        verify(postRepository, never()).updatePost(post);
         verify(userService).getById(1L);
         verify(applicationEventPublisher, never()).publishEvent(modelUpdatedEvent);
     }
@@ -318,14 +444,14 @@ class PostServiceUnitTest {
     void findAllByUserId() {
         List<PostDtoResponse> expected = List.of(postDtoResponse);
         when(userService.existsById(1L)).thenReturn(true);
-        when(postRepository.findAllByUserId(1L)).thenReturn(List.of(post));
+        when(postRepository.findAllByUserIdWithReferences(1L)).thenReturn(List.of(post));
         when(postMapper.mapToPostDtoResponse(post)).thenReturn(postDtoResponse);
 
         List<PostDtoResponse> actual = postService.findAllByUserId(1L);
 
         assertEquals(expected, actual);
         verify(userService).existsById(1L);
-        verify(postRepository).findAllByUserId(1L);
+        verify(postRepository).findAllByUserIdWithReferences(1L);
         verify(postMapper).mapToPostDtoResponse(post);
     }
 
@@ -340,58 +466,227 @@ class PostServiceUnitTest {
 
         assertTrue(actual.getMessage().contains(expectedMessage));
         verify(userService).existsById(1L);
-        verify(postRepository, never()).findAllByUserId(1L);
+        verify(postRepository, never()).findAllByUserIdWithReferences(1L);
         verify(postMapper, never()).mapToPostDtoResponse(post);
     }
 
 
     @Test
     void addCommentToPost() {
-        Post changedPost = Post.builder()
-                .id(1L)
-                .content("someContent")
-                .title("Yayaya")
-                .comments(List.of(comment))
-                .user(user)
+        when(commentMapper.mapToCommentSummary(comment)).thenReturn(commentSummary);
+        when(postRepository.addCommentSummary(1L, commentSummary, 5)).thenReturn(true);
+
+        postService.addCommentToPost(1L, comment);
+
+        verify(postRepository).addCommentSummary(1L, commentSummary, 5);
+        verify(postRepository, never()).save(any());
+        verify(applicationEventPublisher).publishEvent(modelUpdatedEvent);
+    }
+
+    @Test
+    void addCommentToPostFail() {
+        String expectedMessage = "Post wasn't found by id=1";
+        when(commentMapper.mapToCommentSummary(comment)).thenReturn(commentSummary);
+        when(postRepository.addCommentSummary(1L, commentSummary, 5)).thenReturn(false);
+
+        ResourceNotFoundException actual = assertThrows(ResourceNotFoundException.class,
+                () -> postService.addCommentToPost(1L, comment));
+
+        assertTrue(actual.getMessage().contains(expectedMessage));
+        verify(applicationEventPublisher, never()).publishEvent(modelUpdatedEvent);
+    }
+
+    @Test
+    void updateCommentInPost() {
+        when(commentMapper.mapToCommentSummary(comment)).thenReturn(commentSummary);
+
+        postService.updateCommentInPost(1L, comment);
+
+        verify(postRepository).updateCommentSummary(1L, commentSummary);
+    }
+
+    @Test
+    void existsByPostIdAndComment() {
+        when(postRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(postService.existsByPostIdAndComment(1L, comment));
+        assertFalse(postService.existsByPostIdAndComment(2L, comment));
+        verify(postRepository, never()).existsById(2L);
+    }
+
+    @Test
+    void uploadFilePart() {
+        ObjectId uploadId = new ObjectId();
+        InputStream content = new ByteArrayInputStream(new byte[]{0, 1, 2});
+        FileUploadDtoResponse expected = FileUploadDtoResponse.builder()
+                .id(uploadId.toHexString())
+                .parts(List.of(0))
                 .build();
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(fileService.uploadPart(uploadId, 1L, 0, content, "sha-256=checksum")).thenReturn(expected);
+
+        FileUploadDtoResponse actual = postService.uploadFilePart(1L, uploadId, 0, content, "sha-256=checksum",
+                authenticatedUser);
+
+        assertEquals(expected, actual);
+        verify(fileService).uploadPart(uploadId, 1L, 0, content, "sha-256=checksum");
+    }
 
+    @Test
+    void uploadFilePartFailCredentials() {
+        ObjectId uploadId = new ObjectId();
+        InputStream content = new ByteArrayInputStream(new byte[]{0, 1, 2});
+        authenticatedUser = new AuthenticatedUser("Stranger", "someToken", Role.ROLE_ADMIN.name());
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(postRepository.save(changedPost)).thenReturn(changedPost);
 
-        postService.addCommentToPost(1L, comment);
+        assertThrows(NotValidCredentialsException.class,
+                () -> postService.uploadFilePart(1L, uploadId, 0, content, "sha-256=checksum", authenticatedUser));
 
-        verify(postRepository).findById(1L);
-        verify(postRepository).save(changedPost);
+        verify(fileService, never()).uploadPart(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void commitFileUpload() {
+        ObjectId oldFileId = new ObjectId();
+        ObjectId uploadId = new ObjectId();
+        post.setFile(oldFileId);
+        LoadFile fileDescriptor = LoadFile.builder()
+                .id(uploadId.toHexString())
+                .fileName("photo.png")
+                .fileType("image/png")
+                .fileSize("10")
+                .build();
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(fileService.commitUpload(uploadId, 1L)).thenReturn(fileDescriptor);
+        when(postRepository.replaceFile(1L, uploadId, "photo.png", "image/png")).thenReturn(Optional.of(post));
+        when(postMapper.mapToPostDtoResponse(post)).thenReturn(postDtoResponse);
+        when(fileService.getFileDescriptor(uploadId)).thenReturn(fileDescriptor);
+
+        PostDtoResponse actual = postService.commitFileUpload(1L, uploadId, authenticatedUser);
+
+        assertEquals(uploadId, post.getFile());
+        assertEquals("photo.png", post.getFileName());
+        assertEquals(uploadId.toHexString(), actual.getFile().getId());
+        verify(fileService).deleteFile(oldFileId);
+        verify(postRepository).replaceFile(1L, uploadId, "photo.png", "image/png");
+        verify(postRepository, never()).save(post);
         verify(applicationEventPublisher).publishEvent(modelUpdatedEvent);
     }
 
     @Test
-    void deleteAllByUser() {
-        when(postRepository.findAllByUserId(1L)).thenReturn(List.of(post));
+    void commitFileUploadFailNotValidUpload() {
+        ObjectId uploadId = new ObjectId();
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(fileService.commitUpload(uploadId, 1L))
+                .thenThrow(new NotValidFileUploadException("Part 0 of upload with id " + uploadId + " is missing"));
 
-        postService.deleteAllByUser(user);
+        assertThrows(NotValidFileUploadException.class,
+                () -> postService.commitFileUpload(1L, uploadId, authenticatedUser));
 
-        verify(postRepository).findAllByUserId(user.getId());
-        verify(postRepository).delete(post);
-        verify(applicationEventPublisher).publishEvent(modelDeletedEvent);
+        verify(postRepository, never()).replaceFile(any(), any(), any(), any());
+        verify(applicationEventPublisher, never()).publishEvent(modelUpdatedEvent);
+    }
+
+    @Test
+    void commitFileUploadFailPostDeleted() {
+        ObjectId uploadId = new ObjectId();
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(fileService.commitUpload(uploadId, 1L)).thenReturn(LoadFile.builder()
+                .id(uploadId.toHexString())
+                .fileName("photo.png")
+                .fileType("image/png")
+                .build());
+        when(postRepository.replaceFile(1L, uploadId, "photo.png", "image/png")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> postService.commitFileUpload(1L, uploadId, authenticatedUser));
+
+        verify(fileService).deleteFile(uploadId);
+        verify(applicationEventPublisher, never()).publishEvent(modelUpdatedEvent);
+    }
+
+    @Test
+    void replaceFileInPostWithSameContent() {
+        ObjectId fileId = new ObjectId();
+        post.setFile(fileId);
+        MockMultipartFile file = new MockMultipartFile("file", "avatar.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        LoadFile fileDescriptor = LoadFile.builder()
+                .id(fileId.toHexString())
+                .fileName("photo.png")
+                .fileType("image/png")
+                .fileSize("3")
+                .build();
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(fileService.uploadFile(file)).thenReturn(fileId);
+        when(postRepository.save(post)).thenReturn(post);
+        when(postMapper.mapToPostDtoResponse(post)).thenReturn(postDtoResponse);
+        when(fileService.getFileDescriptor(fileId)).thenReturn(fileDescriptor);
+
+        PostDtoResponse actual = postService.replaceFileInPost(1L, file, authenticatedUser);
+
+        assertEquals(fileId, post.getFile());
+        assertEquals(fileId.toHexString(), actual.getFile().getId());
+        assertEquals("avatar.jpg", actual.getFile().getFileName());
+        assertEquals("image/jpeg", actual.getFile().getFileType());
+        InOrder inOrder = inOrder(fileService);
+        inOrder.verify(fileService).uploadFile(file);
+        inOrder.verify(fileService).deleteFile(fileId);
+        verify(postRepository).save(post);
     }
 
     @Test
     void deleteCommentFromPostByComment() {
+        Comment previousComment = Comment.builder()
+                .id(0L)
+                .user(user)
+                .text("previousText")
+                .postId(1L)
+                .build();
+        CommentSummary previousCommentSummary = CommentSummary.builder()
+                .id(0L)
+                .text("previousText")
+                .userId(1L)
+                .username("Myachin")
+                .build();
         Post previousPost = Post.builder()
                 .id(1L)
-                .content("someContent")
-                .title("Yayaya")
-                .comments(List.of(comment))
-                .user(user)
+                .latestComments(List.of(commentSummary))
+                .commentCount(2)
                 .build();
-        when(postRepository.findPostByCommentsIsContaining(comment)).thenReturn(Optional.of(previousPost));
-        when(postRepository.save(post)).thenReturn(post);
+        Pageable nextCommentPageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"));
+        when(postRepository.removeCommentSummary(1L, 1L)).thenReturn(Optional.of(previousPost));
+        when(commentRepository.findAllByPostIdAndIdNotIn(1L, Set.of(1L), nextCommentPageable))
+                .thenReturn(List.of(previousComment));
+        when(commentMapper.mapToCommentSummary(previousComment)).thenReturn(previousCommentSummary);
 
         postService.deleteCommentFromPostByComment(comment);
 
-        verify(postRepository).findPostByCommentsIsContaining(comment);
-        verify(postRepository).save(post);
+        verify(postRepository).removeCommentSummary(1L, 1L);
+        verify(postRepository).appendCommentSummary(1L, previousCommentSummary, 5);
+        verify(postRepository, never()).save(any());
+        verify(applicationEventPublisher).publishEvent(modelUpdatedEvent);
+    }
+
+    @Test
+    void deleteCommentFromPostByCommentNotLatest() {
+        CommentSummary latestCommentSummary = CommentSummary.builder()
+                .id(2L)
+                .text("latestText")
+                .userId(1L)
+                .username("Myachin")
+                .build();
+        Post previousPost = Post.builder()
+                .id(1L)
+                .latestComments(List.of(latestCommentSummary))
+                .commentCount(2)
+                .build();
+        when(postRepository.removeCommentSummary(1L, 1L)).thenReturn(Optional.of(previousPost));
+
+        postService.deleteCommentFromPostByComment(comment);
 
+        verify(postRepository).removeCommentSummary(1L, 1L);
+        verify(postRepository, never()).appendCommentSummary(any(), any(), anyInt());
+        verifyNoInteractions(commentRepository);
+        verify(applicationEventPublisher).publishEvent(modelUpdatedEvent);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.example.blogservice.service;
+
+import com.example.blogservice.dto.UserDto;
+import com.example.blogservice.exception.TokenNotActiveException;
+import com.example.blogservice.model.RefreshToken;
+import com.example.blogservice.model.Role;
+import com.example.blogservice.repository.RefreshTokenRepository;
+import com.example.blogservice.service.impl.RefreshTokenServiceImpl;
+import com.example.blogservice.service.impl.SequenceGeneratorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class RefreshTokenServiceUnitTest {
+
+    @InjectMocks
+    private RefreshTokenServiceImpl refreshTokenService;
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private SequenceGeneratorService sequenceGeneratorService;
+
+    private UserDto user;
+    private RefreshToken refreshToken;
+
+    @BeforeEach
+    public void setUp() {
+        user = UserDto.builder()
+                .id(1L)
+                .username("username")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build();
+        LocalDateTime currentDate = LocalDateTime.now();
+        refreshToken = RefreshToken.builder()
+                .refreshTokenId(1L)
+                .token("token")
+                .userId(user.getId())
+                .created(currentDate)
+                .expires(currentDate.plusDays(7))
+                .isActive(true)
+                .build();
+    }
+
+    @Test
+    void deactivateRefreshTokensByUserId() {
+        when(refreshTokenRepository.deactivateRefreshTokensByUserId(eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(3L);
+
+        long actual = refreshTokenService.deactivateRefreshTokensByUserId(user.getId());
+
+        assertEquals(3L, actual);
+        verify(refreshTokenRepository).deactivateRefreshTokensByUserId(eq(user.getId()), any(LocalDateTime.class));
+        verifyNoMoreInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void replaceTokenFailNotActive() {
+        refreshToken.setActive(false);
+
+        assertThrows(TokenNotActiveException.class,
+                () -> refreshTokenService.replaceToken(refreshToken, user, LocalDateTime.now()));
+
+        verify(refreshTokenRepository).deactivateRefreshTokensByUserId(eq(user.getId()), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void replaceTokenFailExpired() {
+        LocalDateTime currentDate = refreshToken.getExpires().plusSeconds(1);
+
+        assertThrows(TokenNotActiveException.class,
+                () -> refreshTokenService.replaceToken(refreshToken, user, currentDate));
+
+        verify(refreshTokenRepository).deactivateRefreshTokensByUserId(eq(user.getId()), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+}
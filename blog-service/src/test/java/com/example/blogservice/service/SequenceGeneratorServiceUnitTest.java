@@ -0,0 +1,136 @@
+package com.example.blogservice.service;
+
+import com.example.blogservice.model.Comment;
+import com.example.blogservice.model.Post;
+import com.example.blogservice.model.sequence.DatabaseSequence;
+import com.example.blogservice.props.SequenceProps;
+import com.example.blogservice.service.impl.SequenceGeneratorService;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class SequenceGeneratorServiceUnitTest {
+    @InjectMocks
+    private SequenceGeneratorService sequenceGeneratorService;
+    @Mock
+    private MongoOperations mongoOperations;
+    @Spy
+    private SequenceProps sequenceProps = new SequenceProps();
+
+    AtomicLong storedSequence;
+
+    @BeforeEach
+    public void setUp() {
+        storedSequence = new AtomicLong();
+        when(mongoOperations.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(DatabaseSequence.class)))
+                .thenAnswer(invocation -> {
+                    Update update = invocation.getArgument(1);
+                    long increment = update.getUpdateObject().get("$inc", Document.class).getLong("seq");
+                    return new DatabaseSequence(Post.SEQUENCE_NAME, storedSequence.addAndGet(increment));
+                });
+    }
+
+    @Test
+    void generateSequenceWithoutBlock() {
+        List<Long> expected = List.of(1L, 2L, 3L);
+
+        List<Long> actual = LongStream.range(0, 3)
+                .mapToObj(i -> sequenceGeneratorService.generateSequence(Post.SEQUENCE_NAME))
+                .toList();
+
+        assertEquals(expected, actual);
+        verify(mongoOperations, times(3)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(DatabaseSequence.class));
+    }
+
+    @Test
+    void generateSequenceWithBlock() {
+        sequenceProps.setBlockSizes(Map.of(Post.SEQUENCE_NAME, 5));
+        List<Long> expected = LongStream.rangeClosed(1, 12).boxed().toList();
+
+        List<Long> actual = LongStream.range(0, 12)
+                .mapToObj(i -> sequenceGeneratorService.generateSequence(Post.SEQUENCE_NAME))
+                .toList();
+
+        assertEquals(expected, actual);
+        assertEquals(15L, storedSequence.get());
+        verify(mongoOperations, times(3)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(DatabaseSequence.class));
+    }
+
+    @Test
+    void generateSequenceWithBlockConcurrently() throws Exception {
+        sequenceProps.setBlockSizes(Map.of(Post.SEQUENCE_NAME, 10));
+        int threads = 8;
+        int idsPerThread = 250;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Callable<List<Long>>> tasks = LongStream.range(0, threads)
+                .mapToObj(i -> (Callable<List<Long>>) () -> LongStream.range(0, idsPerThread)
+                        .mapToObj(j -> sequenceGeneratorService.generateSequence(Post.SEQUENCE_NAME))
+                        .toList())
+                .toList();
+
+        Set<Long> actual = ConcurrentHashMap.newKeySet();
+        for (Future<List<Long>> future : executorService.invokeAll(tasks))
+            actual.addAll(future.get());
+        executorService.shutdown();
+
+        assertEquals(LongStream.rangeClosed(1, threads * idsPerThread).boxed().collect(Collectors.toSet()), actual);
+        verify(mongoOperations, times(threads * idsPerThread / 10)).findAndModify(any(Query.class),
+                any(Update.class), any(FindAndModifyOptions.class), eq(DatabaseSequence.class));
+    }
+
+    @Test
+    void generateSequenceWhileOtherSequenceAllocates() throws Exception {
+        sequenceProps.setBlockSizes(Map.of(Post.SEQUENCE_NAME, 10, Comment.SEQUENCE_NAME, 10));
+        CountDownLatch postAllocationStarted = new CountDownLatch(1);
+        CountDownLatch postAllocationReleased = new CountDownLatch(1);
+        AtomicLong commentSequence = new AtomicLong();
+        doAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            if (Comment.SEQUENCE_NAME.equals(query.getQueryObject().get("id")))
+                return new DatabaseSequence(Comment.SEQUENCE_NAME, commentSequence.addAndGet(10));
+            postAllocationStarted.countDown();
+            postAllocationReleased.await();
+            return new DatabaseSequence(Post.SEQUENCE_NAME, storedSequence.addAndGet(10));
+        }).when(mongoOperations).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(DatabaseSequence.class));
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<Long> postId = executorService.submit(() -> sequenceGeneratorService.generateSequence(Post.SEQUENCE_NAME));
+        postAllocationStarted.await();
+
+        Long commentId = CompletableFuture.supplyAsync(() -> sequenceGeneratorService.generateSequence(Comment.SEQUENCE_NAME))
+                .get(5, TimeUnit.SECONDS);
+
+        assertFalse(postId.isDone());
+        postAllocationReleased.countDown();
+        assertEquals(1L, commentId);
+        assertEquals(1L, postId.get());
+        executorService.shutdown();
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.blogservice.service;
+
+import com.example.blogservice.exception.ResourceNotFoundException;
+import com.example.blogservice.mapper.CommentMapper;
+import com.example.blogservice.model.*;
+import com.example.blogservice.props.CommentSummaryProps;
+import com.example.blogservice.props.UserDeletionProps;
+import com.example.blogservice.repository.CommentRepository;
+import com.example.blogservice.repository.PostRepository;
+import com.example.blogservice.repository.RefreshTokenRepository;
+import com.example.blogservice.repository.UserDeletionRepository;
+import com.example.blogservice.service.impl.UserDeletionServiceImpl;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.blogservice.utils.ConstantUtil.CacheName.COMMENT;
+import static com.example.blogservice.utils.ConstantUtil.CacheName.POST;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class UserDeletionServiceUnitTest {
+
+    @InjectMocks
+    private UserDeletionServiceImpl userDeletionService;
+    @Mock
+    private UserDeletionRepository userDeletionRepository;
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private FileService fileService;
+    @Mock
+    private ModelUpdateStatisticsService modelUpdateStatisticsService;
+    @Mock
+    private CommentMapper commentMapper;
+    @Spy
+    private CommentSummaryProps commentSummaryProps = new CommentSummaryProps();
+    @Spy
+    private UserDeletionProps userDeletionProps = new UserDeletionProps();
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache postCache;
+    @Mock
+    private Cache commentCache;
+    @Spy
+    private Executor deletionExecutor = new SyncTaskExecutor();
+
+    private UserDeletion userDeletion;
+
+    @BeforeEach
+    public void setUp() {
+        userDeletion = UserDeletion.builder()
+                .userId(1L)
+                .username("Myachin")
+                .status(UserDeletionStatus.RUNNING)
+                .build();
+        when(cacheManager.getCache(POST)).thenReturn(postCache);
+        when(cacheManager.getCache(COMMENT)).thenReturn(commentCache);
+    }
+
+    @Test
+    void deleteUserContent() {
+        ObjectId fileId = new ObjectId();
+        Post post = Post.builder()
+                .id(10L)
+                .file(fileId)
+                .build();
+        Comment commentOfPost = Comment.builder()
+                .id(100L)
+                .build();
+        Comment commentOfOtherPost = Comment.builder()
+                .id(200L)
+                .postId(20L)
+                .build();
+        Comment otherComment = Comment.builder()
+                .id(201L)
+                .postId(20L)
+                .build();
+        CommentSummary otherCommentSummary = CommentSummary.builder()
+                .id(201L)
+                .userId(2L)
+                .build();
+        when(userDeletionRepository.acquireUserDeletion(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(userDeletion));
+        when(postRepository.findIdsAndFilesByUserId(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(post), List.of());
+        when(commentRepository.findIdsByPostIdIn(eq(List.of(10L)), any(Pageable.class)))
+                .thenReturn(List.of(commentOfPost), List.of());
+        when(commentRepository.findIdsAndPostIdsByUserId(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(commentOfOtherPost), List.of());
+        when(commentRepository.findAllByPostIdAndUserIdNot(eq(20L), eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(otherComment));
+        when(commentRepository.countByPostIdAndUserIdNot(20L, 1L)).thenReturn(1L);
+        when(commentMapper.mapToCommentSummary(otherComment)).thenReturn(otherCommentSummary);
+
+        userDeletionService.deleteUserContent(1L);
+
+        InOrder inOrder = inOrder(commentRepository, postRepository, fileService, userDeletionRepository);
+        inOrder.verify(commentRepository).deleteAllById(List.of(100L));
+        inOrder.verify(postRepository).deleteAllById(List.of(10L));
+        inOrder.verify(fileService).deleteFile(fileId);
+        inOrder.verify(postRepository).replaceCommentSummaries(20L, List.of(otherCommentSummary), 1L);
+        inOrder.verify(commentRepository).deleteAllById(List.of(200L));
+        inOrder.verify(userDeletionRepository).finishUserDeletion(eq(1L), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+        verify(modelUpdateStatisticsService).deleteAllByModelIds(Post.class.getName(), List.of(10L));
+        verify(modelUpdateStatisticsService).deleteAllByModelIds(Comment.class.getName(), List.of(100L));
+        verify(modelUpdateStatisticsService).deleteAllByModelIds(Comment.class.getName(), List.of(200L));
+        verify(modelUpdateStatisticsService).deleteAllByModelIds(User.class.getName(), List.of(1L));
+        verify(refreshTokenRepository).deleteRefreshTokensByUserId(1L);
+        verify(postCache).evict(10L);
+        verify(postCache).evict(20L);
+        verify(commentCache).evict(100L);
+        verify(commentCache).evict(200L);
+    }
+
+    @Test
+    void deleteUserContentNotAcquired() {
+        when(userDeletionRepository.acquireUserDeletion(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        userDeletionService.deleteUserContent(1L);
+
+        verifyNoInteractions(postRepository, commentRepository, fileService, modelUpdateStatisticsService);
+        verify(userDeletionRepository, never()).finishUserDeletion(any(), any(), any());
+    }
+
+    @Test
+    void deleteUserContentStopped() {
+        Post post = Post.builder()
+                .id(10L)
+                .file(new ObjectId())
+                .build();
+        when(userDeletionRepository.acquireUserDeletion(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(userDeletion));
+        when(postRepository.findIdsAndFilesByUserId(eq(1L), any(Pageable.class))).thenReturn(List.of(post));
+        when(commentRepository.findIdsByPostIdIn(anyList(), any(Pageable.class))).thenReturn(List.of());
+        doThrow(new RuntimeException("Connection refused")).when(postRepository).deleteAllById(List.of(10L));
+
+        userDeletionService.deleteUserContent(1L);
+
+        verify(fileService, never()).deleteFile(any());
+        verify(userDeletionRepository, never()).finishUserDeletion(any(), any(), any());
+    }
+
+    @Test
+    void resumeUserDeletions() {
+        when(userDeletionRepository.findIdsByStatusNotAndLeaseExpiresBefore(eq(UserDeletionStatus.DONE),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(userDeletion));
+        when(userDeletionRepository.acquireUserDeletion(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        runOnOtherThread();
+
+        userDeletionService.resumeUserDeletions();
+
+        verify(deletionExecutor).execute(any(Runnable.class));
+        verify(userDeletionRepository).acquireUserDeletion(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(modelUpdateStatisticsService, never()).deleteAllByModelIds(anyString(), anyList());
+    }
+
+    @Test
+    void resumeUserDeletionsOffCallingThread() {
+        AtomicReference<Thread> deletionThread = new AtomicReference<>();
+        when(userDeletionRepository.findIdsByStatusNotAndLeaseExpiresBefore(eq(UserDeletionStatus.DONE),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(userDeletion));
+        when(userDeletionRepository.acquireUserDeletion(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    deletionThread.set(Thread.currentThread());
+                    return Optional.empty();
+                });
+        runOnOtherThread();
+
+        userDeletionService.resumeUserDeletions();
+
+        assertNotEquals(Thread.currentThread(), deletionThread.get());
+    }
+
+    @Test
+    void resumeUserDeletionsRejected() {
+        when(userDeletionRepository.findIdsByStatusNotAndLeaseExpiresBefore(eq(UserDeletionStatus.DONE),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(userDeletion));
+        doThrow(new RejectedExecutionException()).when(deletionExecutor).execute(any(Runnable.class));
+
+        userDeletionService.resumeUserDeletions();
+        userDeletionService.resumeUserDeletions();
+
+        verify(deletionExecutor, times(2)).execute(any(Runnable.class));
+        verify(userDeletionRepository, never()).acquireUserDeletion(any(), any(), any());
+    }
+
+    @Test
+    void deleteUserContentQueuedOnce() {
+        doNothing().when(deletionExecutor).execute(any(Runnable.class));
+
+        userDeletionService.deleteUserContent(1L);
+        userDeletionService.deleteUserContent(1L);
+
+        verify(deletionExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void getUserDeletionFail() {
+        when(userDeletionRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userDeletionService.getUserDeletion(1L));
+    }
+
+    private void runOnOtherThread() {
+        doAnswer(invocation -> {
+            Thread thread = new Thread(invocation.getArgument(0, Runnable.class));
+            thread.start();
+            thread.join();
+            return null;
+        }).when(deletionExecutor).execute(any(Runnable.class));
+    }
+}
@@ -36,8 +36,7 @@ public class UserServiceIntegrationTest extends DatabaseContainerInitializer {
 
     @Autowired
     private UserService userService;
-    @Autowired
-    private ModelMapper modelMapper;
+    private ModelMapper modelMapper = new ModelMapper();
     @SpyBean
     private UserRepository userRepository;
 
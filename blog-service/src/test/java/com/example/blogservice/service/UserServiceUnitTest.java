@@ -1,5 +1,6 @@
 package com.example.blogservice.service;
 
+import com.example.blogservice.dto.CursorSlice;
 import com.example.blogservice.dto.UserDto;
 import com.example.blogservice.dto.UserDtoRequest;
 import com.example.blogservice.dto.UserDtoResponse;
@@ -10,10 +11,12 @@ import com.example.blogservice.event.ModelUpdatedEvent;
 import com.example.blogservice.exception.NotUniqueResourceException;
 import com.example.blogservice.exception.NotValidCredentialsException;
 import com.example.blogservice.exception.NotValidTokenException;
+import com.example.blogservice.exception.PasswordHashingUnavailableException;
 import com.example.blogservice.exception.ResourceNotFoundException;
 import com.example.blogservice.mapper.UserMapper;
 import com.example.blogservice.model.Role;
 import com.example.blogservice.model.User;
+import com.example.blogservice.repository.PostRepository;
 import com.example.blogservice.repository.UserRepository;
 import com.example.blogservice.security.user.AuthenticatedUser;
 import com.example.blogservice.service.impl.SequenceGeneratorService;
@@ -59,6 +62,9 @@ public class UserServiceUnitTest {
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
 
+    @Mock
+    private PostRepository postRepository;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -179,6 +185,22 @@ public class UserServiceUnitTest {
         verify(userMapper).mapToUserDtoResponse(user);
     }
 
+    @Test
+    void findAllAfter() {
+        Sort sort = Sort.by("username");
+        CursorSlice<User> slice = new CursorSlice<>(List.of(user), 1, sort, "nextCursor");
+        CursorSlice<UserDtoResponse> expected = new CursorSlice<>(List.of(userDtoResponse), 1, sort, "nextCursor");
+        when(userRepository.findAllAfter("cursor", 1, sort)).thenReturn(slice);
+        when(userMapper.mapToUserDtoResponse(user)).thenReturn(userDtoResponse);
+
+        CursorSlice<UserDtoResponse> actual = userService.findAllAfter("cursor", 1, sort);
+
+        assertEquals(expected, actual);
+        assertEquals("nextCursor", actual.getNextCursor());
+        verify(userRepository).findAllAfter("cursor", 1, sort);
+        verify(userRepository, never()).count();
+    }
+
     @Test
     void save() {
         String incomingPassword = "artsiom";
@@ -246,6 +268,7 @@ public class UserServiceUnitTest {
         verify(userRepository).save(changedUser);
         verify(userMapper).mapToUser(1L, userDtoRequest, user.getPassword(), user.getRole());
         verify(userMapper).mapToUserDtoResponse(changedUser);
+        verify(postRepository, never()).updateCommentSummariesUsername(1L, expected.getUsername());
         verify(applicationEventPublisher).publishEvent(modelUpdatedEvent);
     }
 
@@ -280,6 +303,7 @@ public class UserServiceUnitTest {
         verify(userRepository).save(changedUser);
         verify(userMapper).mapToUser(1L, userDtoRequest, user.getPassword(), user.getRole());
         verify(userMapper).mapToUserDtoResponse(changedUser);
+        verify(postRepository).updateCommentSummariesUsername(1L, newName);
     }
 
     @Test
@@ -379,4 +403,82 @@ public class UserServiceUnitTest {
         assertTrue(actual.getMessage().contains("Token isn't valid"));
         verify(userRepository).findUserByUsername(user.getUsername());
     }
+
+    @Test
+    void getUserByUsernameAndPassword() {
+        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.ofNullable(user));
+        when(userMapper.mapToUserDto(user)).thenReturn(userDto);
+        when(passwordEncoder.matches("password", userDto.getPassword())).thenReturn(true);
+
+        UserDto actual = userService.getUserByUsernameAndPassword(user.getUsername(), "password");
+
+        assertEquals(userDto, actual);
+        verify(passwordEncoder).matches("password", userDto.getPassword());
+    }
+
+    @Test
+    void getUserByUsernameAndPasswordFail() {
+        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.ofNullable(user));
+        when(userMapper.mapToUserDto(user)).thenReturn(userDto);
+        when(passwordEncoder.matches("wrongPassword", userDto.getPassword())).thenReturn(false);
+
+        NotValidCredentialsException actual = assertThrows(NotValidCredentialsException.class,
+                () -> userService.getUserByUsernameAndPassword(user.getUsername(), "wrongPassword"));
+
+        assertTrue(actual.getMessage().contains("Username or password isn't valid"));
+    }
+
+    @Test
+    void getUserByUsernameAndPasswordUnknownUser() {
+        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("dummyPassword");
+
+        NotValidCredentialsException actual = assertThrows(NotValidCredentialsException.class,
+                () -> userService.getUserByUsernameAndPassword(user.getUsername(), "password"));
+
+        assertTrue(actual.getMessage().contains("Username or password isn't valid"));
+        verify(passwordEncoder).matches("password", "dummyPassword");
+    }
+
+    @Test
+    void getUserByUsernameAndPasswordRehashPassword() {
+        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.ofNullable(user));
+        when(userMapper.mapToUserDto(user)).thenReturn(userDto);
+        when(passwordEncoder.matches("password", userDto.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(userDto.getPassword())).thenReturn(true);
+        when(passwordEncoder.encode("password")).thenReturn("rehashedPassword");
+        when(userRepository.replacePassword(userDto.getId(), userDto.getPassword(), "rehashedPassword")).thenReturn(true);
+
+        UserDto actual = userService.getUserByUsernameAndPassword(user.getUsername(), "password");
+
+        assertEquals(userDto, actual);
+        verify(userRepository).replacePassword(userDto.getId(), userDto.getPassword(), "rehashedPassword");
+    }
+
+    @Test
+    void getUserByUsernameAndPasswordWithoutRehash() {
+        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.ofNullable(user));
+        when(userMapper.mapToUserDto(user)).thenReturn(userDto);
+        when(passwordEncoder.matches("password", userDto.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(userDto.getPassword())).thenReturn(false);
+
+        userService.getUserByUsernameAndPassword(user.getUsername(), "password");
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).replacePassword(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void getUserByUsernameAndPasswordRehashUnavailable() {
+        when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.ofNullable(user));
+        when(userMapper.mapToUserDto(user)).thenReturn(userDto);
+        when(passwordEncoder.matches("password", userDto.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(userDto.getPassword())).thenReturn(true);
+        when(passwordEncoder.encode("password")).thenThrow(new PasswordHashingUnavailableException("Password hashing is busy"));
+
+        UserDto actual = userService.getUserByUsernameAndPassword(user.getUsername(), "password");
+
+        assertEquals(userDto, actual);
+        verify(userRepository, never()).replacePassword(anyLong(), anyString(), anyString());
+    }
 }
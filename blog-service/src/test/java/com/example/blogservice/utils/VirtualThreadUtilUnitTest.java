@@ -0,0 +1,69 @@
+package com.example.blogservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadUtilUnitTest {
+
+    @Test
+    void isSupportedFromJava21() {
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreadUtil.isSupported());
+    }
+
+    @Test
+    void newThreadPerTaskExecutor() throws Exception {
+        assumeTrue(VirtualThreadUtil.isSupported());
+        ExecutorService executorService = VirtualThreadUtil.newThreadPerTaskExecutor("request-");
+
+        Future<String> threadName = executorService.submit(() -> Thread.currentThread().toString());
+
+        assertTrue(threadName.get().startsWith("VirtualThread"));
+        assertTrue(threadName.get().contains("request-0"));
+        executorService.shutdown();
+    }
+
+    @Test
+    void limitConcurrency() throws Exception {
+        ExecutorService executorService = Executors.newCachedThreadPool();
+        Executor executor = VirtualThreadUtil.limitConcurrency(executorService, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++)
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        executorService.shutdown();
+    }
+
+    @Test
+    void newThreadFactoryFailBelowJava21() {
+        assumeFalse(VirtualThreadUtil.isSupported());
+
+        assertThrows(IllegalStateException.class, () -> VirtualThreadUtil.newThreadFactory("request-"));
+    }
+}